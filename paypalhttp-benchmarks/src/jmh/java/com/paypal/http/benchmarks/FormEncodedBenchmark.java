@@ -0,0 +1,48 @@
+package com.paypal.http.benchmarks;
+
+import com.paypal.http.HttpRequest;
+import com.paypal.http.serializer.FormEncoded;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Url-encoding of a token request sized form body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormEncodedBenchmark {
+
+	private final FormEncoded formEncoded = new FormEncoded();
+	private HttpRequest<Void> request;
+
+	@Setup
+	public void setup() {
+		Map<String, String> body = new HashMap<>();
+		body.put("grant_type", "client_credentials");
+		body.put("response_type", "token");
+		body.put("return_authn_schemes", "true");
+		body.put("redirect_uri", "https://example.com/return?order=5O190127TN364715T&status=approved");
+		body.put("scope", "openid profile email https://uri.paypal.com/services/payments/refund");
+		body.put("state", "a b+c/d=e&f");
+
+		request = new HttpRequest<>("/v1/oauth2/token", "POST", Void.class)
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.requestBody(body);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return formEncoded.encode(request);
+	}
+}
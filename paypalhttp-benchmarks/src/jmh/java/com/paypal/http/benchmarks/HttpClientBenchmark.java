@@ -0,0 +1,106 @@
+package com.paypal.http.benchmarks;
+
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.HttpResponse;
+import com.paypal.http.serializer.Json;
+import com.paypal.http.transport.PooledTransport;
+import com.paypal.http.transport.Transport;
+import com.paypal.http.transport.UrlConnectionTransport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * End-to-end {@link HttpClient#execute} against an in-process {@link HttpServer} on the loopback
+ * interface, covering injectors, encoding, the transport and decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HttpClientBenchmark {
+
+	@Param({"url-connection", "pooled"})
+	public String transport;
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private Transport clientTransport;
+	private HttpClient client;
+	private Order order;
+
+	@Setup
+	public void setup() throws IOException {
+		order = Order.sample(3, 5);
+		byte[] response = new Json().serialize(order).getBytes(UTF_8);
+
+		// Without TCP_NODELAY the server's split header/body writes stall on delayed ACKs
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+
+		serverExecutor = Executors.newFixedThreadPool(4);
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", exchange -> respond(exchange, response));
+		server.setExecutor(serverExecutor);
+		server.start();
+
+		String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+		clientTransport = "pooled".equals(transport) ? new PooledTransport() : new UrlConnectionTransport();
+		client = new HttpClient(() -> baseUrl);
+		client.setTransport(clientTransport);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		clientTransport.close();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@Benchmark
+	public Order get() throws IOException {
+		HttpResponse<Order> response = client.execute(new HttpRequest<>("/v2/checkout/orders/5O190127TN364715T", "GET", Order.class));
+		return response.result();
+	}
+
+	@Benchmark
+	public Order post() throws IOException {
+		HttpResponse<Order> response = client.execute(new HttpRequest<>("/v2/checkout/orders", "POST", Order.class)
+				.header("Content-Type", "application/json")
+				.requestBody(order));
+		return response.result();
+	}
+
+	private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] buffer = new byte[8192];
+			while (in.read(buffer) != -1) {
+				// drain so the connection can be reused
+			}
+		}
+
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.paypal.http.benchmarks;
+
+import com.google.gson.GsonBuilder;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.serializer.Json;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encoding and decoding of a nested {@link Order} with both model binding strategies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+	@Param({"true", "false"})
+	public boolean streamingBinding;
+
+	@Param({"1", "20"})
+	public int itemsPerUnit;
+
+	private Json json;
+	private HttpRequest<Void> request;
+	private String encoded;
+	private byte[] encodedBytes;
+
+	@Setup
+	public void setup() throws IOException {
+		json = new Json(new GsonBuilder().create(), streamingBinding);
+		request = new HttpRequest<>("/v2/checkout/orders", "POST", Void.class)
+				.header("Content-Type", "application/json")
+				.requestBody(Order.sample(3, itemsPerUnit));
+		encoded = json.serialize(request.requestBody());
+		encodedBytes = encoded.getBytes(UTF_8);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return json.encode(request);
+	}
+
+	@Benchmark
+	public Order decode() throws IOException {
+		return json.decode(encoded, Order.class);
+	}
+
+	@Benchmark
+	public Order decodeStream() throws IOException {
+		return json.decode(new ByteArrayInputStream(encodedBytes), UTF_8, Order.class);
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> decodeMap() throws IOException {
+		return json.decode(encoded, Map.class);
+	}
+}
@@ -0,0 +1,92 @@
+package com.paypal.http.benchmarks;
+
+import com.paypal.http.HttpRequest;
+import com.paypal.http.multipart.FilePart;
+import com.paypal.http.multipart.FormPart;
+import com.paypal.http.multipart.JsonPart;
+import com.paypal.http.multipart.MultipartBody;
+import com.paypal.http.serializer.Multipart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A dispute evidence style upload: a file, a form field and a Json part. {@code encode}
+ * materialises the whole body while {@code stream} writes it to a discarding stream the way a
+ * transport does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultipartBenchmark {
+
+	@Param({"65536", "4194304"})
+	public int fileSize;
+
+	private final Multipart multipart = new Multipart();
+	private File file;
+
+	@Setup
+	public void setup() throws IOException {
+		byte[] data = new byte[fileSize];
+		new Random(42).nextBytes(data);
+
+		file = File.createTempFile("paypalhttp-benchmark", ".pdf");
+		Files.write(file.toPath(), data);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return multipart.encode(request());
+	}
+
+	@Benchmark
+	public long stream() throws IOException {
+		DiscardingOutputStream os = new DiscardingOutputStream();
+		multipart.encodeBody(request()).writeTo(os);
+		return os.count;
+	}
+
+	// Encoding rewrites the Content-Type header with a boundary, so each invocation needs a fresh request
+	private HttpRequest<Void> request() {
+		return new HttpRequest<>("/v1/customer/disputes/PP-000-042-663-135/provide-evidence", "POST", Void.class)
+				.header("Content-Type", "multipart/form-data")
+				.requestBody(new MultipartBody(
+						new FilePart("evidence-file", file),
+						new FormPart("note", "Tracking number attached"),
+						new JsonPart("input", Order.sample(1, 1))));
+	}
+
+	private static final class DiscardingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
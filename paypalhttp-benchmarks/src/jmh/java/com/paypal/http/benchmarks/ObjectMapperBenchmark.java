@@ -0,0 +1,46 @@
+package com.paypal.http.benchmarks;
+
+import com.paypal.http.serializer.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective conversion between an {@link Order} graph and its {@code Map<String, Object>} form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ObjectMapperBenchmark {
+
+	@Param({"1", "20"})
+	public int itemsPerUnit;
+
+	private Order order;
+	private Map<String, Object> mapped;
+
+	@Setup
+	public void setup() throws IllegalAccessException {
+		order = Order.sample(3, itemsPerUnit);
+		mapped = ObjectMapper.map(order);
+	}
+
+	@Benchmark
+	public Map<String, Object> map() throws IllegalAccessException {
+		return ObjectMapper.map(order);
+	}
+
+	@Benchmark
+	public Order unmap() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+		return ObjectMapper.unmap(mapped, Order.class);
+	}
+}
@@ -0,0 +1,217 @@
+package com.paypal.http.benchmarks;
+
+import com.paypal.http.annotations.Model;
+import com.paypal.http.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A trimmed-down checkout order, shaped like the models generated for the PayPal REST APIs.
+ */
+@Model
+public class Order {
+
+	@SerializedName("id")
+	public String id;
+
+	@SerializedName("intent")
+	public String intent;
+
+	@SerializedName("status")
+	public String status;
+
+	@SerializedName("payer")
+	public Payer payer;
+
+	@SerializedName(value = "purchase_units", listClass = PurchaseUnit.class)
+	public List<PurchaseUnit> purchaseUnits;
+
+	@SerializedName(value = "links", listClass = Link.class)
+	public List<Link> links;
+
+	@SerializedName("create_time")
+	public String createTime;
+
+	public Order() {}
+
+	/**
+	 * An order with {@code units} purchase units of {@code itemsPerUnit} items each.
+	 */
+	public static Order sample(int units, int itemsPerUnit) {
+		Order order = new Order();
+		order.id = "5O190127TN364715T";
+		order.intent = "CAPTURE";
+		order.status = "CREATED";
+		order.createTime = "2018-04-01T21:18:49Z";
+
+		order.payer = new Payer();
+		order.payer.payerId = "QYR5Z8XDVJNXQ";
+		order.payer.emailAddress = "buyer@example.com";
+		order.payer.name = new Name();
+		order.payer.name.givenName = "John";
+		order.payer.name.surname = "Doe";
+		order.payer.address = new Address();
+		order.payer.address.addressLine1 = "2211 N First Street";
+		order.payer.address.adminArea2 = "San Jose";
+		order.payer.address.adminArea1 = "CA";
+		order.payer.address.postalCode = "95131";
+		order.payer.address.countryCode = "US";
+
+		order.purchaseUnits = new ArrayList<>();
+		for (int u = 0; u < units; u++) {
+			PurchaseUnit unit = new PurchaseUnit();
+			unit.referenceId = "unit-" + u;
+			unit.description = "Sporting goods";
+			unit.amount = new Money("USD", String.format("%d.00", 10 * itemsPerUnit));
+			unit.items = new ArrayList<>();
+			for (int i = 0; i < itemsPerUnit; i++) {
+				Item item = new Item();
+				item.name = "T-Shirt " + i;
+				item.sku = "sku-" + u + "-" + i;
+				item.quantity = 1 + i % 3;
+				item.unitAmount = new Money("USD", "10.00");
+				item.tags = new ArrayList<>();
+				item.tags.add("apparel");
+				item.tags.add("summer");
+				unit.items.add(item);
+			}
+			order.purchaseUnits.add(unit);
+		}
+
+		order.links = new ArrayList<>();
+		order.links.add(new Link("https://api.paypal.com/v2/checkout/orders/5O190127TN364715T", "self", "GET"));
+		order.links.add(new Link("https://www.paypal.com/checkoutnow?token=5O190127TN364715T", "approve", "GET"));
+		order.links.add(new Link("https://api.paypal.com/v2/checkout/orders/5O190127TN364715T/capture", "capture", "POST"));
+
+		return order;
+	}
+
+	@Model
+	public static class Payer {
+
+		@SerializedName("payer_id")
+		public String payerId;
+
+		@SerializedName("email_address")
+		public String emailAddress;
+
+		@SerializedName("name")
+		public Name name;
+
+		@SerializedName("address")
+		public Address address;
+
+		public Payer() {}
+	}
+
+	@Model
+	public static class Name {
+
+		@SerializedName("given_name")
+		public String givenName;
+
+		@SerializedName("surname")
+		public String surname;
+
+		public Name() {}
+	}
+
+	@Model
+	public static class Address {
+
+		@SerializedName("address_line_1")
+		public String addressLine1;
+
+		@SerializedName("admin_area_2")
+		public String adminArea2;
+
+		@SerializedName("admin_area_1")
+		public String adminArea1;
+
+		@SerializedName("postal_code")
+		public String postalCode;
+
+		@SerializedName("country_code")
+		public String countryCode;
+
+		public Address() {}
+	}
+
+	@Model
+	public static class PurchaseUnit {
+
+		@SerializedName("reference_id")
+		public String referenceId;
+
+		@SerializedName("description")
+		public String description;
+
+		@SerializedName("amount")
+		public Money amount;
+
+		@SerializedName(value = "items", listClass = Item.class)
+		public List<Item> items;
+
+		public PurchaseUnit() {}
+	}
+
+	@Model
+	public static class Item {
+
+		@SerializedName("name")
+		public String name;
+
+		@SerializedName("sku")
+		public String sku;
+
+		@SerializedName("quantity")
+		public Integer quantity;
+
+		@SerializedName("unit_amount")
+		public Money unitAmount;
+
+		@SerializedName(value = "tags", listClass = String.class)
+		public List<String> tags;
+
+		public Item() {}
+	}
+
+	@Model
+	public static class Money {
+
+		@SerializedName("currency_code")
+		public String currencyCode;
+
+		@SerializedName("value")
+		public String value;
+
+		public Money() {}
+
+		public Money(String currencyCode, String value) {
+			this.currencyCode = currencyCode;
+			this.value = value;
+		}
+	}
+
+	@Model
+	public static class Link {
+
+		@SerializedName("href")
+		public String href;
+
+		@SerializedName("rel")
+		public String rel;
+
+		@SerializedName("method")
+		public String method;
+
+		public Link() {}
+
+		public Link(String href, String rel, String method) {
+			this.href = href;
+			this.rel = rel;
+			this.method = method;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.paypal.http;
+
+import com.paypal.http.internal.Futures;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An {@link Injector} that does its work without blocking, e.g. fetching a token or a signature
+ * from another service. {@link HttpClient#executeAsync} waits for the returned stage before
+ * running the next injector, without holding a thread; {@link HttpClient#execute} blocks on it.
+ */
+public interface AsyncInjector extends Injector {
+
+	/**
+	 * Modifies the request, completing the returned stage when done or exceptionally with an
+	 * {@link IOException} to fail the call.
+	 */
+	CompletionStage<Void> injectAsync(HttpRequest request);
+
+	@Override
+	default void inject(HttpRequest request) throws IOException {
+		Futures.await(injectAsync(request).toCompletableFuture(), "an injector");
+	}
+}
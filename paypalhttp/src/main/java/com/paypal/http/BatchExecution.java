@@ -0,0 +1,144 @@
+package com.paypal.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the requests of a batch through {@link HttpClient#executeAsync}, starting the next one as
+ * soon as a permit frees up, and hands the results to the {@link BatchOptions} callbacks one at a
+ * time.
+ *
+ * When results are delivered in order, a request's permit is only released once its result has
+ * been delivered, so a slow request holds back at most {@code parallelism} completed results
+ * rather than the rest of the batch. An exception thrown by a callback does not stop delivery;
+ * the first one is rethrown once the batch is done.
+ */
+final class BatchExecution {
+
+	private final BatchOptions options;
+	private final int total;
+	private final Semaphore permits;
+	private final BatchResult<?>[] results;
+	private final Map<Integer, BatchResult<?>> undelivered = new HashMap<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private int nextDelivery;
+	private int completed;
+	private int failed;
+	private RuntimeException callbackFailure;
+
+	private BatchExecution(int total, BatchOptions options) {
+		this.options = options;
+		this.total = total;
+		this.permits = new Semaphore(options.parallelism);
+		this.results = options.retainResults ? new BatchResult<?>[total] : null;
+	}
+
+	static List<BatchResult<?>> run(HttpClient client, Collection<? extends HttpRequest<?>> requests, BatchOptions options)
+			throws InterruptedIOException {
+		List<HttpRequest<?>> batch = new ArrayList<>(requests);
+		BatchExecution execution = new BatchExecution(batch.size(), options);
+
+		try {
+			for (int i = 0; i < batch.size(); i++) {
+				execution.permits.acquire();
+				execution.submit(client, i, batch.get(i));
+			}
+			execution.permits.acquire(options.parallelism);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while executing a batch");
+		}
+
+		if (execution.callbackFailure != null) {
+			throw execution.callbackFailure;
+		}
+
+		return execution.results == null
+				? Collections.emptyList()
+				: Collections.unmodifiableList(Arrays.asList(execution.results));
+	}
+
+	private <T> void submit(HttpClient client, int index, HttpRequest<T> request) {
+		CompletableFuture<HttpResponse<T>> call;
+		try {
+			call = client.executeAsync(request);
+		} catch (RuntimeException e) {
+			call = new CompletableFuture<>();
+			call.completeExceptionally(e);
+		}
+
+		call.whenComplete((response, error) ->
+				permits.release(record(new BatchResult<>(index, request, response, error == null ? null : ioCause(error)))));
+	}
+
+	/**
+	 * Records a completed request and delivers what may be delivered, returning the number of
+	 * permits to release.
+	 */
+	private int record(BatchResult<?> result) {
+		lock.lock();
+		try {
+			completed++;
+			if (!result.isSuccess()) {
+				failed++;
+			}
+			if (results != null) {
+				results[result.index()] = result;
+			}
+
+			int delivered = 1;
+			if (options.resultConsumer != null) {
+				if (options.ordered) {
+					undelivered.put(result.index(), result);
+					delivered = 0;
+					for (BatchResult<?> next; (next = undelivered.remove(nextDelivery)) != null; nextDelivery++, delivered++) {
+						deliver(next);
+					}
+				} else {
+					deliver(result);
+				}
+			}
+
+			if (options.progressListener != null) {
+				try {
+					options.progressListener.progress(completed, failed, total);
+				} catch (RuntimeException e) {
+					callbackFailed(e);
+				}
+			}
+			return delivered;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void deliver(BatchResult<?> result) {
+		try {
+			options.resultConsumer.accept(result);
+		} catch (RuntimeException e) {
+			callbackFailed(e);
+		}
+	}
+
+	private void callbackFailed(RuntimeException e) {
+		if (callbackFailure == null) {
+			callbackFailure = e;
+		}
+	}
+
+	private static IOException ioCause(Throwable error) {
+		Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+		return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+	}
+}
@@ -0,0 +1,81 @@
+package com.paypal.http;
+
+import java.util.function.Consumer;
+
+/**
+ * Configures {@link HttpClient#executeAll}.
+ *
+ * <pre>
+ * <code>
+ * client.executeAll(requests, new BatchOptions()
+ *     .parallelism(32)
+ *     .ordered(true)
+ *     .onResult(result -&gt; write(result))
+ *     .onProgress((completed, failed, total) -&gt; log.info(completed + "/" + total))
+ *     .retainResults(false));
+ * </code>
+ * </pre>
+ */
+public class BatchOptions {
+
+	int parallelism = 16;
+	boolean ordered;
+	boolean retainResults = true;
+	Consumer<BatchResult<?>> resultConsumer;
+	ProgressListener progressListener;
+
+	/**
+	 * Sets how many requests may be in flight at once. Defaults to 16. With a pooling
+	 * {@link com.paypal.http.transport.Transport}, keep it within the pool's connections per route
+	 * so that every request reuses a connection.
+	 */
+	public BatchOptions parallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism of a batch must be at least 1");
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Whether {@link #onResult} receives the results in the order of the requests, holding back
+	 * those that complete early, or as they complete. Defaults to as they complete. A held back
+	 * result keeps its request's place among the {@link #parallelism} in flight until it is
+	 * delivered.
+	 */
+	public BatchOptions ordered(boolean ordered) {
+		this.ordered = ordered;
+		return this;
+	}
+
+	/**
+	 * Whether {@link HttpClient#executeAll} returns every result once the batch is done. Turn this
+	 * off for large batches whose results are consumed through {@link #onResult}.
+	 */
+	public BatchOptions retainResults(boolean retainResults) {
+		this.retainResults = retainResults;
+		return this;
+	}
+
+	/**
+	 * Receives each result as soon as it may be delivered. Calls are never concurrent, but they
+	 * are made on the threads that complete the requests, so the consumer should return quickly.
+	 */
+	public BatchOptions onResult(Consumer<BatchResult<?>> resultConsumer) {
+		this.resultConsumer = resultConsumer;
+		return this;
+	}
+
+	/**
+	 * Is told the progress of the batch after every completed request, from the same threads as
+	 * {@link #onResult}.
+	 */
+	public BatchOptions onProgress(ProgressListener progressListener) {
+		this.progressListener = progressListener;
+		return this;
+	}
+
+	public interface ProgressListener {
+		void progress(int completed, int failed, int total);
+	}
+}
@@ -0,0 +1,51 @@
+package com.paypal.http;
+
+import java.io.IOException;
+
+/**
+ * The outcome of one request of {@link HttpClient#executeAll}: its response, or the exception it
+ * failed with.
+ */
+public final class BatchResult<T> {
+
+	private final int index;
+	private final HttpRequest<T> request;
+	private final HttpResponse<T> response;
+	private final IOException error;
+
+	BatchResult(int index, HttpRequest<T> request, HttpResponse<T> response, IOException error) {
+		this.index = index;
+		this.request = request;
+		this.response = response;
+		this.error = error;
+	}
+
+	/**
+	 * The position of the request in the batch.
+	 */
+	public int index() {
+		return index;
+	}
+
+	public HttpRequest<T> request() {
+		return request;
+	}
+
+	/**
+	 * The response, or null if the request failed.
+	 */
+	public HttpResponse<T> response() {
+		return response;
+	}
+
+	/**
+	 * The exception the request failed with, or null if it succeeded.
+	 */
+	public IOException error() {
+		return error;
+	}
+
+	public boolean isSuccess() {
+		return error == null;
+	}
+}
@@ -0,0 +1,262 @@
+package com.paypal.http;
+
+import com.paypal.http.cache.CachedResponse;
+import com.paypal.http.cache.RequestCoalescer;
+import com.paypal.http.transport.TransportListener;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a single call for the {@link HttpClientListener}s of an {@link HttpClient}, and forwards
+ * the {@link TransportListener} events of its transport with the request attached. When the
+ * client has no listeners every method returns immediately.
+ *
+ * It also holds the stale cached response the call is revalidating, if any, so that a 304 can be
+ * answered with it even if the cache evicted it in the meantime, and the coalescing flight the
+ * call leads, if any, so that its raw response can be shared with the followers.
+ */
+final class CallTracer implements TransportListener {
+
+	private final HttpRequest<?> request;
+	private final List<HttpClientListener> listeners;
+	private final long startNanos;
+	private long markNanos;
+	private TimedInputStream responseBody;
+	private CachedResponse revalidating;
+	private RequestCoalescer.Flight leading;
+
+	private CallTracer(HttpRequest<?> request, List<HttpClientListener> listeners) {
+		this.request = request;
+		this.listeners = listeners;
+		this.startNanos = isEnabled() ? System.nanoTime() : 0;
+		this.markNanos = startNanos;
+	}
+
+	static CallTracer start(HttpRequest<?> request, List<HttpClientListener> listeners) {
+		CallTracer tracer = new CallTracer(request, listeners);
+		for (HttpClientListener listener : tracer.listeners) {
+			listener.callStart(request);
+		}
+
+		return tracer;
+	}
+
+	boolean isEnabled() {
+		return !listeners.isEmpty();
+	}
+
+	void revalidating(CachedResponse cached) {
+		this.revalidating = cached;
+	}
+
+	CachedResponse revalidating() {
+		return revalidating;
+	}
+
+	void leading(RequestCoalescer.Flight flight) {
+		this.leading = flight;
+	}
+
+	RequestCoalescer.Flight leading() {
+		return leading;
+	}
+
+	void injectorEnd(Injector injector, long startNanos) {
+		if (isEnabled()) {
+			long duration = System.nanoTime() - startNanos;
+			for (HttpClientListener listener : listeners) {
+				listener.injectorEnd(request, injector, duration);
+			}
+		}
+	}
+
+	void injectorsEnd() {
+		if (isEnabled()) {
+			long duration = lap();
+			for (HttpClientListener listener : listeners) {
+				listener.injectorsEnd(request, duration);
+			}
+		}
+	}
+
+	void requestEncoded(long contentLength) {
+		if (isEnabled()) {
+			long duration = lap();
+			for (HttpClientListener listener : listeners) {
+				listener.requestEncoded(request, contentLength, duration);
+			}
+		}
+	}
+
+	@Override
+	public void connectionAcquired(boolean reused, long durationNanos) {
+		for (HttpClientListener listener : listeners) {
+			listener.connectionAcquired(request, reused, durationNanos);
+		}
+	}
+
+	@Override
+	public void connected(long durationNanos) {
+		for (HttpClientListener listener : listeners) {
+			listener.connectEnd(request, durationNanos);
+		}
+	}
+
+	@Override
+	public void secureConnected(long durationNanos) {
+		for (HttpClientListener listener : listeners) {
+			listener.secureConnectEnd(request, durationNanos);
+		}
+	}
+
+	@Override
+	public void requestSent(long bodyBytes, long durationNanos) {
+		for (HttpClientListener listener : listeners) {
+			listener.requestSent(request, bodyBytes, durationNanos);
+		}
+	}
+
+	@Override
+	public void responseHeadersReceived(int statusCode, long durationNanos) {
+		for (HttpClientListener listener : listeners) {
+			listener.responseHeadersEnd(request, statusCode, durationNanos);
+		}
+	}
+
+	/**
+	 * Wraps the response body so the bytes read and the time spent blocked reading can be
+	 * reported by {@link #responseBodyEnd()}.
+	 */
+	InputStream responseBody(InputStream body) {
+		if (!isEnabled() || body == null) {
+			return body;
+		}
+
+		lap();
+		responseBody = new TimedInputStream(body);
+		return responseBody;
+	}
+
+	void responseBodyEnd() {
+		if (isEnabled()) {
+			long duration = lap();
+			long bytes = responseBody == null ? 0 : responseBody.bytes;
+			long readNanos = responseBody == null ? 0 : Math.min(responseBody.readNanos, duration);
+			for (HttpClientListener listener : listeners) {
+				listener.responseBodyEnd(request, bytes, readNanos, duration - readNanos);
+			}
+		}
+	}
+
+	void retry(int attempts, IOException e, long delayMillis) {
+		if (isEnabled()) {
+			long delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+			for (HttpClientListener listener : listeners) {
+				listener.retry(request, attempts, e, delayNanos);
+			}
+		}
+	}
+
+	void rateLimited(double tokens, long waitNanos) {
+		for (HttpClientListener listener : listeners) {
+			listener.rateLimited(request, tokens, Math.max(0, waitNanos));
+		}
+	}
+
+	void hedged(long delayNanos) {
+		for (HttpClientListener listener : listeners) {
+			listener.hedged(request, delayNanos);
+		}
+	}
+
+	void hedgeWon() {
+		for (HttpClientListener listener : listeners) {
+			listener.hedgeWon(request);
+		}
+	}
+
+	void cacheHit(boolean revalidated) {
+		for (HttpClientListener listener : listeners) {
+			listener.cacheHit(request, revalidated);
+		}
+	}
+
+	void coalesced() {
+		for (HttpClientListener listener : listeners) {
+			listener.coalesced(request);
+		}
+	}
+
+	void callEnd(int statusCode) {
+		if (isEnabled()) {
+			long duration = System.nanoTime() - startNanos;
+			for (HttpClientListener listener : listeners) {
+				listener.callEnd(request, statusCode, duration);
+			}
+		}
+	}
+
+	void callFailed(IOException e) {
+		if (isEnabled()) {
+			long duration = System.nanoTime() - startNanos;
+			for (HttpClientListener listener : listeners) {
+				listener.callFailed(request, e, duration);
+			}
+		}
+	}
+
+	private long lap() {
+		long now = System.nanoTime();
+		long duration = now - markNanos;
+		markNanos = now;
+		return duration;
+	}
+
+	private static final class TimedInputStream extends FilterInputStream {
+
+		private long bytes;
+		private long readNanos;
+
+		TimedInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			long start = System.nanoTime();
+			int b = super.read();
+			readNanos += System.nanoTime() - start;
+			if (b != -1) {
+				bytes++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			long start = System.nanoTime();
+			int count = super.read(b, off, len);
+			readNanos += System.nanoTime() - start;
+			if (count > 0) {
+				bytes += count;
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			bytes += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
@@ -1,19 +1,26 @@
 package com.paypal.http;
 import com.paypal.http.serializer.*;
+import com.paypal.http.transport.RequestBody;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
+import java.nio.charset.Charset;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class Encoder {
 
-	private List<Serializer> serializers = new ArrayList<>();
+	private final SerializerRegistry serializers = new SerializerRegistry();
 
 	public void registerSerializer(Serializer serializer) {
-		serializers.add(serializer);
+		serializers.register(serializer);
 	}
 
 	public Encoder() {
@@ -24,6 +31,22 @@ public class Encoder {
 	}
 
 	public byte[] serializeRequest(HttpRequest request) throws IOException {
+		RequestBody body = serializeRequestBody(request);
+		long length = body.contentLength();
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(length > 0 && length <= Integer.MAX_VALUE ? (int) length : 32);
+		body.writeTo(bos);
+
+		return bos.toByteArray();
+	}
+
+	/**
+	 * Streaming form of {@link #serializeRequest(HttpRequest)}: the returned body writes the
+	 * encoded request straight to the connection. Gzip bodies whose serializer knows their length
+	 * are compressed up front so they can still be sent with a Content-Length; others are
+	 * compressed as they are written.
+	 */
+	public RequestBody serializeRequestBody(HttpRequest request) throws IOException {
 		String contentType = request.headers().header(Headers.CONTENT_TYPE);
 		if (contentType != null) {
 			Serializer serializer = serializer(contentType);
@@ -34,20 +57,10 @@ public class Encoder {
 				throw new UnsupportedEncodingException(message);
 			}
 
-			byte[] encoded = serializer.encode(request);
+			RequestBody encoded = serializer.encodeBody(request);
 
 			if ("gzip".equals(request.headers().header("content-encoding"))) {
-				ByteArrayOutputStream bos = new ByteArrayOutputStream();
-				GZIPOutputStream gzos = new GZIPOutputStream(bos);
-
-				try {
-					gzos.write(encoded);
-				} finally {
-					bos.close();
-					gzos.close();
-				}
-
-				return bos.toByteArray();
+				return gzip(encoded);
 			}
 
 			return encoded;
@@ -58,68 +71,92 @@ public class Encoder {
 		}
 	}
 
+	private static RequestBody gzip(RequestBody body) throws IOException {
+		if (body.contentLength() >= 0) {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzos = new GZIPOutputStream(bos)) {
+				body.writeTo(gzos);
+			}
+
+			return RequestBody.of(bos.toByteArray());
+		}
+
+		return new RequestBody() {
+			@Override
+			public long contentLength() {
+				return -1;
+			}
+
+			@Override
+			public void writeTo(OutputStream os) throws IOException {
+				GZIPOutputStream gzos = new GZIPOutputStream(os, 8192);
+				body.writeTo(gzos);
+				gzos.finish();
+			}
+		};
+	}
+
 	@SuppressWarnings("unchecked")
 	public <T> T deserializeResponse(InputStream stream, Class<T> responseClass, Headers headers) throws IOException {
 		String contentType = headers.header(Headers.CONTENT_TYPE);
 		String contentEncoding = headers.header("content-encoding");
 
-		String responseBody = StreamUtils.readStream(stream, contentEncoding);
-
-		stream.close();
-
 		if (responseClass.isAssignableFrom(String.class)) {
-			return (T) responseBody;
+			return (T) StreamUtils.readStream(stream, contentEncoding);
 		}
 
-		if (responseBody.isEmpty()) {
+		if (stream == null) {
 			return null;
 		}
 
-		if (contentType == null) {
-			String message = "HttpResponse does not have content-type header set" ;
-			System.out.println(message);
-			throw new UnsupportedEncodingException(message);
+		if ("gzip".equals(contentEncoding)) {
+			stream = new GZIPInputStream(stream);
 		}
-		// Setting to lowercase
-		contentType = contentType.toLowerCase();
 
-		Serializer serializer = serializer(contentType);
+		try (PushbackInputStream body = new PushbackInputStream(stream)) {
+			int first = body.read();
+			if (first == -1) {
+				return null;
+			}
+			body.unread(first);
 
-		if (serializer == null) {
-			String message = String.format("Unable to decode response with content-type: %s. Supported decodings are: %s", headers.header(Headers.CONTENT_TYPE), supportedEncodings());
-			System.out.println(message);
-			throw new UnsupportedEncodingException(message);
+			if (contentType == null) {
+				String message = "HttpResponse does not have content-type header set" ;
+				System.out.println(message);
+				throw new UnsupportedEncodingException(message);
+			}
+			// Setting to lowercase
+			contentType = contentType.toLowerCase();
+
+			Serializer serializer = serializer(contentType);
+
+			if (serializer == null) {
+				String message = String.format("Unable to decode response with content-type: %s. Supported decodings are: %s", headers.header(Headers.CONTENT_TYPE), supportedEncodings());
+				System.out.println(message);
+				throw new UnsupportedEncodingException(message);
+			}
+
+			return serializer.decode(body, charset(contentType), responseClass);
 		}
+	}
 
-		if (responseBody.length() > 0) {
-			return serializer.decode(responseBody, responseClass);
+	private static Charset charset(String contentType) {
+		int index = contentType.indexOf("charset=");
+		if (index != -1) {
+			String name = contentType.substring(index + "charset=".length()).split(";")[0].trim().replace("\"", "");
+			try {
+				return Charset.forName(name);
+			} catch (IllegalArgumentException ignored) {}
 		}
 
-		return null;
+		return UTF_8;
 	}
 
-
 	private List<String> supportedEncodings() {
-		List<String> supportedEncodings = new ArrayList<>();
-
-		for (Serializer serializer : serializers) {
-			supportedEncodings.add(serializer.contentType());
-		}
-
-		return supportedEncodings;
+		return serializers.supportedEncodings();
 	}
 
 	private Serializer serializer(String contentType) {
-		if (contentType.contains(";")) {
-			contentType = contentType.split(";")[0];
-		}
-
-		for (Serializer s : serializers) {
-			if (contentType.matches(s.contentType())) {
-				return s;
-			}
-		}
-
-		return null;
+		return serializers.serializer(contentType);
 	}
 }
@@ -0,0 +1,141 @@
+package com.paypal.http;
+
+import com.paypal.http.internal.DefaultExecutor;
+import com.paypal.http.resilience.HedgePolicy;
+import com.paypal.http.transport.Cancellation;
+import com.paypal.http.transport.Transport;
+import com.paypal.http.transport.TransportRequest;
+import com.paypal.http.transport.TransportResponse;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends a request and, if it has not been answered within the hedge delay, a second copy of it.
+ * The first response wins and the other request is cancelled. The call only fails once every
+ * request sent has failed, with the first failure.
+ */
+final class HedgedRequest {
+
+	private final Transport transport;
+	private final TransportRequest transportRequest;
+	private final HttpRequest<?> request;
+	private final HedgePolicy policy;
+	private final CallTracer tracer;
+	private final Executor executor;
+	private final long startNanos = System.nanoTime();
+	private final CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+	private final Cancellation primary = new Cancellation();
+	private final Cancellation hedge = new Cancellation();
+	private final ReentrantLock lock = new ReentrantLock();
+	private int outstanding = 1;
+	private boolean settled;
+	private Throwable failure;
+
+	private HedgedRequest(Transport transport, TransportRequest transportRequest, HttpRequest<?> request,
+			HedgePolicy policy, CallTracer tracer, Executor executor) {
+		this.transport = transport;
+		this.transportRequest = transportRequest;
+		this.request = request;
+		this.policy = policy;
+		this.tracer = tracer;
+		this.executor = executor;
+	}
+
+	static CompletableFuture<TransportResponse> send(Transport transport, TransportRequest transportRequest, HttpRequest<?> request,
+			HedgePolicy policy, long delayNanos, CallTracer tracer, Executor executor) {
+		HedgedRequest hedged = new HedgedRequest(transport, transportRequest, request, policy, tracer, executor);
+		hedged.start(delayNanos);
+		return hedged.result;
+	}
+
+	private void start(long delayNanos) {
+		ScheduledFuture<?> timer = DefaultExecutor.scheduler().schedule(() -> hedge(delayNanos), delayNanos, TimeUnit.NANOSECONDS);
+		launch(primary);
+
+		result.whenComplete((response, error) -> {
+			timer.cancel(false);
+			if (result.isCancelled()) {
+				primary.cancel();
+				hedge.cancel();
+			}
+		});
+	}
+
+	private void hedge(long delayNanos) {
+		lock.lock();
+		try {
+			if (settled || result.isDone() || !policy.tryHedge()) {
+				return;
+			}
+			outstanding++;
+		} finally {
+			lock.unlock();
+		}
+
+		tracer.hedged(delayNanos);
+		launch(hedge);
+	}
+
+	private void launch(Cancellation cancellation) {
+		transport.sendAsync(transportRequest.copy().cancellation(cancellation), executor)
+				.whenComplete((response, error) -> complete(cancellation, response, error));
+	}
+
+	private void complete(Cancellation cancellation, TransportResponse response, Throwable error) {
+		Throwable first = null;
+		boolean settles;
+		lock.lock();
+		try {
+			outstanding--;
+			if (error != null && failure == null) {
+				failure = error;
+			}
+
+			settles = !settled && (error == null || outstanding == 0);
+			if (settles) {
+				settled = true;
+				if (error != null) {
+					first = failure;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if (!settles) {
+			if (response != null) {
+				closeQuietly(response);
+			}
+			return;
+		}
+
+		if (first != null) {
+			result.completeExceptionally(first);
+			return;
+		}
+
+		// Report the outcome before completing, so it is visible to whoever waits on the result
+		policy.record(request, System.nanoTime() - startNanos);
+		if (cancellation == hedge) {
+			primary.cancel();
+			tracer.hedgeWon();
+		} else {
+			hedge.cancel();
+		}
+
+		if (!result.complete(response)) {
+			closeQuietly(response);
+		}
+	}
+
+	private static void closeQuietly(TransportResponse response) {
+		try {
+			response.close();
+		} catch (IOException ignored) {}
+	}
+}
@@ -1,22 +1,47 @@
 package com.paypal.http;
 
+import com.paypal.http.cache.CachedResponse;
+import com.paypal.http.cache.RequestCoalescer;
+import com.paypal.http.cache.ResponseCache;
+import com.paypal.http.exceptions.CircuitOpenException;
 import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.exceptions.LimitExceededException;
+import com.paypal.http.internal.DefaultExecutor;
+import com.paypal.http.internal.Futures;
+import com.paypal.http.internal.PathTemplate;
 import com.paypal.http.internal.TLSSocketFactory;
+import com.paypal.http.resilience.CircuitBreaker;
+import com.paypal.http.resilience.CircuitBreakerPolicy;
+import com.paypal.http.resilience.ConcurrencyLimiter;
+import com.paypal.http.resilience.HedgePolicy;
+import com.paypal.http.resilience.RateLimiter;
+import com.paypal.http.resilience.RetryPolicy;
+import com.paypal.http.serializer.StreamUtils;
+import com.paypal.http.transport.RequestBody;
+import com.paypal.http.transport.Transport;
+import com.paypal.http.transport.TransportRequest;
+import com.paypal.http.transport.TransportResponse;
+import com.paypal.http.transport.UrlConnectionTransport;
 
-import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLSocketFactory;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
-import java.net.ProtocolException;
-import java.net.URL;
 import java.net.URLConnection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
-import static com.paypal.http.serializer.StreamUtils.writeOutputStream;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static java.net.HttpURLConnection.HTTP_PARTIAL;
 
@@ -28,16 +53,35 @@ public class HttpClient {
 	private int readTimeout;
 	private Environment environment;
 	private Encoder encoder;
+	private Transport transport;
+	private Executor executor;
+	private Executor transportExecutor;
+	private RetryPolicy retryPolicy;
+	private HedgePolicy hedgePolicy;
+	private CircuitBreakerPolicy circuitBreakerPolicy;
+	private ConcurrencyLimiter concurrencyLimiter;
+	private RateLimiter rateLimiter;
+	private ResponseCache responseCache;
+	private RequestCoalescer requestCoalescer;
+	private final List<HttpClientListener> listeners = new CopyOnWriteArrayList<>();
 
-	List<Injector> mInjectors;
+	/**
+	 * An immutable snapshot of the injectors, replaced as a whole whenever they change, so calls in
+	 * flight keep running the injectors they started with.
+	 */
+	volatile List<Injector> mInjectors;
+	private final ReentrantLock injectorsLock = new ReentrantLock();
 
 	public HttpClient(Environment environment) {
 		this.readTimeout =  (int) TimeUnit.SECONDS.toMillis(30);
 		this.connectTimeout = readTimeout;
 		this.userAgent = "Java HTTP/1.1"; // TODO: add version string to build.gradle
-		this.mInjectors = new ArrayList<>();
+		this.mInjectors = Collections.emptyList();
 		this.environment = environment;
 		this.encoder = new Encoder();
+		this.transport = new UrlConnectionTransport();
+		this.executor = DefaultExecutor.get();
+		this.transportExecutor = DefaultExecutor.get();
 
 		addInjector(this::injectStandardHeaders);
 
@@ -80,127 +124,779 @@ public class HttpClient {
 
 	public void setReadTimeout(int readTimeout) { this.readTimeout = readTimeout; }
 
-	public synchronized void addInjector(Injector injector) {
-		if (injector != null) {
-			mInjectors.add(injector);
+	/**
+	 * Override this method in a custom subclass to use a custom Transport.
+	 */
+	protected Transport getTransport() { return transport; }
+
+	public void setTransport(Transport transport) { this.transport = transport; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom Executor for {@link #executeAsync}.
+	 * On JDK 21+, {@link VirtualThreads#newExecutor()} runs each call on its own virtual thread.
+	 */
+	protected Executor getExecutor() { return executor; }
+
+	public void setExecutor(Executor executor) { this.executor = executor; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom Executor for the transport. The
+	 * built-in transports block one of its threads for each request in flight, so it should not
+	 * be bounded more tightly than the number of concurrent requests; on JDK 21+
+	 * {@link VirtualThreads#newExecutor()} makes those threads cheap.
+	 */
+	protected Executor getTransportExecutor() { return transportExecutor; }
+
+	public void setTransportExecutor(Executor transportExecutor) { this.transportExecutor = transportExecutor; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom RetryPolicy. Null disables retries.
+	 */
+	protected RetryPolicy getRetryPolicy() { return retryPolicy; }
+
+	public void setRetryPolicy(RetryPolicy retryPolicy) { this.retryPolicy = retryPolicy; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom HedgePolicy. Null disables hedging.
+	 */
+	protected HedgePolicy getHedgePolicy() { return hedgePolicy; }
+
+	/**
+	 * Enables hedged requests. A hedged call made through {@link #execute} sends its requests on
+	 * the client's executor while the calling thread waits for the first response.
+	 */
+	public void setHedgePolicy(HedgePolicy hedgePolicy) { this.hedgePolicy = hedgePolicy; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom CircuitBreakerPolicy. Null disables
+	 * circuit breaking.
+	 */
+	protected CircuitBreakerPolicy getCircuitBreakerPolicy() { return circuitBreakerPolicy; }
+
+	public void setCircuitBreakerPolicy(CircuitBreakerPolicy circuitBreakerPolicy) { this.circuitBreakerPolicy = circuitBreakerPolicy; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom ConcurrencyLimiter. Null leaves
+	 * the number of requests in flight unbounded.
+	 */
+	protected ConcurrencyLimiter getConcurrencyLimiter() { return concurrencyLimiter; }
+
+	public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) { this.concurrencyLimiter = concurrencyLimiter; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom RateLimiter. Null disables rate
+	 * limiting.
+	 */
+	protected RateLimiter getRateLimiter() { return rateLimiter; }
+
+	public void setRateLimiter(RateLimiter rateLimiter) { this.rateLimiter = rateLimiter; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom ResponseCache. Null disables
+	 * response caching.
+	 */
+	protected ResponseCache getResponseCache() { return responseCache; }
+
+	/**
+	 * Caches GET responses. A fresh cached response is returned before any retry, rate limiting,
+	 * concurrency limiting or circuit breaking takes place.
+	 */
+	public void setResponseCache(ResponseCache responseCache) { this.responseCache = responseCache; }
+
+	/**
+	 * Override this method in a custom subclass to use a custom RequestCoalescer. Null disables
+	 * request coalescing.
+	 */
+	protected RequestCoalescer getRequestCoalescer() { return requestCoalescer; }
+
+	/**
+	 * Lets concurrent identical GET requests share one network call. Requests are coalesced after
+	 * the injectors and the response cache, so they share the headers the injectors add.
+	 */
+	public void setRequestCoalescer(RequestCoalescer requestCoalescer) { this.requestCoalescer = requestCoalescer; }
+
+	/**
+	 * Registers a listener that is notified of the phases and timings of every call.
+	 */
+	public void addListener(HttpClientListener listener) {
+		if (listener != null) {
+			listeners.add(listener);
+		}
+	}
+
+	public void removeListener(HttpClientListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Appends an injector to the chain. Injectors may be added, removed and reordered while calls
+	 * are executing; each call runs the chain as it was when the call started.
+	 */
+	public void addInjector(Injector injector) {
+		addInjector(Integer.MAX_VALUE, injector);
+	}
+
+	/**
+	 * Inserts an injector at a position in the chain, or appends it if the position is past the
+	 * end.
+	 */
+	public void addInjector(int index, Injector injector) {
+		if (injector == null) {
+			return;
+		}
+
+		injectorsLock.lock();
+		try {
+			List<Injector> injectors = new ArrayList<>(mInjectors);
+			injectors.add(Math.max(0, Math.min(index, injectors.size())), injector);
+			mInjectors = Collections.unmodifiableList(injectors);
+		} finally {
+			injectorsLock.unlock();
 		}
 	}
 
+	/**
+	 * Removes an injector from the chain, returning whether it was there.
+	 */
+	public boolean removeInjector(Injector injector) {
+		injectorsLock.lock();
+		try {
+			List<Injector> injectors = new ArrayList<>(mInjectors);
+			boolean removed = injectors.remove(injector);
+			mInjectors = Collections.unmodifiableList(injectors);
+			return removed;
+		} finally {
+			injectorsLock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces the whole chain at once, e.g. to reorder it. The injector that adds the standard
+	 * headers is part of the chain, see {@link #injectors()}.
+	 */
+	public void setInjectors(List<Injector> injectors) {
+		List<Injector> snapshot = new ArrayList<>();
+		for (Injector injector : injectors) {
+			if (injector != null) {
+				snapshot.add(injector);
+			}
+		}
+
+		injectorsLock.lock();
+		try {
+			mInjectors = Collections.unmodifiableList(snapshot);
+		} finally {
+			injectorsLock.unlock();
+		}
+	}
+
+	/**
+	 * The current chain of injectors, in the order they run.
+	 */
+	public List<Injector> injectors() {
+		return mInjectors;
+	}
+
+	/**
+	 * Executes a request, retrying it according to the client's {@link RetryPolicy}. Injectors
+	 * and serialization run once; every attempt sends the same encoded body.
+	 */
 	public <T> HttpResponse<T> execute(HttpRequest<T> request) throws IOException {
 		HttpRequest<T> requestCopy = request.copy();
+		CallTracer tracer = CallTracer.start(requestCopy, listeners);
+		RequestCoalescer.Flight flight = null;
 
-		for (Injector injector : mInjectors) {
-			injector.inject(requestCopy);
+		try {
+			runInjectors(requestCopy, tracer);
+
+			HttpResponse<T> httpResponse = cachedResponse(requestCopy, tracer);
+			if (httpResponse == null) {
+				flight = join(requestCopy, tracer);
+				httpResponse = flight == null || flight.isLeader()
+						? call(requestCopy, tracer)
+						: decode(Futures.await(flight.result(), "a response"), requestCopy.responseClass());
+			}
+
+			tracer.callEnd(httpResponse.statusCode());
+			return httpResponse;
+		} catch (IOException e) {
+			if (flight != null) {
+				flight.fail(e);
+			}
+			tracer.callFailed(e);
+			throw e;
+		} finally {
+			if (flight != null) {
+				flight.abandon();
+			}
 		}
+	}
+
+	/**
+	 * Executes a request without blocking the calling thread. Injectors, serialization and
+	 * deserialization run on the client's executor, {@link AsyncInjector}s are awaited without
+	 * holding a thread, and retry backoff is scheduled on a timer rather than holding an
+	 * executor thread.
+	 *
+	 * The network call goes through {@link Transport#sendAsync} on the transport executor. The
+	 * built-in transports have no non-blocking implementation, so each request in flight still
+	 * holds a transport thread until its response headers arrive; keeping those threads apart
+	 * from the client's executor means a bounded client executor is never starved by slow calls.
+	 *
+	 * The returned future completes exceptionally with the same {@link IOException}s that
+	 * {@link #execute} would throw.
+	 */
+	public <T> CompletableFuture<HttpResponse<T>> executeAsync(HttpRequest<T> request) {
+		Executor executor = getExecutor();
+		HttpRequest<T> requestCopy = request.copy();
+		CallTracer tracer = CallTracer.start(requestCopy, listeners);
 
-		HttpURLConnection connection = getConnection(requestCopy);
+		CompletableFuture<HttpResponse<T>> future = CompletableFuture
+				.supplyAsync(() -> runInjectorsAsync(mInjectors, 0, requestCopy, tracer, executor)
+						.thenCompose(injected -> dispatchAsync(requestCopy, tracer, executor)), executor)
+				.thenCompose(call -> call);
+
+		if (!tracer.isEnabled()) {
+			return future;
+		}
+
+		return future.whenComplete((response, error) -> {
+			Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+			if (response != null) {
+				tracer.callEnd(response.statusCode());
+			} else if (cause instanceof IOException) {
+				tracer.callFailed((IOException) cause);
+			}
+		});
+	}
+
+	/**
+	 * Executes a batch of independent requests through {@link #executeAsync}, with at most
+	 * {@link BatchOptions#parallelism} of them in flight at once, and blocks until all of them are
+	 * done. A failed request does not stop the batch: its exception is captured in its result.
+	 * Neither does an exception thrown by one of the {@link BatchOptions} callbacks; the first one
+	 * is rethrown once the batch is done.
+	 *
+	 * @return the results in the order of the requests, or an empty list if the options don't
+	 * retain them
+	 */
+	public List<BatchResult<?>> executeAll(Collection<? extends HttpRequest<?>> requests, BatchOptions options)
+			throws InterruptedIOException {
+		return BatchExecution.run(this, requests, options == null ? new BatchOptions() : options);
+	}
+
+	/**
+	 * Answers a request whose injectors have run from the response cache, an identical request
+	 * in flight or the network.
+	 */
+	private <T> CompletableFuture<HttpResponse<T>> dispatchAsync(HttpRequest<T> request, CallTracer tracer, Executor executor) {
+		HttpResponse<T> cached;
 		try {
-			return parseResponse(connection, requestCopy.responseClass());
-		} finally {
-			if (connection != null) {
-				connection.disconnect();
+			cached = cachedResponse(request, tracer);
+		} catch (IOException e) {
+			return failed(e);
+		}
+		if (cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+
+		RequestCoalescer.Flight flight = join(request, tracer);
+		if (flight == null) {
+			return callAsync(request, tracer, executor);
+		} else if (!flight.isLeader()) {
+			return flight.result().thenApplyAsync(shared -> unchecked(() -> decode(shared, request.responseClass())), executor);
+		}
+
+		return callAsync(request, tracer, executor).whenComplete((response, error) -> {
+			if (error != null) {
+				flight.fail(error instanceof CompletionException ? error.getCause() : error);
 			}
+			flight.abandon();
+		});
+	}
+
+	/**
+	 * Joins the {@link RequestCoalescer} flight for a request, or returns null if it is not
+	 * coalesced. The leader shares its raw response with the followers in {@link #parseResponse}.
+	 */
+	private RequestCoalescer.Flight join(HttpRequest<?> request, CallTracer tracer) {
+		RequestCoalescer coalescer = getRequestCoalescer();
+		RequestCoalescer.Flight flight = coalescer == null ? null : coalescer.join(environment.baseUrl(), request);
+		if (flight != null && flight.isLeader()) {
+			tracer.leading(flight);
+		} else if (flight != null) {
+			tracer.coalesced();
 		}
+
+		return flight;
 	}
 
-	private void applyHeadersFromRequest(HttpURLConnection connection, HttpRequest request) {
-		for (String key: request.headers()) {
-			connection.setRequestProperty(key, request.headers().header(key));
+	private <T> HttpResponse<T> call(HttpRequest<T> request, CallTracer tracer) throws IOException {
+		RetryPolicy retryPolicy = getRetryPolicy();
+		TransportRequest transportRequest = transportRequest(request, tracer);
+		if (retryPolicy != null) {
+			retryPolicy.recordCall();
+		}
+
+		for (int attempts = 1; ; attempts++) {
+			try {
+				return send(transportRequest, request, tracer);
+			} catch (IOException e) {
+				long delay = retryPolicy == null ? -1 : retryPolicy.retryDelayMillis(request, e, attempts);
+				if (delay < 0) {
+					throw e;
+				}
+
+				tracer.retry(attempts, e, delay);
+				sleep(TimeUnit.MILLISECONDS.toNanos(delay));
+			}
 		}
 	}
 
-	HttpURLConnection getConnection(HttpRequest request) throws IOException {
-		HttpURLConnection connection = (HttpURLConnection) new URL(environment.baseUrl() + request.path()).openConnection();
+	private <T> CompletableFuture<HttpResponse<T>> callAsync(HttpRequest<T> request, CallTracer tracer, Executor executor) {
+		RetryPolicy retryPolicy = getRetryPolicy();
+		TransportRequest transportRequest;
+		try {
+			transportRequest = transportRequest(request, tracer);
+		} catch (IOException e) {
+			return failed(e);
+		}
 
-		if (connection instanceof HttpsURLConnection) {
-			if (sslSocketFactory == null) {
-				String message = "SSLSocketFactory was not set or failed to initialize";
-				System.out.println(message);
-				throw new SSLException(message);
+		if (retryPolicy != null) {
+			retryPolicy.recordCall();
+		}
+		return sendAsync(transportRequest, request, tracer, retryPolicy, executor, 1);
+	}
+
+	private <T> HttpResponse<T> send(TransportRequest transportRequest, HttpRequest<T> request, CallTracer tracer) throws IOException {
+		checkCircuit(request);
+		RateLimiter rateLimiter = getRateLimiter();
+		if (rateLimiter == null) {
+			return limit(transportRequest, request, tracer);
+		}
+
+		RateLimiter.Bucket bucket = rateLimiter.bucket(environment.baseUrl(), request.path());
+		long wait = bucket.reserve();
+		tracer.rateLimited(bucket.tokens(), wait);
+		if (wait > 0) {
+			sleep(wait);
+		}
+
+		IOException failure = null;
+		try {
+			return limit(transportRequest, request, tracer);
+		} catch (IOException e) {
+			failure = e;
+			throw e;
+		} finally {
+			bucket.record(failure);
+		}
+	}
+
+	/**
+	 * Fails a call whose circuit is open before it takes a rate limiter token or a concurrency
+	 * permit; {@link #guard} still admits the calls that get through.
+	 */
+	private void checkCircuit(HttpRequest<?> request) throws CircuitOpenException {
+		CircuitBreakerPolicy circuitBreakerPolicy = getCircuitBreakerPolicy();
+		if (circuitBreakerPolicy != null) {
+			circuitBreakerPolicy.breaker(environment.baseUrl(), request.path()).checkAdmissible();
+		}
+	}
+
+	private <T> HttpResponse<T> limit(TransportRequest transportRequest, HttpRequest<T> request, CallTracer tracer) throws IOException {
+		ConcurrencyLimiter limiter = getConcurrencyLimiter();
+		if (limiter == null) {
+			return guard(transportRequest, request, tracer);
+		}
+
+		ConcurrencyLimiter.Permit permit = limiter.acquire(endpoint(request));
+		IOException failure = null;
+		try {
+			return guard(transportRequest, request, tracer);
+		} catch (IOException e) {
+			failure = e;
+			throw e;
+		} finally {
+			permit.release(failure);
+		}
+	}
+
+	private <T> HttpResponse<T> guard(TransportRequest transportRequest, HttpRequest<T> request, CallTracer tracer) throws IOException {
+		CircuitBreakerPolicy circuitBreakerPolicy = getCircuitBreakerPolicy();
+		if (circuitBreakerPolicy == null) {
+			return exchange(transportRequest, request, tracer);
+		}
+
+		CircuitBreaker.Permit permit = circuitBreakerPolicy.breaker(environment.baseUrl(), request.path()).acquire();
+
+		long start = System.nanoTime();
+		boolean failed = false;
+		try {
+			return exchange(transportRequest, request, tracer);
+		} catch (IOException e) {
+			failed = circuitBreakerPolicy.isFailure(e);
+			throw e;
+		} finally {
+			permit.record(failed, System.nanoTime() - start);
+		}
+	}
+
+	private <T> HttpResponse<T> exchange(TransportRequest transportRequest, HttpRequest<T> request, CallTracer tracer) throws IOException {
+		HedgePolicy hedgePolicy = getHedgePolicy();
+		long hedgeDelay = hedgePolicy == null ? -1 : hedgePolicy.hedgeDelayNanos(request);
+
+		TransportResponse transportResponse = hedgeDelay < 0
+				? getTransport().send(transportRequest)
+				: Futures.await(HedgedRequest.send(getTransport(), transportRequest, request, hedgePolicy, hedgeDelay, tracer, getTransportExecutor()), "a response");
+
+		try (TransportResponse response = transportResponse) {
+			return parseResponse(response, request, tracer);
+		}
+	}
+
+	private <T> CompletableFuture<HttpResponse<T>> sendAsync(TransportRequest transportRequest, HttpRequest<T> request,
+			CallTracer tracer, RetryPolicy retryPolicy, Executor executor, int attempts) {
+		CompletableFuture<HttpResponse<T>> attempt = rateLimitAsync(transportRequest, request, tracer, executor);
+		if (retryPolicy == null) {
+			return attempt;
+		}
+
+		CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+		attempt.whenComplete((response, error) -> {
+			if (error == null) {
+				result.complete(response);
+				return;
 			}
 
-			((HttpsURLConnection) connection).setSSLSocketFactory(getSSLSocketFactory());
+			Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+			long delay = cause instanceof IOException ? retryPolicy.retryDelayMillis(request, (IOException) cause, attempts) : -1;
+			if (delay < 0) {
+				result.completeExceptionally(error);
+				return;
+			}
+
+			tracer.retry(attempts, (IOException) cause, delay);
+			DefaultExecutor.scheduler().schedule(() ->
+					sendAsync(transportRequest, request, tracer, retryPolicy, executor, attempts + 1)
+							.whenComplete((retried, retryError) -> {
+								if (retryError == null) {
+									result.complete(retried);
+								} else {
+									result.completeExceptionally(retryError);
+								}
+							}), delay, TimeUnit.MILLISECONDS);
+		});
+
+		return result;
+	}
+
+	private <T> CompletableFuture<HttpResponse<T>> rateLimitAsync(TransportRequest transportRequest, HttpRequest<T> request,
+			CallTracer tracer, Executor executor) {
+		try {
+			checkCircuit(request);
+		} catch (CircuitOpenException e) {
+			return failed(e);
 		}
 
-		connection.setReadTimeout(getReadTimeout());
-		connection.setConnectTimeout(getConnectTimeout());
+		RateLimiter rateLimiter = getRateLimiter();
+		if (rateLimiter == null) {
+			return limitAsync(transportRequest, request, tracer, executor);
+		}
 
-		setRequestVerb(request.verb(), connection);
-		if (request.requestBody() != null) {
-			connection.setDoOutput(true);
-			byte[] data = encoder.serializeRequest(request);
+		RateLimiter.Bucket bucket = rateLimiter.bucket(environment.baseUrl(), request.path());
+		long wait;
+		try {
+			wait = bucket.reserve();
+		} catch (LimitExceededException e) {
+			return failed(e);
+		}
+		tracer.rateLimited(bucket.tokens(), wait);
 
-			applyHeadersFromRequest(connection, request);
-			writeOutputStream(connection.getOutputStream(), data);
+		CompletableFuture<HttpResponse<T>> attempt;
+		if (wait > 0) {
+			CompletableFuture<Void> due = new CompletableFuture<>();
+			DefaultExecutor.scheduler().schedule(() -> due.complete(null), wait, TimeUnit.NANOSECONDS);
+			attempt = due.thenCompose(ignored -> limitAsync(transportRequest, request, tracer, executor));
 		} else {
-			applyHeadersFromRequest(connection, request);
+			attempt = limitAsync(transportRequest, request, tracer, executor);
+		}
+
+		return attempt.whenComplete((response, error) -> bucket.record(ioCause(error)));
+	}
+
+	private <T> CompletableFuture<HttpResponse<T>> limitAsync(TransportRequest transportRequest, HttpRequest<T> request,
+			CallTracer tracer, Executor executor) {
+		ConcurrencyLimiter limiter = getConcurrencyLimiter();
+		if (limiter == null) {
+			return guardAsync(transportRequest, request, tracer, executor);
 		}
 
-		return connection;
+		return limiter.acquireAsync(endpoint(request)).thenCompose(permit -> {
+			CompletableFuture<HttpResponse<T>> call;
+			try {
+				call = guardAsync(transportRequest, request, tracer, executor);
+			} catch (RuntimeException | Error e) {
+				permit.abandon();
+				throw e;
+			}
+
+			return call.whenComplete((response, error) -> permit.release(ioCause(error)));
+		});
 	}
 
 	/**
-	 * Workaround for a bug in {@code HttpURLConnection.setRequestMethod(String)}
-	 * The implementation of Sun/Oracle is throwing a {@code ProtocolException}
-	 * when the method is other than the HTTP/1.1 default methods. So to use {@code PATCH}
-	 * and others, we must apply this workaround.
-	 *
-	 * See issue https://bugs.openjdk.java.net/browse/JDK-7016595
+	 * Identifies the endpoint of a request, so that ids in paths don't create new endpoints.
 	 */
-	private void setRequestVerb(String verb, HttpURLConnection connection) {
+	private static String endpoint(HttpRequest<?> request) {
+		return request.verb().toUpperCase() + " " + PathTemplate.of(request.path());
+	}
+
+	private <T> CompletableFuture<HttpResponse<T>> guardAsync(TransportRequest transportRequest, HttpRequest<T> request,
+			CallTracer tracer, Executor executor) {
+		CircuitBreakerPolicy circuitBreakerPolicy = getCircuitBreakerPolicy();
+		if (circuitBreakerPolicy == null) {
+			return exchangeAsync(transportRequest, request, tracer, executor);
+		}
+
+		CircuitBreaker.Permit permit;
 		try {
-			connection.setRequestMethod(verb.toUpperCase());
-		} catch (ProtocolException ignored) {
+			permit = circuitBreakerPolicy.breaker(environment.baseUrl(), request.path()).acquire();
+		} catch (CircuitOpenException e) {
+			return failed(e);
+		}
+
+		long start = System.nanoTime();
+		return exchangeAsync(transportRequest, request, tracer, executor).whenComplete((response, error) -> {
+			IOException failure = ioCause(error);
+			permit.record(failure != null && circuitBreakerPolicy.isFailure(failure), System.nanoTime() - start);
+		});
+	}
+
+	private <T> CompletableFuture<HttpResponse<T>> exchangeAsync(TransportRequest transportRequest, HttpRequest<T> request,
+			CallTracer tracer, Executor executor) {
+		HedgePolicy hedgePolicy = getHedgePolicy();
+		long hedgeDelay = hedgePolicy == null ? -1 : hedgePolicy.hedgeDelayNanos(request);
+
+		Executor transportExecutor = getTransportExecutor();
+		CompletableFuture<TransportResponse> sent = hedgeDelay < 0
+				? getTransport().sendAsync(transportRequest, transportExecutor)
+				: HedgedRequest.send(getTransport(), transportRequest, request, hedgePolicy, hedgeDelay, tracer, transportExecutor);
+
+		return sent.thenApplyAsync(transportResponse -> unchecked(() -> {
+			try (TransportResponse response = transportResponse) {
+				return parseResponse(response, request, tracer);
+			}
+		}), executor);
+	}
+
+	private static void sleep(long nanos) throws InterruptedIOException {
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to send the request");
+		}
+	}
+
+	private static <V> CompletableFuture<V> failed(Throwable error) {
+		CompletableFuture<V> future = new CompletableFuture<>();
+		future.completeExceptionally(error);
+		return future;
+	}
+
+	/**
+	 * The IOException a future failed with, or null.
+	 */
+	private static IOException ioCause(Throwable error) {
+		Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+		return cause instanceof IOException ? (IOException) cause : null;
+	}
+
+	private void runInjectors(HttpRequest request, CallTracer tracer) throws IOException {
+		for (Injector injector : mInjectors) {
+			long start = tracer.isEnabled() ? System.nanoTime() : 0;
+			injector.inject(request);
+			tracer.injectorEnd(injector, start);
+		}
+		tracer.injectorsEnd();
+	}
+
+	/**
+	 * Runs the injectors from {@code index} on. Plain injectors run on the current thread; the
+	 * chain waits for an {@link AsyncInjector} without blocking and resumes on the executor.
+	 */
+	private CompletableFuture<Void> runInjectorsAsync(List<Injector> injectors, int index, HttpRequest request,
+			CallTracer tracer, Executor executor) {
+		for (int i = index; i < injectors.size(); i++) {
+			Injector injector = injectors.get(i);
+			long start = tracer.isEnabled() ? System.nanoTime() : 0;
+
+			if (injector instanceof AsyncInjector) {
+				int next = i + 1;
+				return ((AsyncInjector) injector).injectAsync(request).toCompletableFuture()
+						.thenComposeAsync(injected -> {
+							tracer.injectorEnd(injector, start);
+							return runInjectorsAsync(injectors, next, request, tracer, executor);
+						}, executor);
+			}
+
 			try {
-				Field delegateField = connection.getClass().getDeclaredField("delegate");
-				delegateField.setAccessible(true);
-				HttpURLConnection delegateConnection = (HttpURLConnection) delegateField.get(connection);
-
-				setRequestVerb(verb, delegateConnection);
-			} catch (NoSuchFieldException e) {
-				Field methodField = null;
-				Class connectionClass = connection.getClass();
-				while (methodField == null) {
-					try {
-						methodField = connectionClass.getDeclaredField("method");
-						methodField.setAccessible(true);
-						methodField.set(connection, "PATCH");
-					} catch (IllegalAccessException | NoSuchFieldException _ignored) {
-						connectionClass = connectionClass.getSuperclass();
-					}
-				}
-			} catch (IllegalAccessException ignoredIllegalAccess) {}
+				injector.inject(request);
+			} catch (IOException e) {
+				return failed(e);
+			}
+			tracer.injectorEnd(injector, start);
 		}
+
+		tracer.injectorsEnd();
+		return CompletableFuture.completedFuture(null);
+	}
+
+	TransportRequest transportRequest(HttpRequest request) throws IOException {
+		return transportRequest(request, CallTracer.start(request, Collections.emptyList()));
+	}
+
+	private TransportRequest transportRequest(HttpRequest request, CallTracer tracer) throws IOException {
+		RequestBody body = null;
+		if (request.requestBody() != null) {
+			body = encoder.serializeRequestBody(request);
+			tracer.requestEncoded(body.contentLength());
+		}
+
+		return new TransportRequest(environment.baseUrl() + request.path(), request.verb(), request.headers())
+				.body(body)
+				.connectTimeout(getConnectTimeout())
+				.readTimeout(getReadTimeout())
+				.sslSocketFactory(getSSLSocketFactory())
+				.listener(tracer.isEnabled() ? tracer : null);
+	}
+
+	HttpURLConnection getConnection(HttpRequest request) throws IOException {
+		return new UrlConnectionTransport().connect(transportRequest(request));
 	}
 
 	Headers parseResponseHeaders(URLConnection connection) {
-		Headers headers = new Headers();
-		for (String key : connection.getHeaderFields().keySet()) {
-			headers.header(key, connection.getHeaderField(key));
+		return UrlConnectionTransport.parseResponseHeaders(connection);
+	}
+
+	/**
+	 * A fresh response to a GET request from the {@link ResponseCache}, or null. A stale cached
+	 * response instead adds its validators to the request, and any other verb evicts the url.
+	 */
+	private <T> HttpResponse<T> cachedResponse(HttpRequest<T> request, CallTracer tracer) throws IOException {
+		ResponseCache cache = getResponseCache();
+		if (cache == null) {
+			return null;
+		}
+
+		String url = environment.baseUrl() + request.path();
+		if (!"GET".equalsIgnoreCase(request.verb())) {
+			cache.invalidate(url);
+			return null;
 		}
 
-		return headers;
+		CachedResponse cached = cache.lookup(url, request);
+		if (cached == null) {
+			return null;
+		} else if (!cached.isFresh()) {
+			cached.addValidators(request.headers());
+			tracer.revalidating(cached);
+			return null;
+		}
+
+		tracer.cacheHit(false);
+		return decode(cached, request.responseClass());
 	}
 
-	private <T> HttpResponse<T> parseResponse(HttpURLConnection connection, Class<T> responseClass) throws IOException {
-		Headers responseHeaders = parseResponseHeaders(connection);
+	private <T> HttpResponse<T> decode(CachedResponse cached, Class<T> responseClass) throws IOException {
+		Headers headers = cached.headers();
+		T result = null;
+		if (!Void.class.isAssignableFrom(responseClass)) {
+			result = encoder.deserializeResponse(cached.body(), responseClass, headers);
+		}
+
+		return new HttpResponse<>(headers, cached.statusCode(), result);
+	}
+
+	private <T> HttpResponse<T> parseResponse(TransportResponse response, HttpRequest<T> request, CallTracer tracer) throws IOException {
+		Class<T> responseClass = request.responseClass();
+		Headers responseHeaders = response.headers();
 		String responseBody;
 		int statusCode;
-		statusCode = connection.getResponseCode();
+		statusCode = response.statusCode();
+
+		RequestCoalescer.Flight flight = tracer.leading();
+		ResponseCache cache = getResponseCache();
+		boolean storable = false;
+		String url = cache == null ? null : environment.baseUrl() + request.path();
+		if (cache != null && "GET".equalsIgnoreCase(request.verb())) {
+			if (statusCode == HTTP_NOT_MODIFIED) {
+				CachedResponse cached = cache.revalidate(url, request, responseHeaders);
+				if (cached == null) {
+					// Evicted while the request was in flight; the server still confirmed our copy
+					cached = tracer.revalidating();
+				}
+				if (cached != null) {
+					tracer.cacheHit(true);
+					HttpResponse<T> revalidated = decode(cached, responseClass);
+					if (flight != null) {
+						flight.complete(cached);
+					}
+					return revalidated;
+				}
+			} else {
+				storable = statusCode == HTTP_OK && cache.isStorable(request, responseHeaders);
+			}
+		}
+
+		if (storable || (flight != null && statusCode >= HTTP_OK && statusCode <= HTTP_PARTIAL)) {
+			// Buffered so that the cache and any followers can decode the body again
+			byte[] body = StreamUtils.readBytes(tracer.responseBody(response.body()));
+			if (storable) {
+				cache.store(url, request, statusCode, responseHeaders, body);
+			}
+
+			T deserializedResponse = null;
+			if (!Void.class.isAssignableFrom(responseClass)) {
+				deserializedResponse = encoder.deserializeResponse(new ByteArrayInputStream(body), responseClass, responseHeaders);
+			}
+			tracer.responseBodyEnd();
+			if (flight != null) {
+				flight.complete(statusCode, responseHeaders, body);
+			}
+
+			return new HttpResponse<>(responseHeaders, statusCode, deserializedResponse);
+		}
+
 		if (statusCode >= HTTP_OK && statusCode <= HTTP_PARTIAL) {
 			T deserializedResponse = null;
 
 			if (!Void.class.isAssignableFrom(responseClass)) {
-				deserializedResponse = encoder.deserializeResponse(connection.getInputStream(), responseClass, responseHeaders);
+				deserializedResponse = encoder.deserializeResponse(tracer.responseBody(response.body()), responseClass, responseHeaders);
 			}
+			tracer.responseBodyEnd();
 
 			return new HttpResponse<>(responseHeaders, statusCode, deserializedResponse);
 		} else {
-			responseBody = encoder.deserializeResponse(connection.getErrorStream(), String.class, responseHeaders);
+			responseBody = encoder.deserializeResponse(tracer.responseBody(response.body()), String.class, responseHeaders);
+			tracer.responseBodyEnd();
 			throw new HttpException(responseBody, statusCode, responseHeaders);
 		}
 	}
 
+	private static <V> V unchecked(IOCallable<V> callable) {
+		try {
+			return callable.call();
+		} catch (IOException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private interface IOCallable<V> {
+		V call() throws IOException;
+	}
+
 	private void injectStandardHeaders(HttpRequest request) throws IOException {
 		request.headers()
 				.headerIfNotPresent(Headers.USER_AGENT, getUserAgent());
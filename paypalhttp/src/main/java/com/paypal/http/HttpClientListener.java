@@ -0,0 +1,105 @@
+package com.paypal.http;
+
+import com.paypal.http.transport.Transport;
+
+import java.io.IOException;
+
+/**
+ * Observes each phase of the requests executed by an {@link HttpClient}. All durations are in
+ * nanoseconds and every method has an empty default, so implementations only override the events
+ * they need.
+ *
+ * For a successful call the events arrive in this order: {@link #callStart},
+ * {@link #injectorsEnd}, {@link #requestEncoded} (only when there is a body), the connection
+ * events reported by the {@link Transport}, {@link #responseHeadersEnd},
+ * {@link #responseBodyEnd} and {@link #callEnd}. A call that throws ends with
+ * {@link #callFailed} instead of {@link #callEnd}; non-2xx responses fail with an
+ * {@link com.paypal.http.exceptions.HttpException}. Each retry of a
+ * failed attempt is announced by {@link #retry}, and a hedged request by {@link #hedged}; the
+ * connection events of concurrent hedged requests may interleave.
+ *
+ * Listeners run synchronously on the thread executing the call and must be thread-safe.
+ * Exceptions they throw propagate to the caller.
+ */
+public interface HttpClientListener {
+
+	default void callStart(HttpRequest<?> request) {}
+
+	/**
+	 * A single injector ran. These events precede {@link #injectorsEnd}, whose duration covers all
+	 * of them.
+	 */
+	default void injectorEnd(HttpRequest<?> request, Injector injector, long durationNanos) {}
+
+	default void injectorsEnd(HttpRequest<?> request, long durationNanos) {}
+
+	/**
+	 * The body was encoded. {@code contentLength} is -1 for bodies that are streamed chunked.
+	 */
+	default void requestEncoded(HttpRequest<?> request, long contentLength, long durationNanos) {}
+
+	/**
+	 * A connection was taken from the pool ({@code reused}) or newly opened. Only reported by
+	 * transports that manage their own connections.
+	 */
+	default void connectionAcquired(HttpRequest<?> request, boolean reused, long durationNanos) {}
+
+	default void connectEnd(HttpRequest<?> request, long durationNanos) {}
+
+	default void secureConnectEnd(HttpRequest<?> request, long durationNanos) {}
+
+	default void requestSent(HttpRequest<?> request, long bodyBytes, long durationNanos) {}
+
+	/**
+	 * The status line and headers arrived; {@code durationNanos} is the time to first byte after
+	 * the request was sent.
+	 */
+	default void responseHeadersEnd(HttpRequest<?> request, int statusCode, long durationNanos) {}
+
+	/**
+	 * The response body was consumed. Reading and deserialization are interleaved, so
+	 * {@code readNanos} is the time spent waiting on the network and {@code decodeNanos} the rest.
+	 * {@code bodyBytes} counts bytes as received, before any gzip decoding.
+	 */
+	default void responseBodyEnd(HttpRequest<?> request, long bodyBytes, long readNanos, long decodeNanos) {}
+
+	/**
+	 * Attempt number {@code attempts} failed with {@code e} and will be retried after
+	 * {@code delayNanos}. The connection and response events of the next attempt follow.
+	 */
+	default void retry(HttpRequest<?> request, int attempts, IOException e, long delayNanos) {}
+
+	/**
+	 * A token was taken from the route's {@link com.paypal.http.resilience.RateLimiter} bucket,
+	 * leaving {@code tokens} (negative while calls are queued), and the attempt is delayed by
+	 * {@code waitNanos}.
+	 */
+	default void rateLimited(HttpRequest<?> request, double tokens, long waitNanos) {}
+
+	/**
+	 * No response arrived within {@code delayNanos}, so a second, identical request was sent.
+	 * Comparing the number of these events with {@link #callStart} gives the hedge rate.
+	 */
+	default void hedged(HttpRequest<?> request, long delayNanos) {}
+
+	/**
+	 * The hedged request answered before the original one, which was cancelled.
+	 */
+	default void hedgeWon(HttpRequest<?> request) {}
+
+	/**
+	 * The response came from the {@link com.paypal.http.cache.ResponseCache}: without a network
+	 * call, or after the server {@code revalidated} it with 304 Not Modified.
+	 */
+	default void cacheHit(HttpRequest<?> request, boolean revalidated) {}
+
+	/**
+	 * The request joined an identical one already in flight and will receive its response, see
+	 * {@link com.paypal.http.cache.RequestCoalescer}. No connection events follow.
+	 */
+	default void coalesced(HttpRequest<?> request) {}
+
+	default void callEnd(HttpRequest<?> request, int statusCode, long durationNanos) {}
+
+	default void callFailed(HttpRequest<?> request, IOException e, long durationNanos) {}
+}
@@ -1,5 +1,8 @@
 package com.paypal.http;
 
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class HttpRequest<T> {
 
 	public HttpRequest(String path, String verb, Class<T> responseClass) {
@@ -13,6 +16,7 @@ public class HttpRequest<T> {
 	private Object body;
 	private Class<T> responseClass;
 	private Headers headers = new Headers();
+	private final AtomicReference<String> idempotencyKey = new AtomicReference<>();
 
 	public HttpRequest<T> path(String path) {
 		this.path = path;
@@ -54,6 +58,21 @@ public class HttpRequest<T> {
 		return this;
 	}
 
+	/**
+	 * A random key identifying this request object, generated on first use and not carried over
+	 * by {@link #copy}. {@link HttpClient#execute} runs injectors on a copy of the request, so an
+	 * {@link com.paypal.http.resilience.IdempotencyInjector} gives each call its own key, which
+	 * its retries then share. To reuse a key across calls, set the header explicitly.
+	 */
+	public String idempotencyKey() {
+		String key = idempotencyKey.get();
+		if (key == null) {
+			idempotencyKey.compareAndSet(null, UUID.randomUUID().toString());
+			key = idempotencyKey.get();
+		}
+		return key;
+	}
+
 	public HttpRequest<T> copy() {
 		HttpRequest<T> other = new HttpRequest<T>(path, verb, responseClass);
 		for (String key: headers) {
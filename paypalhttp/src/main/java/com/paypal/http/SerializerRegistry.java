@@ -0,0 +1,129 @@
+package com.paypal.http;
+
+import com.paypal.http.serializer.Serializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the {@link Serializer} for a Content-Type header.
+ *
+ * Each serializer's {@link Serializer#contentType()} pattern is compiled once when it is
+ * registered. Patterns that only match a single media type (such as {@code ^application\/json})
+ * are indexed in a hash map, and every resolved header value is memoized, so repeated lookups for
+ * the same header cost a single map hit. As before, the first registered serializer that matches
+ * wins.
+ */
+final class SerializerRegistry {
+
+	private static final int MAX_CACHED_CONTENT_TYPES = 128;
+
+	private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+	private final List<Registration> patterns = new CopyOnWriteArrayList<>();
+	private final Map<String, Registration> exactTypes = new ConcurrentHashMap<>();
+	private final Map<String, Serializer> resolved = new ConcurrentHashMap<>();
+
+	synchronized void register(Serializer serializer) {
+		Registration registration = new Registration(serializer, registrations.size());
+		registrations.add(registration);
+
+		if (registration.mediaType != null) {
+			exactTypes.putIfAbsent(registration.mediaType, registration);
+		} else {
+			patterns.add(registration);
+		}
+
+		resolved.clear();
+	}
+
+	/**
+	 * The serializer for a raw Content-Type header value, or null if none is registered for it.
+	 */
+	Serializer serializer(String contentType) {
+		Serializer serializer = resolved.get(contentType);
+		if (serializer != null) {
+			return serializer;
+		}
+
+		serializer = resolve(contentType);
+		if (serializer != null) {
+			if (resolved.size() >= MAX_CACHED_CONTENT_TYPES) {
+				resolved.clear();
+			}
+			resolved.put(contentType, serializer);
+		}
+
+		return serializer;
+	}
+
+	List<String> supportedEncodings() {
+		List<String> supportedEncodings = new ArrayList<>();
+
+		for (Registration registration : registrations) {
+			supportedEncodings.add(registration.serializer.contentType());
+		}
+
+		return supportedEncodings;
+	}
+
+	private Serializer resolve(String contentType) {
+		int separator = contentType.indexOf(';');
+		String mediaType = separator == -1 ? contentType : contentType.substring(0, separator);
+
+		Registration match = exactTypes.get(mediaType);
+		for (Registration registration : patterns) {
+			if (match != null && registration.order > match.order) {
+				break;
+			}
+
+			if (registration.pattern.matcher(mediaType).matches()) {
+				match = registration;
+				break;
+			}
+		}
+
+		return match == null ? null : match.serializer;
+	}
+
+	private static final class Registration {
+
+		private final Serializer serializer;
+		private final int order;
+		private final Pattern pattern;
+		private final String mediaType;
+
+		Registration(Serializer serializer, int order) {
+			this.serializer = serializer;
+			this.order = order;
+			this.pattern = Pattern.compile(serializer.contentType());
+			this.mediaType = literal(serializer.contentType());
+		}
+
+		/**
+		 * The single media type a pattern matches, or null if it contains any regex constructs
+		 * other than anchors and escaped slashes.
+		 */
+		private static String literal(String regex) {
+			String literal = regex;
+			if (literal.startsWith("^")) {
+				literal = literal.substring(1);
+			}
+			if (literal.endsWith("$") && !literal.endsWith("\\$")) {
+				literal = literal.substring(0, literal.length() - 1);
+			}
+			literal = literal.replace("\\/", "/");
+
+			for (int i = 0; i < literal.length(); i++) {
+				if ("\\[](){}.*+?^$|".indexOf(literal.charAt(i)) != -1) {
+					return null;
+				}
+			}
+
+			return literal;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.paypal.http;
+
+import com.paypal.http.internal.VirtualThreadSupport;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread execution on JDK 21+, where the multi-release jar provides it. Virtual threads
+ * make blocking cheap, so a client can have tens of thousands of calls in flight with the blocking
+ * {@link HttpClient#execute} called from virtual threads, or with
+ * {@link HttpClient#executeAsync} running its injectors, transport and deserialization on them:
+ *
+ * <pre>
+ * <code>
+ * if (VirtualThreads.isSupported()) {
+ *     ExecutorService virtualThreads = VirtualThreads.newExecutor();
+ *     client.setExecutor(virtualThreads);
+ *     client.setTransportExecutor(virtualThreads);
+ * }
+ * </code>
+ * </pre>
+ *
+ * Setting the system property {@code paypalhttp.virtualThreads=true} makes the default executor,
+ * shared by clients, hedged requests and token refreshes, use virtual threads too.
+ */
+public final class VirtualThreads {
+
+	private VirtualThreads() {}
+
+	/**
+	 * Whether the runtime has virtual threads.
+	 */
+	public static boolean isSupported() {
+		return VirtualThreadSupport.isSupported();
+	}
+
+	/**
+	 * An executor that starts a new virtual thread for each task. Throws an
+	 * {@link UnsupportedOperationException} below JDK 21.
+	 */
+	public static ExecutorService newExecutor() {
+		ExecutorService executor = VirtualThreadSupport.newExecutor("paypalhttp-virtual-");
+		if (executor == null) {
+			throw new UnsupportedOperationException("Virtual threads require JDK 21 or later");
+		}
+
+		return executor;
+	}
+}
@@ -0,0 +1,48 @@
+package com.paypal.http.auth;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bearer token and the time it expires, as returned by a {@link TokenProvider}.
+ */
+public final class AccessToken {
+
+	private final String value;
+	private final long issuedAtNanos;
+	private final long expiresAtNanos;
+
+	/**
+	 * @param value the token to send in the Authorization header
+	 * @param expiresIn how long the token is valid for from now, e.g. the {@code expires_in}
+	 *                  seconds of an OAuth token response
+	 */
+	public AccessToken(String value, long expiresIn, TimeUnit unit) {
+		if (value == null) {
+			throw new IllegalArgumentException("An access token must have a value");
+		}
+		this.value = value;
+		this.issuedAtNanos = System.nanoTime();
+		this.expiresAtNanos = issuedAtNanos + unit.toNanos(Math.max(0, expiresIn));
+	}
+
+	public String value() {
+		return value;
+	}
+
+	public long expiresInNanos() {
+		return expiresAtNanos - System.nanoTime();
+	}
+
+	public boolean isExpired() {
+		return expiresInNanos() <= 0;
+	}
+
+	long lifetimeNanos() {
+		return expiresAtNanos - issuedAtNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "AccessToken(expires in " + TimeUnit.NANOSECONDS.toSeconds(expiresInNanos()) + "s)";
+	}
+}
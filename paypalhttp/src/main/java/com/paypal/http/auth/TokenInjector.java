@@ -0,0 +1,172 @@
+package com.paypal.http.auth;
+
+import com.paypal.http.AsyncInjector;
+import com.paypal.http.Headers;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.internal.DefaultExecutor;
+import com.paypal.http.internal.Futures;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sets an {@code Authorization: Bearer} header on requests that don't already carry one, with an
+ * access token from a {@link TokenProvider} that is cached until it expires.
+ *
+ * Once a token is within {@link #refreshAhead} of expiring (at most half its lifetime), the next
+ * request starts fetching a new one in the background and keeps using the current token in the
+ * meantime. If that refresh fails, the current token is used until it expires, with another
+ * attempt every {@link #retryInterval}. Only requests that find no valid token wait for a fetch.
+ * Concurrent requests always share a single fetch. Requests made with
+ * {@link com.paypal.http.HttpClient#executeAsync} wait for it without holding a thread.
+ *
+ * <pre>
+ * <code>
+ * client.addInjector(new TokenInjector(() -&gt; {
+ *     HttpResponse&lt;TokenResponse&gt; response = authClient.execute(new TokenRequest(clientId, secret));
+ *     return new AccessToken(response.result().accessToken, response.result().expiresIn, TimeUnit.SECONDS);
+ * }));
+ * </code>
+ * </pre>
+ */
+public class TokenInjector implements AsyncInjector {
+
+	private final TokenProvider provider;
+	private final AtomicReference<CompletableFuture<AccessToken>> refreshing = new AtomicReference<>();
+	private volatile AccessToken token;
+	private volatile long retryAtNanos = System.nanoTime();
+	private volatile long refreshAheadNanos = TimeUnit.MINUTES.toNanos(5);
+	private volatile long retryIntervalNanos = TimeUnit.SECONDS.toNanos(5);
+	private volatile Executor executor = DefaultExecutor.get();
+
+	public TokenInjector(TokenProvider provider) {
+		if (provider == null) {
+			throw new IllegalArgumentException("A token injector needs a token provider");
+		}
+		this.provider = provider;
+	}
+
+	/**
+	 * Sets how long before a token expires to start refreshing it. Defaults to 5 minutes.
+	 */
+	public TokenInjector refreshAhead(long duration, TimeUnit unit) {
+		this.refreshAheadNanos = unit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * Sets how long to wait after a failed background refresh before trying again. Defaults to 5
+	 * seconds.
+	 */
+	public TokenInjector retryInterval(long duration, TimeUnit unit) {
+		this.retryIntervalNanos = unit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * Sets the executor tokens are fetched on. Defaults to the executor of
+	 * {@link com.paypal.http.HttpClient#executeAsync}.
+	 */
+	public TokenInjector executor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	@Override
+	public void inject(HttpRequest request) throws IOException {
+		if (request.headers().header(Headers.AUTHORIZATION) == null) {
+			request.headers().header(Headers.AUTHORIZATION, "Bearer " + token().value());
+		}
+	}
+
+	@Override
+	public CompletionStage<Void> injectAsync(HttpRequest request) {
+		if (request.headers().header(Headers.AUTHORIZATION) != null) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		return validToken().thenAccept(accessToken -> request.headers().header(Headers.AUTHORIZATION, "Bearer " + accessToken.value()));
+	}
+
+	/**
+	 * The cached token, waiting for a new one only if there is no valid token.
+	 */
+	public AccessToken token() throws IOException {
+		return Futures.await(validToken(), "an access token");
+	}
+
+	/**
+	 * Fetches a new token unless a fetch is already in progress, in which case its result is
+	 * returned. Completing or cancelling the returned future doesn't affect the fetch or anyone
+	 * else waiting for it.
+	 */
+	public CompletableFuture<AccessToken> refresh() {
+		return sharedRefresh().thenApply(fetched -> fetched);
+	}
+
+	private CompletableFuture<AccessToken> sharedRefresh() {
+		while (true) {
+			CompletableFuture<AccessToken> inProgress = refreshing.get();
+			if (inProgress != null) {
+				return inProgress;
+			}
+
+			CompletableFuture<AccessToken> refresh = new CompletableFuture<>();
+			if (refreshing.compareAndSet(null, refresh)) {
+				try {
+					executor.execute(() -> fetch(refresh));
+				} catch (RejectedExecutionException e) {
+					fetch(refresh);
+				}
+				return refresh;
+			}
+		}
+	}
+
+	/**
+	 * Drops the cached token, e.g. after the server rejected it with a 401, so that the next
+	 * request waits for a new one.
+	 */
+	public void invalidate() {
+		token = null;
+	}
+
+	private CompletableFuture<AccessToken> validToken() {
+		AccessToken current = token;
+		if (current == null || current.isExpired()) {
+			return refresh();
+		}
+
+		if (isRefreshDue(current)) {
+			refresh();
+		}
+		return CompletableFuture.completedFuture(current);
+	}
+
+	private boolean isRefreshDue(AccessToken current) {
+		long refreshAhead = Math.min(refreshAheadNanos, current.lifetimeNanos() / 2);
+		return current.expiresInNanos() <= refreshAhead && System.nanoTime() - retryAtNanos >= 0;
+	}
+
+	private void fetch(CompletableFuture<AccessToken> refresh) {
+		try {
+			AccessToken fetched = provider.fetch();
+			if (fetched == null) {
+				throw new IOException("The token provider returned no token");
+			}
+
+			token = fetched;
+			refreshing.set(null);
+			refresh.complete(fetched);
+		} catch (Throwable e) {
+			retryAtNanos = System.nanoTime() + retryIntervalNanos;
+			refreshing.set(null);
+			refresh.completeExceptionally(e);
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package com.paypal.http.auth;
+
+import java.io.IOException;
+
+/**
+ * Fetches a new access token, for example from PayPal's {@code /v1/oauth2/token} endpoint. A
+ * {@link TokenInjector} calls it at most once at a time.
+ */
+public interface TokenProvider {
+	AccessToken fetch() throws IOException;
+}
@@ -0,0 +1,72 @@
+package com.paypal.http.cache;
+
+import java.util.Locale;
+
+/**
+ * The directives of a {@code Cache-Control} header that matter to a private client cache.
+ */
+final class CacheControl {
+
+	static final CacheControl NONE = new CacheControl(false, false, -1);
+
+	final boolean noStore;
+	final boolean noCache;
+	final long maxAgeSeconds;
+
+	private CacheControl(boolean noStore, boolean noCache, long maxAgeSeconds) {
+		this.noStore = noStore;
+		this.noCache = noCache;
+		this.maxAgeSeconds = maxAgeSeconds;
+	}
+
+	static CacheControl parse(String header) {
+		if (header == null || header.isEmpty()) {
+			return NONE;
+		}
+
+		boolean noStore = false;
+		boolean noCache = false;
+		long maxAge = -1;
+
+		for (String directive : header.split(",")) {
+			int separator = directive.indexOf('=');
+			String name = (separator == -1 ? directive : directive.substring(0, separator)).trim().toLowerCase(Locale.ROOT);
+			String value = separator == -1 ? null : directive.substring(separator + 1).trim();
+
+			switch (name) {
+				case "no-store":
+					noStore = true;
+					break;
+				case "no-cache":
+					noCache = true;
+					break;
+				case "max-age":
+					maxAge = seconds(value);
+					break;
+				default:
+					break;
+			}
+		}
+
+		return new CacheControl(noStore, noCache, maxAge);
+	}
+
+	/**
+	 * A delta-seconds value, 0 if it is malformed so that the response is treated as stale.
+	 */
+	static long seconds(String value) {
+		if (value == null) {
+			return 0;
+		}
+
+		if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+			value = value.substring(1, value.length() - 1);
+		}
+
+		try {
+			return Math.max(0, Long.parseLong(value));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.paypal.http.cache;
+
+import com.paypal.http.Headers;
+import com.paypal.http.HttpRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A response held by a {@link ResponseCache}: its status code, headers and raw, still encoded
+ * body, which is decoded again for every hit so callers never share a result object.
+ */
+public final class CachedResponse {
+
+	static final String ETAG = "ETag";
+	static final String LAST_MODIFIED = "Last-Modified";
+
+	private final int statusCode;
+	private final Headers headers;
+	private final byte[] body;
+	private final Map<String, String> varyHeaders;
+	private final long expiresAtNanos;
+
+	CachedResponse(int statusCode, Headers headers, byte[] body, Map<String, String> varyHeaders, long expiresAtNanos) {
+		this.statusCode = statusCode;
+		this.headers = headers;
+		this.body = body;
+		this.varyHeaders = varyHeaders == null ? Collections.emptyMap() : varyHeaders;
+		this.expiresAtNanos = expiresAtNanos;
+	}
+
+	public int statusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * A copy of the response headers.
+	 */
+	public Headers headers() {
+		return ResponseCache.copy(headers);
+	}
+
+	public InputStream body() {
+		return new ByteArrayInputStream(body);
+	}
+
+	public int size() {
+		return body.length;
+	}
+
+	public String etag() {
+		return headers.header(ETAG);
+	}
+
+	public String lastModified() {
+		return headers.header(LAST_MODIFIED);
+	}
+
+	/**
+	 * Whether the response may still be used without revalidating it with the server.
+	 */
+	public boolean isFresh() {
+		return expiresAtNanos - System.nanoTime() > 0;
+	}
+
+	/**
+	 * Whether the response has an {@code ETag} or {@code Last-Modified} validator to make a
+	 * conditional request with.
+	 */
+	public boolean isRevalidatable() {
+		return etag() != null || lastModified() != null;
+	}
+
+	/**
+	 * Adds {@code If-None-Match} and {@code If-Modified-Since} headers for this response's
+	 * validators, so that the server can answer with 304 Not Modified if it has not changed.
+	 */
+	public void addValidators(Headers requestHeaders) {
+		if (etag() != null) {
+			requestHeaders.headerIfNotPresent("If-None-Match", etag());
+		}
+		if (lastModified() != null) {
+			requestHeaders.headerIfNotPresent("If-Modified-Since", lastModified());
+		}
+	}
+
+	/**
+	 * Whether the request sends the same values for every header the response varies on.
+	 */
+	boolean matches(HttpRequest<?> request) {
+		for (Map.Entry<String, String> vary : varyHeaders.entrySet()) {
+			if (!Objects.equals(request.headers().header(vary.getKey()), vary.getValue())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	Map<String, String> varyHeaders() {
+		return varyHeaders;
+	}
+
+	Headers rawHeaders() {
+		return headers;
+	}
+
+	byte[] rawBody() {
+		return body;
+	}
+}
@@ -0,0 +1,173 @@
+package com.paypal.http.cache;
+
+import com.paypal.http.Headers;
+import com.paypal.http.HttpRequest;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lets concurrent identical requests of an {@link com.paypal.http.HttpClient} share a single
+ * network call. The first request to arrive leads a flight and is sent as usual; requests that
+ * arrive while it is in the air follow it and receive its response or exception instead of
+ * sending their own.
+ *
+ * Requests are identical when they have the same verb, url and response class and the same
+ * values for each of {@link #headers}, by default Authorization, Accept and Accept-Language.
+ * Only GET and HEAD requests are coalesced unless {@link #verbs} says otherwise.
+ *
+ * The leader shares its response's status code, headers and raw body, which every follower
+ * decodes again, so followers never share headers or a result object with each other or the
+ * leader.
+ *
+ * <pre>
+ * <code>
+ * client.setRequestCoalescer(new RequestCoalescer()
+ *     .headers(Headers.AUTHORIZATION, "PayPal-Partner-Attribution-Id"));
+ * </code>
+ * </pre>
+ */
+public class RequestCoalescer {
+
+	private final ConcurrentMap<String, CompletableFuture<CachedResponse>> flights = new ConcurrentHashMap<>();
+	private volatile Set<String> verbs = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("GET", "HEAD")));
+	private volatile List<String> headers = Collections.unmodifiableList(Arrays.asList(
+			Headers.AUTHORIZATION, "Accept", "Accept-Language"));
+
+	/**
+	 * Sets the verbs whose requests are coalesced. They should be safe to share between callers.
+	 */
+	public RequestCoalescer verbs(String... verbs) {
+		Set<String> upperCase = new HashSet<>();
+		for (String verb : verbs) {
+			upperCase.add(verb.toUpperCase());
+		}
+		this.verbs = Collections.unmodifiableSet(upperCase);
+		return this;
+	}
+
+	/**
+	 * Sets the request headers that must match for requests to be coalesced.
+	 */
+	public RequestCoalescer headers(String... headers) {
+		this.headers = Collections.unmodifiableList(Arrays.asList(headers.clone()));
+		return this;
+	}
+
+	/**
+	 * The number of flights currently in the air.
+	 */
+	public int inFlight() {
+		return flights.size();
+	}
+
+	/**
+	 * Joins the flight for a request, leading a new one if there is none, or returns null if the
+	 * request is not coalesced.
+	 */
+	public Flight join(String baseUrl, HttpRequest<?> request) {
+		if (request.verb() == null || !verbs.contains(request.verb().toUpperCase())) {
+			return null;
+		}
+
+		String key = key(baseUrl, request);
+		CompletableFuture<CachedResponse> flight = new CompletableFuture<>();
+		CompletableFuture<CachedResponse> existing = flights.putIfAbsent(key, flight);
+
+		return existing == null ? new Flight(this, key, flight, true) : new Flight(this, key, existing, false);
+	}
+
+	/**
+	 * Identifies the requests that may share a call. Override this method in a custom subclass to
+	 * coalesce on other parts of the request.
+	 */
+	protected String key(String baseUrl, HttpRequest<?> request) {
+		StringBuilder key = new StringBuilder()
+				.append(request.verb().toUpperCase()).append(' ')
+				.append(baseUrl).append(request.path()).append(' ')
+				.append(request.responseClass().getName());
+		for (String header : headers) {
+			key.append('\n').append(header).append(": ").append(request.headers().header(header));
+		}
+
+		return key.toString();
+	}
+
+	/**
+	 * One request's place in a flight. The leader must settle the flight with {@link #complete}
+	 * or {@link #fail}, and finally {@link #abandon} it; followers wait for its {@link #result}.
+	 */
+	public static final class Flight {
+
+		private final RequestCoalescer coalescer;
+		private final String key;
+		private final CompletableFuture<CachedResponse> shared;
+		private final boolean leader;
+
+		private Flight(RequestCoalescer coalescer, String key, CompletableFuture<CachedResponse> shared, boolean leader) {
+			this.coalescer = coalescer;
+			this.key = key;
+			this.shared = shared;
+			this.leader = leader;
+		}
+
+		public boolean isLeader() {
+			return leader;
+		}
+
+		/**
+		 * The leader's response, still to be decoded. Cancelling the returned future does not
+		 * affect the flight.
+		 */
+		public CompletableFuture<CachedResponse> result() {
+			return shared.thenApply(response -> response);
+		}
+
+		/**
+		 * Hands the leader's response to the followers, copying its headers. Does nothing for
+		 * followers or once the flight is settled.
+		 */
+		public void complete(int statusCode, Headers headers, byte[] body) {
+			complete(new CachedResponse(statusCode, ResponseCache.copy(headers), body, null, 0));
+		}
+
+		/**
+		 * Hands a cached response the leader was answered with to the followers. Does nothing for
+		 * followers or once the flight is settled.
+		 */
+		public void complete(CachedResponse response) {
+			if (leader) {
+				coalescer.flights.remove(key, shared);
+				shared.complete(response);
+			}
+		}
+
+		/**
+		 * Fails the followers with the leader's exception. Does nothing for followers or once the
+		 * flight is settled.
+		 */
+		public void fail(Throwable error) {
+			if (leader) {
+				coalescer.flights.remove(key, shared);
+				shared.completeExceptionally(error);
+			}
+		}
+
+		/**
+		 * Fails the followers if the leader left without settling the flight, e.g. because of an
+		 * unchecked exception.
+		 */
+		public void abandon() {
+			if (leader && !shared.isDone()) {
+				fail(new IOException("The request leading this flight did not complete"));
+			}
+		}
+	}
+}
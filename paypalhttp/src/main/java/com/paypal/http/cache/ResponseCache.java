@@ -0,0 +1,445 @@
+package com.paypal.http.cache;
+
+import com.paypal.http.Headers;
+import com.paypal.http.HttpRequest;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, in-memory cache of GET responses for an {@link com.paypal.http.HttpClient}, keyed by
+ * the exact request url, query string included.
+ *
+ * Responses are stored with their raw body as long as neither the request nor the response says
+ * {@code Cache-Control: no-store}, and they either have a freshness lifetime from
+ * {@code Cache-Control: max-age} or {@code Expires}, or an {@code ETag} or {@code Last-Modified}
+ * validator. A fresh response is served without a network call. A stale one, or any response to
+ * a request with {@code Cache-Control: no-cache}, is revalidated with a conditional request, and
+ * a 304 Not Modified answer refreshes and serves it. {@code Vary} is honoured. Any other verb
+ * sent to a url evicts the cached responses for that url with any query string. Other urls that
+ * the change affects, such as a collection the resource is listed in, stay cached until they
+ * expire or are {@link #invalidate invalidated}.
+ *
+ * Responses are also kept apart by the values of {@link #keyHeaders}, by default Authorization,
+ * Accept and Accept-Language as for a {@link RequestCoalescer}, so a client that calls on behalf
+ * of several principals never serves one principal's response to another, whether or not the
+ * server sends {@code Vary: Authorization}.
+ *
+ * When the cache holds more than {@code maxEntries} responses or {@code maxBytes} of bodies, the
+ * least recently used responses are evicted.
+ *
+ * <pre>
+ * <code>
+ * client.setResponseCache(new ResponseCache(500, 5 * 1024 * 1024));
+ * </code>
+ * </pre>
+ */
+public class ResponseCache {
+
+	static final String CACHE_CONTROL = "Cache-Control";
+
+	private final int maxEntries;
+	private final long maxBytes;
+	private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, Set<String>> keysByUrl = new HashMap<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private volatile List<String> keyHeaders = Collections.unmodifiableList(Arrays.asList(
+			Headers.AUTHORIZATION, "Accept", "Accept-Language"));
+	private long bytes;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder revalidations = new LongAdder();
+
+	/**
+	 * A cache of up to 1000 responses and 10 MB of bodies.
+	 */
+	public ResponseCache() {
+		this(1000, 10 * 1024 * 1024);
+	}
+
+	public ResponseCache(int maxEntries, long maxBytes) {
+		if (maxEntries < 1 || maxBytes < 1) {
+			throw new IllegalArgumentException("A response cache must hold at least one entry and one byte");
+		}
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Sets the request headers whose values, along with the url, identify a cached response.
+	 */
+	public ResponseCache keyHeaders(String... headers) {
+		this.keyHeaders = Collections.unmodifiableList(Arrays.asList(headers.clone()));
+		return this;
+	}
+
+	/**
+	 * The cached response for a GET request, or null. A returned response that is not
+	 * {@link CachedResponse#isFresh() fresh} must be revalidated before it is used. Every lookup
+	 * counts as a hit if it returns a fresh response, and as a miss otherwise.
+	 */
+	public CachedResponse lookup(String url, HttpRequest<?> request) {
+		CacheControl requested = CacheControl.parse(request.headers().header(CACHE_CONTROL));
+		CachedResponse cached = requested.noStore ? null : get(key(url, request));
+		if (cached != null && !cached.matches(request)) {
+			cached = null;
+		}
+
+		if (cached != null && (requested.noCache || requested.maxAgeSeconds == 0)) {
+			cached = stale(cached);
+		}
+
+		if (cached != null && cached.isFresh()) {
+			hits.increment();
+		} else {
+			misses.increment();
+		}
+
+		return cached;
+	}
+
+	/**
+	 * Whether a response with the given headers may be stored for the request.
+	 */
+	public boolean isStorable(HttpRequest<?> request, Headers responseHeaders) {
+		if (CacheControl.parse(request.headers().header(CACHE_CONTROL)).noStore
+				|| CacheControl.parse(responseHeaders.header(CACHE_CONTROL)).noStore) {
+			return false;
+		}
+
+		String vary = responseHeaders.header("Vary");
+		if (vary != null && vary.contains("*")) {
+			return false;
+		}
+
+		if (contentLength(responseHeaders) > maxBytes) {
+			return false;
+		}
+
+		return freshnessMillis(responseHeaders) > 0
+				|| responseHeaders.header(CachedResponse.ETAG) != null
+				|| responseHeaders.header(CachedResponse.LAST_MODIFIED) != null;
+	}
+
+	/**
+	 * Stores a response to a GET request if it {@link #isStorable is storable}, returning the
+	 * stored response or null.
+	 */
+	public CachedResponse store(String url, HttpRequest<?> request, int statusCode, Headers responseHeaders, byte[] body) {
+		if (body.length > maxBytes || !isStorable(request, responseHeaders)) {
+			return null;
+		}
+
+		Headers headers = copy(responseHeaders);
+		CachedResponse response = new CachedResponse(statusCode, headers, body, varyHeaders(request, headers), expiresAt(headers));
+		put(url, key(url, request), response);
+		return response;
+	}
+
+	/**
+	 * Updates the cached response for a request with the headers of a 304 Not Modified answer,
+	 * returning the refreshed response, or null if there is none to refresh.
+	 */
+	public CachedResponse revalidate(String url, HttpRequest<?> request, Headers notModifiedHeaders) {
+		String key = key(url, request);
+		CachedResponse cached = get(key);
+		if (cached == null || !cached.matches(request)) {
+			return null;
+		}
+
+		Headers headers = merge(cached.rawHeaders(), notModifiedHeaders);
+		CachedResponse refreshed = new CachedResponse(cached.statusCode(), headers, cached.rawBody(),
+				cached.varyHeaders(), expiresAt(headers));
+		if (isStorable(request, headers)) {
+			put(url, key, refreshed);
+		} else {
+			remove(key);
+		}
+
+		revalidations.increment();
+		return refreshed;
+	}
+
+	/**
+	 * Evicts every cached response for a url, whatever its query string.
+	 */
+	public void invalidate(String url) {
+		lock.lock();
+		try {
+			Set<String> keys = keysByUrl.remove(withoutQuery(url));
+			if (keys != null) {
+				for (String key : keys) {
+					bytes -= entries.remove(key).size();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			entries.clear();
+			keysByUrl.clear();
+			bytes = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The total size of the cached bodies.
+	 */
+	public long bytes() {
+		lock.lock();
+		try {
+			return bytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The number of lookups answered with a fresh response, without a network call.
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * The number of lookups that went to the network, including {@link #revalidations()}.
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * The number of stale responses that the server confirmed with 304 Not Modified.
+	 */
+	public long revalidations() {
+		return revalidations.sum();
+	}
+
+	/**
+	 * Identifies the cached response for a request: its url and the values of the key headers.
+	 */
+	private String key(String url, HttpRequest<?> request) {
+		StringBuilder key = new StringBuilder(url);
+		for (String header : keyHeaders) {
+			key.append('\n').append(header).append(": ").append(request.headers().header(header));
+		}
+
+		return key.toString();
+	}
+
+	private CachedResponse get(String key) {
+		lock.lock();
+		try {
+			return entries.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void put(String url, String key, CachedResponse response) {
+		lock.lock();
+		try {
+			CachedResponse previous = entries.put(key, response);
+			bytes += response.size() - (previous == null ? 0 : previous.size());
+			keysByUrl.computeIfAbsent(withoutQuery(url), u -> new HashSet<>()).add(key);
+
+			Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+			while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+				Map.Entry<String, CachedResponse> evicted = eldest.next();
+				bytes -= evicted.getValue().size();
+				eldest.remove();
+				unindex(evicted.getKey());
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void remove(String key) {
+		lock.lock();
+		try {
+			CachedResponse removed = entries.remove(key);
+			if (removed != null) {
+				bytes -= removed.size();
+				unindex(key);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Drops a key from the url index. Keys start with their url, up to the first line break.
+	 */
+	private void unindex(String key) {
+		int end = key.indexOf('\n');
+		String url = withoutQuery(end < 0 ? key : key.substring(0, end));
+		Set<String> keys = keysByUrl.get(url);
+		if (keys != null && keys.remove(key) && keys.isEmpty()) {
+			keysByUrl.remove(url);
+		}
+	}
+
+	/**
+	 * The url the index groups responses under, so that a change to a resource evicts all of its
+	 * query variants.
+	 */
+	private static String withoutQuery(String url) {
+		int query = url.indexOf('?');
+		int fragment = url.indexOf('#');
+		int end = query < 0 ? fragment : fragment < 0 ? query : Math.min(query, fragment);
+		return end < 0 ? url : url.substring(0, end);
+	}
+
+	private static CachedResponse stale(CachedResponse cached) {
+		return new CachedResponse(cached.statusCode(), cached.rawHeaders(), cached.rawBody(), cached.varyHeaders(), System.nanoTime());
+	}
+
+	private static long expiresAt(Headers headers) {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(freshnessMillis(headers));
+	}
+
+	/**
+	 * How much longer a response is fresh for, from {@code Cache-Control: max-age} or else
+	 * {@code Expires}, less its {@code Age}. Responses with {@code no-cache} are always stale.
+	 */
+	static long freshnessMillis(Headers headers) {
+		CacheControl control = CacheControl.parse(headers.header(CACHE_CONTROL));
+		if (control.noCache) {
+			return 0;
+		}
+
+		long lifetime;
+		if (control.maxAgeSeconds >= 0) {
+			lifetime = TimeUnit.SECONDS.toMillis(control.maxAgeSeconds);
+		} else if (headers.header("Expires") != null) {
+			ZonedDateTime expires = date(headers.header("Expires"));
+			ZonedDateTime date = date(headers.header("Date"));
+			if (expires == null) {
+				return 0;
+			}
+			lifetime = Duration.between(date == null ? ZonedDateTime.now(expires.getZone()) : date, expires).toMillis();
+		} else {
+			return 0;
+		}
+
+		String age = headers.header("Age");
+		return Math.max(0, lifetime - (age == null ? 0 : TimeUnit.SECONDS.toMillis(CacheControl.seconds(age))));
+	}
+
+	private static long contentLength(Headers headers) {
+		try {
+			String contentLength = headers.header("Content-Length");
+			return contentLength == null ? -1 : Long.parseLong(contentLength.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static ZonedDateTime date(String value) {
+		if (value == null) {
+			return null;
+		}
+
+		try {
+			return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static Map<String, String> varyHeaders(HttpRequest<?> request, Headers responseHeaders) {
+		String vary = responseHeaders.header("Vary");
+		if (vary == null) {
+			return null;
+		}
+
+		Map<String, String> varyHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (String name : vary.split(",")) {
+			name = name.trim();
+			if (!name.isEmpty()) {
+				varyHeaders.put(name, request.headers().header(name));
+			}
+		}
+
+		return varyHeaders;
+	}
+
+	static Headers copy(Headers headers) {
+		Headers copy = new Headers();
+		for (String key : headers) {
+			if (key != null) {
+				copy.header(key, headers.header(key));
+			}
+		}
+
+		return copy;
+	}
+
+	/**
+	 * The stored headers updated with those of a 304 answer, which replace any of the same name.
+	 */
+	private static Headers merge(Headers stored, Headers updates) {
+		Set<String> updated = new HashSet<>();
+		for (String key : updates) {
+			if (key != null && !isBodyHeader(key)) {
+				updated.add(key.toLowerCase(Locale.ROOT));
+			}
+		}
+
+		Headers merged = new Headers();
+		for (String key : stored) {
+			if (key != null && !updated.contains(key.toLowerCase(Locale.ROOT))) {
+				merged.header(key, stored.header(key));
+			}
+		}
+		for (String key : updates) {
+			if (key != null && !isBodyHeader(key)) {
+				merged.header(key, updates.header(key));
+			}
+		}
+
+		return merged;
+	}
+
+	/**
+	 * Headers that describe the empty body of a 304 answer rather than the cached one.
+	 */
+	private static boolean isBodyHeader(String key) {
+		return key.equalsIgnoreCase("Content-Length")
+				|| key.equalsIgnoreCase("Content-Encoding")
+				|| key.equalsIgnoreCase("Transfer-Encoding")
+				|| key.equalsIgnoreCase(Headers.CONTENT_TYPE);
+	}
+}
@@ -0,0 +1,25 @@
+package com.paypal.http.exceptions;
+
+import com.paypal.http.Headers;
+
+/**
+ * Thrown without making a call when the circuit breaker for an endpoint is open. It looks like a
+ * 503 response with a {@code Retry-After} header giving the seconds until trial calls resume.
+ */
+public class CircuitOpenException extends HttpException {
+
+	private final String circuit;
+
+	public CircuitOpenException(String circuit, long retryAfterSeconds) {
+		super(String.format("Circuit breaker for %s is open", circuit), 503,
+				new Headers().header("Retry-After", String.valueOf(retryAfterSeconds)));
+		this.circuit = circuit;
+	}
+
+	/**
+	 * The name of the open circuit: the base url and path template of the endpoint.
+	 */
+	public String circuit() {
+		return circuit;
+	}
+}
@@ -0,0 +1,14 @@
+package com.paypal.http.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown without making a call when a client-side limit, such as the concurrency limit of an
+ * {@link com.paypal.http.HttpClient}, rejects it.
+ */
+public class LimitExceededException extends IOException {
+
+	public LimitExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,65 @@
+package com.paypal.http.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor {@link com.paypal.http.HttpClient#executeAsync} runs on when none has been
+ * configured: a shared, unbounded pool of daemon threads, since transports block while waiting
+ * on the network. With the system property {@code paypalhttp.virtualThreads=true} on JDK 21+, a
+ * new virtual thread per task instead.
+ */
+public final class DefaultExecutor {
+
+	private DefaultExecutor() {}
+
+	public static ExecutorService get() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * A shared single daemon thread for timers such as retry backoff. Scheduled tasks should only
+	 * hand work off to an executor, never block. Cancelled tasks are removed from its queue right
+	 * away.
+	 */
+	public static ScheduledExecutorService scheduler() {
+		return SchedulerHolder.INSTANCE;
+	}
+
+	private static class Holder {
+		private static final ExecutorService INSTANCE = Boolean.getBoolean("paypalhttp.virtualThreads") && VirtualThreadSupport.isSupported()
+				? VirtualThreadSupport.newExecutor("paypalhttp-async-")
+				: Executors.newCachedThreadPool(new DaemonThreadFactory());
+	}
+
+	private static class SchedulerHolder {
+		private static final ScheduledExecutorService INSTANCE = newScheduler();
+
+		private static ScheduledExecutorService newScheduler() {
+			ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "paypalhttp-scheduler");
+				thread.setDaemon(true);
+				return thread;
+			});
+			// Most timers, such as timeouts, are cancelled long before they are due
+			scheduler.setRemoveOnCancelPolicy(true);
+			return Executors.unconfigurableScheduledExecutorService(scheduler);
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "paypalhttp-async-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.paypal.http.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Blocks on the futures of the asynchronous code paths for their synchronous counterparts, so
+ * that both fail with the same exceptions.
+ */
+public final class Futures {
+
+	private Futures() {}
+
+	/**
+	 * Waits for a future and returns its result, or rethrows its failure: an {@link IOException},
+	 * unchecked exception or error as it is, and anything else wrapped in an IOException. If the
+	 * thread is interrupted, the future is cancelled and an {@link InterruptedIOException} saying
+	 * what was awaited, e.g. "a response", is thrown.
+	 */
+	public static <V> V await(Future<V> future, String awaited) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for " + awaited);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.paypal.http.internal;
+
+/**
+ * Reduces a request path to a low-cardinality template by dropping the query string and replacing
+ * segments that look like resource ids with {@code {id}}, so that
+ * {@code /v2/checkout/orders/5O190127TN364715T/capture?x=1} becomes
+ * {@code /v2/checkout/orders/{id}/capture}.
+ *
+ * A segment is treated as an id when it is entirely numeric, or is at least 8 characters long and
+ * contains a digit. Version segments such as {@code v2} are left alone.
+ */
+public final class PathTemplate {
+
+	private static final int MIN_ID_LENGTH = 8;
+
+	private PathTemplate() {}
+
+	public static String of(String path) {
+		if (path == null) {
+			return "";
+		}
+
+		int query = path.indexOf('?');
+		if (query != -1) {
+			path = path.substring(0, query);
+		}
+
+		StringBuilder template = null;
+		int segmentStart = 0;
+		for (int i = 0; i <= path.length(); i++) {
+			if (i < path.length() && path.charAt(i) != '/') {
+				continue;
+			}
+
+			if (isId(path, segmentStart, i)) {
+				if (template == null) {
+					template = new StringBuilder(path.length()).append(path, 0, segmentStart);
+				}
+				template.append("{id}");
+			} else if (template != null) {
+				template.append(path, segmentStart, i);
+			}
+
+			if (template != null && i < path.length()) {
+				template.append('/');
+			}
+			segmentStart = i + 1;
+		}
+
+		return template == null ? path : template.toString();
+	}
+
+	private static boolean isId(String path, int start, int end) {
+		if (start >= end) {
+			return false;
+		}
+
+		boolean digit = false;
+		boolean allDigits = true;
+		for (int i = start; i < end; i++) {
+			if (Character.isDigit(path.charAt(i))) {
+				digit = true;
+			} else {
+				allDigits = false;
+			}
+		}
+
+		return allDigits || (digit && end - start >= MIN_ID_LENGTH);
+	}
+}
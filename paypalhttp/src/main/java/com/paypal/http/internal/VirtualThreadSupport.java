@@ -0,0 +1,24 @@
+package com.paypal.http.internal;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Starts virtual threads where the runtime has them. This is the Java 8 version, which has none;
+ * the multi-release jar replaces it on JDK 21+ with the one in {@code src/main/java21}.
+ */
+public final class VirtualThreadSupport {
+
+	private VirtualThreadSupport() {}
+
+	public static boolean isSupported() {
+		return false;
+	}
+
+	/**
+	 * An executor that runs each task on a new virtual thread named after {@code prefix}, or null
+	 * if the runtime has no virtual threads.
+	 */
+	public static ExecutorService newExecutor(String prefix) {
+		return null;
+	}
+}
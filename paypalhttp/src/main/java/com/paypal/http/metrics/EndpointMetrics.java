@@ -0,0 +1,198 @@
+package com.paypal.http.metrics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters for one endpoint, i.e. a verb and a path template such as
+ * {@code GET /v2/checkout/orders/{id}}.
+ */
+public final class EndpointMetrics {
+
+	/**
+	 * The phases of a call that are timed. {@link #CONNECTION_ACQUIRE}, {@link #CONNECT} and
+	 * {@link #TLS_HANDSHAKE} are only recorded by transports that manage their own connections,
+	 * and {@link #RATE_LIMIT_WAIT} only when a rate limiter is set.
+	 */
+	public enum Phase {
+		TOTAL,
+		INJECTORS,
+		ENCODE,
+		RATE_LIMIT_WAIT,
+		CONNECTION_ACQUIRE,
+		CONNECT,
+		TLS_HANDSHAKE,
+		REQUEST_SEND,
+		TIME_TO_FIRST_BYTE,
+		BODY_READ,
+		DECODE
+	}
+
+	private final String endpoint;
+	private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder newConnections = new LongAdder();
+	private final LongAdder reusedConnections = new LongAdder();
+	private final LongAdder bytesSent = new LongAdder();
+	private final LongAdder bytesReceived = new LongAdder();
+	private final LongAdder hedges = new LongAdder();
+	private final LongAdder hedgeWins = new LongAdder();
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheRevalidations = new LongAdder();
+	private final LongAdder coalescedCalls = new LongAdder();
+	private volatile double rateLimitTokens = Double.NaN;
+	private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+	EndpointMetrics(String endpoint) {
+		this.endpoint = endpoint;
+		for (Phase phase : Phase.values()) {
+			histograms.put(phase, new LatencyHistogram());
+		}
+	}
+
+	public String endpoint() {
+		return endpoint;
+	}
+
+	public LatencyHistogram histogram(Phase phase) {
+		return histograms.get(phase);
+	}
+
+	public long calls() {
+		return calls.sum();
+	}
+
+	public long failures() {
+		return failures.sum();
+	}
+
+	public long newConnections() {
+		return newConnections.sum();
+	}
+
+	public long reusedConnections() {
+		return reusedConnections.sum();
+	}
+
+	public long bytesSent() {
+		return bytesSent.sum();
+	}
+
+	public long bytesReceived() {
+		return bytesReceived.sum();
+	}
+
+	/**
+	 * The number of calls that sent a hedged request, see {@link com.paypal.http.resilience.HedgePolicy}.
+	 */
+	public long hedges() {
+		return hedges.sum();
+	}
+
+	/**
+	 * The number of hedged requests that answered before the original request.
+	 */
+	public long hedgeWins() {
+		return hedgeWins.sum();
+	}
+
+	/**
+	 * The number of calls answered by the {@link com.paypal.http.cache.ResponseCache}, including
+	 * {@link #cacheRevalidations()}.
+	 */
+	public long cacheHits() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * The number of cached responses that were served after a 304 Not Modified answer.
+	 */
+	public long cacheRevalidations() {
+		return cacheRevalidations.sum();
+	}
+
+	/**
+	 * The number of calls that shared the network call of an identical request in flight, see
+	 * {@link com.paypal.http.cache.RequestCoalescer}.
+	 */
+	public long coalescedCalls() {
+		return coalescedCalls.sum();
+	}
+
+	/**
+	 * The tokens left in the endpoint's rate limit bucket after its latest call, or NaN if it is
+	 * not rate limited.
+	 */
+	public double rateLimitTokens() {
+		return rateLimitTokens;
+	}
+
+	/**
+	 * A snapshot of how many responses were received with each status code.
+	 */
+	public Map<Integer, Long> statusCodes() {
+		Map<Integer, Long> snapshot = new HashMap<>();
+		for (Map.Entry<Integer, LongAdder> entry : statusCodes.entrySet()) {
+			snapshot.put(entry.getKey(), entry.getValue().sum());
+		}
+
+		return snapshot;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: calls=%d, failures=%d, %s", endpoint, calls(), failures(), histogram(Phase.TOTAL));
+	}
+
+	void record(Phase phase, long nanos) {
+		histograms.get(phase).record(nanos);
+	}
+
+	void callEnded(boolean failed) {
+		calls.increment();
+		if (failed) {
+			failures.increment();
+		}
+	}
+
+	void connectionAcquired(boolean reused) {
+		(reused ? reusedConnections : newConnections).increment();
+	}
+
+	void bytesSent(long bytes) {
+		bytesSent.add(bytes);
+	}
+
+	void bytesReceived(long bytes) {
+		bytesReceived.add(bytes);
+	}
+
+	void rateLimited(double tokens, long waitNanos) {
+		rateLimitTokens = tokens;
+		record(Phase.RATE_LIMIT_WAIT, waitNanos);
+	}
+
+	void hedged(boolean won) {
+		(won ? hedgeWins : hedges).increment();
+	}
+
+	void cacheHit(boolean revalidated) {
+		cacheHits.increment();
+		if (revalidated) {
+			cacheRevalidations.increment();
+		}
+	}
+
+	void coalesced() {
+		coalescedCalls.increment();
+	}
+
+	void statusCode(int statusCode) {
+		statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+	}
+}
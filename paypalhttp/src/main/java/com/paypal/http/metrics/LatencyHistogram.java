@@ -0,0 +1,117 @@
+package com.paypal.http.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values (typically nanoseconds) in the style of
+ * HdrHistogram: each power of two is split into 32 linear sub-buckets, so any recorded value is
+ * reported within about 3% of its true value across the full {@code long} range, using a fixed
+ * 15 KiB of memory. Recording is a handful of atomic increments and never allocates.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+
+		counts.incrementAndGet(index(value));
+		count.increment();
+		sum.add(value);
+
+		long currentMax;
+		while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+			// lost a race with another recorder; re-read
+		}
+	}
+
+	public long count() {
+		return count.sum();
+	}
+
+	public long max() {
+		return max.get();
+	}
+
+	public double mean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * The value below which {@code percentile} percent of recorded values fall, e.g.
+	 * {@code percentile(99.9)}. Returns 0 when nothing has been recorded.
+	 */
+	public long percentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		}
+
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestEquivalentValue(i), max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+	/**
+	 * Clears all recorded values. Values recorded concurrently with a reset may be partially lost.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LatencyHistogram(count=%d, mean=%.0f, p50=%d, p99=%d, max=%d)",
+				count(), mean(), percentile(50), percentile(99), max());
+	}
+
+	static int index(long value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return (int) value;
+		}
+
+		int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	static long highestEquivalentValue(int index) {
+		if (index < 2 * SUB_BUCKETS) {
+			return index;
+		}
+
+		int shift = index / SUB_BUCKETS - 1;
+		long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,147 @@
+package com.paypal.http.metrics;
+
+import com.paypal.http.HttpClientListener;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.internal.PathTemplate;
+import com.paypal.http.metrics.EndpointMetrics.Phase;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link HttpClientListener} that keeps in-memory latency histograms and counters per
+ * endpoint, ready to be exported to a metrics system.
+ *
+ * <pre>
+ * <code>
+ * MetricsListener metrics = new MetricsListener();
+ * client.addListener(metrics);
+ * ...
+ * EndpointMetrics orders = metrics.endpoint("POST", "/v2/checkout/orders");
+ * long p99 = orders.histogram(EndpointMetrics.Phase.TIME_TO_FIRST_BYTE).percentile(99);
+ * </code>
+ * </pre>
+ *
+ * Endpoints are keyed by verb and {@link PathTemplate}, so ids in paths do not create a new
+ * endpoint per resource.
+ */
+public class MetricsListener implements HttpClientListener {
+
+	private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+	/**
+	 * The metrics for a verb and path template, or null if no such call has been made.
+	 */
+	public EndpointMetrics endpoint(String verb, String pathTemplate) {
+		return endpoints.get(key(verb, pathTemplate));
+	}
+
+	public Collection<EndpointMetrics> endpoints() {
+		return Collections.unmodifiableCollection(endpoints.values());
+	}
+
+	public void clear() {
+		endpoints.clear();
+	}
+
+	@Override
+	public void injectorsEnd(HttpRequest<?> request, long durationNanos) {
+		metrics(request).record(Phase.INJECTORS, durationNanos);
+	}
+
+	@Override
+	public void requestEncoded(HttpRequest<?> request, long contentLength, long durationNanos) {
+		metrics(request).record(Phase.ENCODE, durationNanos);
+	}
+
+	@Override
+	public void connectionAcquired(HttpRequest<?> request, boolean reused, long durationNanos) {
+		EndpointMetrics metrics = metrics(request);
+		metrics.connectionAcquired(reused);
+		metrics.record(Phase.CONNECTION_ACQUIRE, durationNanos);
+	}
+
+	@Override
+	public void connectEnd(HttpRequest<?> request, long durationNanos) {
+		metrics(request).record(Phase.CONNECT, durationNanos);
+	}
+
+	@Override
+	public void secureConnectEnd(HttpRequest<?> request, long durationNanos) {
+		metrics(request).record(Phase.TLS_HANDSHAKE, durationNanos);
+	}
+
+	@Override
+	public void requestSent(HttpRequest<?> request, long bodyBytes, long durationNanos) {
+		EndpointMetrics metrics = metrics(request);
+		metrics.bytesSent(bodyBytes);
+		metrics.record(Phase.REQUEST_SEND, durationNanos);
+	}
+
+	@Override
+	public void responseHeadersEnd(HttpRequest<?> request, int statusCode, long durationNanos) {
+		EndpointMetrics metrics = metrics(request);
+		metrics.statusCode(statusCode);
+		metrics.record(Phase.TIME_TO_FIRST_BYTE, durationNanos);
+	}
+
+	@Override
+	public void responseBodyEnd(HttpRequest<?> request, long bodyBytes, long readNanos, long decodeNanos) {
+		EndpointMetrics metrics = metrics(request);
+		metrics.bytesReceived(bodyBytes);
+		metrics.record(Phase.BODY_READ, readNanos);
+		metrics.record(Phase.DECODE, decodeNanos);
+	}
+
+	@Override
+	public void rateLimited(HttpRequest<?> request, double tokens, long waitNanos) {
+		metrics(request).rateLimited(tokens, waitNanos);
+	}
+
+	@Override
+	public void hedged(HttpRequest<?> request, long delayNanos) {
+		metrics(request).hedged(false);
+	}
+
+	@Override
+	public void hedgeWon(HttpRequest<?> request) {
+		metrics(request).hedged(true);
+	}
+
+	@Override
+	public void cacheHit(HttpRequest<?> request, boolean revalidated) {
+		metrics(request).cacheHit(revalidated);
+	}
+
+	@Override
+	public void coalesced(HttpRequest<?> request) {
+		metrics(request).coalesced();
+	}
+
+	@Override
+	public void callEnd(HttpRequest<?> request, int statusCode, long durationNanos) {
+		EndpointMetrics metrics = metrics(request);
+		metrics.callEnded(false);
+		metrics.record(Phase.TOTAL, durationNanos);
+	}
+
+	@Override
+	public void callFailed(HttpRequest<?> request, IOException e, long durationNanos) {
+		EndpointMetrics metrics = metrics(request);
+		metrics.callEnded(true);
+		metrics.record(Phase.TOTAL, durationNanos);
+	}
+
+	private EndpointMetrics metrics(HttpRequest<?> request) {
+		String key = key(request.verb(), PathTemplate.of(request.path()));
+		EndpointMetrics metrics = endpoints.get(key);
+		return metrics != null ? metrics : endpoints.computeIfAbsent(key, EndpointMetrics::new);
+	}
+
+	private static String key(String verb, String pathTemplate) {
+		return verb.toUpperCase() + " " + pathTemplate;
+	}
+}
@@ -1,13 +1,14 @@
 package com.paypal.http.multipart;
 
 import com.paypal.http.serializer.Multipart;
+import com.paypal.http.transport.FileChannelSink;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URLConnection;
-import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 
 public class FilePart extends FormData {
 
@@ -24,10 +25,24 @@ public class FilePart extends FormData {
 						URLConnection.guessContentTypeFromName(file.getName()));
 	}
 
+	@Override
+	public long contentLength() {
+		return file.length();
+	}
+
+	/**
+	 * Transfers the file from its channel, which avoids copying it through the heap when the
+	 * connection supports it. {@link java.nio.channels.FileChannel#transferTo} may move fewer bytes
+	 * than asked, so this loops until the whole file is sent.
+	 */
 	@Override
 	public void writeData(OutputStream os) throws IOException {
 		try (FileInputStream fis = new FileInputStream(this.file)) {
-			fis.getChannel().transferTo(0, this.file.length(), Channels.newChannel(os));
+			FileChannel channel = fis.getChannel();
+			long size = channel.size();
+			for (long position = 0; position < size; ) {
+				position += FileChannelSink.transfer(channel, position, size - position, os);
+			}
 		}
 	}
 }
@@ -19,5 +19,13 @@ public abstract class FormData {
 		return String.format("Content-Disposition: form-data; name=\"%s\"", key());
 	}
 
+	/**
+	 * The number of bytes {@link #writeData} will write, or -1 if unknown. When every part knows
+	 * its length, multipart bodies are sent with a Content-Length instead of chunked.
+	 */
+	public long contentLength() throws IOException {
+		return -1;
+	}
+
 	public abstract void writeData(OutputStream os) throws IOException;
 }
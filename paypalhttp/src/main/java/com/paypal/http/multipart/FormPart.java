@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import static com.paypal.http.serializer.StreamUtils.writeOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class FormPart extends FormData {
 
@@ -14,6 +15,11 @@ public class FormPart extends FormData {
 		this.value = value;
 	}
 
+	@Override
+	public long contentLength() {
+		return value.getBytes(UTF_8).length;
+	}
+
 	@Override
 	public void writeData(OutputStream os) throws IOException {
 		writeOutputStream(os, value);
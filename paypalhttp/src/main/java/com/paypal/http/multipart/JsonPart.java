@@ -13,6 +13,7 @@ public class JsonPart extends FormData {
 
 	private Object value;
 	private String contentType;
+	private byte[] encoded;
 
 	public JsonPart(String key, Object value) {
 		super(key);
@@ -25,12 +26,30 @@ public class JsonPart extends FormData {
         return super.header() + String.format("; filename=\"%s.json\"%sContent-Type: %s", key(), Multipart.CRLF, contentType);
 	}
 
+	@Override
+	public long contentLength() throws IOException {
+		return encode().length;
+	}
+
 	@Override
 	public void writeData(OutputStream os) throws IOException {
+		StreamUtils.writeOutputStream(os, encode());
+	}
+
+	/**
+	 * The value as JSON, encoded on first use so that {@link #contentLength} and
+	 * {@link #writeData} share one serialization.
+	 */
+	private byte[] encode() throws IOException {
+		if (encoded != null) {
+			return encoded;
+		}
+
 		HttpRequest fakeReq = new HttpRequest("/", "GET", Void.class)
 				.requestBody(value)
 				.header(Headers.CONTENT_TYPE, contentType);
 
-		StreamUtils.writeOutputStream(os, new Encoder().serializeRequest(fakeReq));
+		encoded = new Encoder().serializeRequest(fakeReq);
+		return encoded;
 	}
 }
@@ -0,0 +1,172 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.exceptions.CircuitOpenException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The circuit breaker of a single endpoint, created by a {@link CircuitBreakerPolicy}.
+ *
+ * While CLOSED, outcomes are counted in a sliding window. It trips OPEN when the failure rate or
+ * slow call rate reaches its threshold, and then rejects every call with a
+ * {@link CircuitOpenException}. Once the open duration has passed it lets a few trial calls
+ * through (HALF_OPEN). It closes again when they all succeed, and reopens on the first failure.
+ */
+public final class CircuitBreaker {
+
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+
+	private final String name;
+	private final CircuitBreakerPolicy policy;
+	private final AtomicReference<Phase> phase;
+
+	CircuitBreaker(String name, CircuitBreakerPolicy policy) {
+		this.name = name;
+		this.policy = policy;
+		this.phase = new AtomicReference<>(closed());
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public State state() {
+		return phase.get().state;
+	}
+
+	/**
+	 * Admits a call, or throws a {@link CircuitOpenException} if the circuit is open or all trial
+	 * calls are already in flight. Every admitted call must record its outcome on the returned
+	 * permit.
+	 */
+	public Permit acquire() throws CircuitOpenException {
+		Phase current = phase.get();
+		if (current.state == State.OPEN) {
+			long remaining = policy.openNanos() - (System.nanoTime() - current.sinceNanos);
+			if (remaining > 0) {
+				throw new CircuitOpenException(name, retryAfterSeconds(remaining));
+			}
+
+			phase.compareAndSet(current, new Phase(State.HALF_OPEN, System.nanoTime(), null, policy.trialCalls()));
+			current = phase.get();
+			if (current.state == State.OPEN) {
+				throw new CircuitOpenException(name, 1);
+			}
+		}
+
+		if (current.state == State.HALF_OPEN && current.trialPermits.getAndDecrement() <= 0) {
+			throw new CircuitOpenException(name, 1);
+		}
+		return new Permit(current);
+	}
+
+	/**
+	 * Throws a {@link CircuitOpenException} if {@link #acquire} would reject a call right now,
+	 * without admitting one. Lets callers shed a call before spending rate or concurrency
+	 * permits on it.
+	 */
+	public void checkAdmissible() throws CircuitOpenException {
+		Phase current = phase.get();
+		if (current.state == State.OPEN) {
+			long remaining = policy.openNanos() - (System.nanoTime() - current.sinceNanos);
+			if (remaining > 0) {
+				throw new CircuitOpenException(name, retryAfterSeconds(remaining));
+			}
+		} else if (current.state == State.HALF_OPEN && current.trialPermits.get() <= 0) {
+			throw new CircuitOpenException(name, 1);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name + ": " + state();
+	}
+
+	private void record(Phase admitted, boolean failed, long durationNanos) {
+		if (phase.get() != admitted) {
+			// The circuit changed state while the call was in flight; its outcome says nothing about the new state
+			return;
+		}
+
+		boolean slow = durationNanos >= policy.slowCallNanos();
+		long now = System.nanoTime();
+		if (admitted.state == State.HALF_OPEN) {
+			if (failed || slow) {
+				trip(admitted, now);
+			} else if (admitted.trialSuccesses.incrementAndGet() >= policy.trialCalls()) {
+				phase.compareAndSet(admitted, closed());
+			}
+			return;
+		}
+
+		admitted.window.record(now, failed, slow);
+		if (failed || slow) {
+			long[] totals = admitted.window.totals(now);
+			long calls = totals[SlidingWindow.CALLS];
+			if (calls >= policy.minimumCalls()
+					&& (totals[SlidingWindow.FAILURES] * 100 >= policy.failureRateThreshold() * calls
+					|| totals[SlidingWindow.SLOW] * 100 >= policy.slowCallRateThreshold() * calls)) {
+				trip(admitted, now);
+			}
+		}
+	}
+
+	private void trip(Phase from, long now) {
+		phase.compareAndSet(from, new Phase(State.OPEN, now, null, 0));
+	}
+
+	private Phase closed() {
+		return new Phase(State.CLOSED, System.nanoTime(), new SlidingWindow(policy.windowBuckets(), policy.windowNanos()), 0);
+	}
+
+	/**
+	 * One stretch of time in a single state. Every transition installs a new phase with a compare
+	 * and set, so the state and its counters always change together, and calls admitted in an
+	 * earlier phase can be told apart from current ones.
+	 */
+	private static final class Phase {
+
+		final State state;
+		final long sinceNanos;
+		final SlidingWindow window;
+		final AtomicInteger trialPermits;
+		final AtomicInteger trialSuccesses = new AtomicInteger();
+
+		Phase(State state, long sinceNanos, SlidingWindow window, int trialPermits) {
+			this.state = state;
+			this.sinceNanos = sinceNanos;
+			this.window = window;
+			this.trialPermits = new AtomicInteger(trialPermits);
+		}
+	}
+
+	/**
+	 * An admitted call. Its outcome only counts if the circuit is still in the state, and the same
+	 * stretch of it, that the call was admitted in.
+	 */
+	public final class Permit {
+
+		private final Phase admitted;
+
+		private Permit(Phase admitted) {
+			this.admitted = admitted;
+		}
+
+		/**
+		 * Records the outcome of the call.
+		 */
+		public void record(boolean failed, long durationNanos) {
+			CircuitBreaker.this.record(admitted, failed, durationNanos);
+		}
+	}
+
+	private static long retryAfterSeconds(long remainingNanos) {
+		return Math.max(1, (remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+	}
+}
@@ -0,0 +1,158 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.internal.PathTemplate;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every endpoint of an {@link com.paypal.http.HttpClient} its own {@link CircuitBreaker},
+ * keyed by the environment's base url and the request's {@link PathTemplate}. When an endpoint
+ * degrades, calls to it fail immediately with a
+ * {@link com.paypal.http.exceptions.CircuitOpenException} instead of tying up threads until the
+ * read timeout.
+ *
+ * Failures are connection errors, timeouts and 5xx responses; other responses count as
+ * successes. By default a circuit opens when at least half of at least 20 calls in the last 10
+ * seconds failed, or all of them took longer than 10 seconds. It stays open for 30 seconds before
+ * 5 trial calls are let through.
+ *
+ * <pre>
+ * <code>
+ * client.setCircuitBreakerPolicy(new CircuitBreakerPolicy()
+ *     .failureRateThreshold(25)
+ *     .openDuration(10, TimeUnit.SECONDS));
+ * </code>
+ * </pre>
+ */
+public class CircuitBreakerPolicy {
+
+	private double failureRateThreshold = 50;
+	private double slowCallRateThreshold = 100;
+	private long slowCallNanos = TimeUnit.SECONDS.toNanos(10);
+	private int minimumCalls = 20;
+	private long windowNanos = TimeUnit.SECONDS.toNanos(10);
+	private int windowBuckets = 10;
+	private long openNanos = TimeUnit.SECONDS.toNanos(30);
+	private int trialCalls = 5;
+	private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+	/**
+	 * The percentage of failed calls at which a circuit opens.
+	 */
+	public CircuitBreakerPolicy failureRateThreshold(double percent) {
+		this.failureRateThreshold = checkPercent(percent);
+		return this;
+	}
+
+	/**
+	 * Calls taking at least {@code duration} are slow; a circuit opens when {@code percent} of
+	 * calls are slow.
+	 */
+	public CircuitBreakerPolicy slowCallThreshold(long duration, TimeUnit unit, double percent) {
+		this.slowCallNanos = unit.toNanos(duration);
+		this.slowCallRateThreshold = checkPercent(percent);
+		return this;
+	}
+
+	/**
+	 * The fewest calls in the window before the rates are evaluated.
+	 */
+	public CircuitBreakerPolicy minimumCalls(int minimumCalls) {
+		this.minimumCalls = Math.max(1, minimumCalls);
+		return this;
+	}
+
+	public CircuitBreakerPolicy window(long duration, TimeUnit unit) {
+		if (duration <= 0) {
+			throw new IllegalArgumentException("window must be positive");
+		}
+
+		this.windowNanos = unit.toNanos(duration);
+		return this;
+	}
+
+	public CircuitBreakerPolicy openDuration(long duration, TimeUnit unit) {
+		this.openNanos = unit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * The number of trial calls that must succeed to close a half-open circuit.
+	 */
+	public CircuitBreakerPolicy trialCalls(int trialCalls) {
+		this.trialCalls = Math.max(1, trialCalls);
+		return this;
+	}
+
+	/**
+	 * The circuit breaker for a path under a base url, created on first use.
+	 */
+	public CircuitBreaker breaker(String baseUrl, String path) {
+		String name = baseUrl + PathTemplate.of(path);
+		CircuitBreaker breaker = breakers.get(name);
+		return breaker != null ? breaker : breakers.computeIfAbsent(name, key -> new CircuitBreaker(key, this));
+	}
+
+	public Collection<CircuitBreaker> breakers() {
+		return Collections.unmodifiableCollection(breakers.values());
+	}
+
+	/**
+	 * Whether a call that failed with {@code e} counts against its circuit.
+	 */
+	public boolean isFailure(IOException e) {
+		if (e instanceof HttpException) {
+			return ((HttpException) e).statusCode() >= 500;
+		}
+
+		// Interrupted callers say nothing about the endpoint, unlike timeouts
+		return e.getClass() != InterruptedIOException.class;
+	}
+
+	double failureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	double slowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	long slowCallNanos() {
+		return slowCallNanos;
+	}
+
+	int minimumCalls() {
+		return minimumCalls;
+	}
+
+	long windowNanos() {
+		return windowNanos;
+	}
+
+	int windowBuckets() {
+		return windowBuckets;
+	}
+
+	long openNanos() {
+		return openNanos;
+	}
+
+	int trialCalls() {
+		return trialCalls;
+	}
+
+	private static double checkPercent(double percent) {
+		if (percent <= 0 || percent > 100) {
+			throw new IllegalArgumentException("percent must be greater than 0 and at most 100");
+		}
+
+		return percent;
+	}
+}
@@ -0,0 +1,372 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.exceptions.CircuitOpenException;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.exceptions.LimitExceededException;
+import com.paypal.http.internal.DefaultExecutor;
+import com.paypal.http.internal.Futures;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of requests an {@link com.paypal.http.HttpClient} has in flight, adapting the
+ * bound to how the server copes.
+ *
+ * The limit is lowered multiplicatively whenever a call is dropped: a 429 or 503 response, or a
+ * timeout. Otherwise it follows the Vegas algorithm. Each response time is compared with the
+ * lowest one seen recently for the same endpoint to estimate how many requests are queued at the
+ * server, so a slow endpoint is not mistaken for queueing behind a fast one. The limit grows while
+ * that queue is short and shrinks as it builds up. It only grows while the client actually uses
+ * at least half of it.
+ *
+ * Calls beyond the limit wait in a FIFO queue for up to {@link #maxWait}, and fail with a
+ * {@link LimitExceededException} when the queue is full or the wait times out.
+ *
+ * <pre>
+ * <code>
+ * client.setConcurrencyLimiter(new ConcurrencyLimiter()
+ *     .limits(10, 1, 100)
+ *     .maxWait(5, TimeUnit.SECONDS));
+ * </code>
+ * </pre>
+ */
+public class ConcurrencyLimiter {
+
+	private static final int RTT_WINDOW_SAMPLES = 500;
+
+	private int minLimit = 1;
+	private int maxLimit = 200;
+	private double limit = 20;
+	private double backoffRatio = 0.9;
+	private int maxQueue = 1000;
+	private long maxWaitNanos = TimeUnit.SECONDS.toNanos(10);
+
+	private int inFlight;
+	private final Map<String, RttBaseline> baselines = new HashMap<>();
+	private final Deque<Waiter> waiters = new ArrayDeque<>();
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * The initial limit and the bounds it adapts within.
+	 */
+	public ConcurrencyLimiter limits(int initial, int min, int max) {
+		if (min < 1 || initial < min || max < initial) {
+			throw new IllegalArgumentException("limits require 1 <= min <= initial <= max");
+		}
+
+		lock.lock();
+		try {
+			this.limit = initial;
+			this.minLimit = min;
+			this.maxLimit = max;
+			return this;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The factor the limit is multiplied by when a call is dropped, e.g. 0.9.
+	 */
+	public ConcurrencyLimiter backoffRatio(double backoffRatio) {
+		if (backoffRatio <= 0 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+		}
+
+		lock.lock();
+		try {
+			this.backoffRatio = backoffRatio;
+			return this;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The most calls that may wait for a permit; 0 rejects calls over the limit immediately.
+	 */
+	public ConcurrencyLimiter maxQueue(int maxQueue) {
+		lock.lock();
+		try {
+			this.maxQueue = Math.max(0, maxQueue);
+			return this;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public ConcurrencyLimiter maxWait(long maxWait, TimeUnit unit) {
+		lock.lock();
+		try {
+			this.maxWaitNanos = unit.toNanos(maxWait);
+			return this;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int limit() {
+		lock.lock();
+		try {
+			return (int) limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int inFlight() {
+		lock.lock();
+		try {
+			return inFlight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int queued() {
+		lock.lock();
+		try {
+			return waiters.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Blocks until a call may be made.
+	 */
+	public Permit acquire() throws IOException {
+		return acquire("");
+	}
+
+	/**
+	 * Blocks until a call to an endpoint may be made. Response times are only compared with
+	 * those of the same endpoint, e.g. {@code "GET /v1/orders/{id}"}.
+	 */
+	public Permit acquire(String endpoint) throws IOException {
+		CompletableFuture<Permit> permit = acquireAsync(endpoint);
+		try {
+			return Futures.await(permit, "a concurrency permit");
+		} catch (InterruptedIOException e) {
+			if (!permit.isCompletedExceptionally()) {
+				// Granted before the wait could be cancelled
+				permit.join().abandon();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * A future that completes once a call may be made, or fails with a
+	 * {@link LimitExceededException}.
+	 */
+	public CompletableFuture<Permit> acquireAsync() {
+		return acquireAsync("");
+	}
+
+	/**
+	 * A future that completes once a call to an endpoint may be made, or fails with a
+	 * {@link LimitExceededException}.
+	 */
+	public CompletableFuture<Permit> acquireAsync(String endpoint) {
+		Waiter waiter = new Waiter(endpoint);
+		long maxWaitNanos;
+		lock.lock();
+		try {
+			if (inFlight < (int) limit) {
+				inFlight++;
+				waiter.complete(new Permit(endpoint));
+				return waiter;
+			}
+
+			if (waiters.size() >= maxQueue || this.maxWaitNanos <= 0) {
+				waiter.completeExceptionally(new LimitExceededException(
+						String.format("Concurrency limit of %d requests reached", (int) limit)));
+				return waiter;
+			}
+
+			waiters.add(waiter);
+			maxWaitNanos = this.maxWaitNanos;
+		} finally {
+			lock.unlock();
+		}
+
+		ScheduledFuture<?> timeout = DefaultExecutor.scheduler().schedule(() -> {
+			if (remove(waiter)) {
+				waiter.completeExceptionally(new LimitExceededException(String.format(
+						"Timed out after %d ms waiting for a concurrency permit", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos))));
+			}
+		}, maxWaitNanos, TimeUnit.NANOSECONDS);
+		waiter.whenComplete((permit, error) -> {
+			// Don't leave a timer per granted waiter on the scheduler until maxWait passes
+			timeout.cancel(false);
+			if (waiter.isCancelled()) {
+				remove(waiter);
+			}
+		});
+
+		return waiter;
+	}
+
+	/**
+	 * Whether a failure means the server is overloaded. Dropped calls cut the limit.
+	 */
+	protected boolean isDrop(IOException failure) {
+		if (failure instanceof HttpException && !(failure instanceof CircuitOpenException)) {
+			int statusCode = ((HttpException) failure).statusCode();
+			return statusCode == 429 || statusCode == 503;
+		}
+
+		return failure instanceof SocketTimeoutException;
+	}
+
+	private boolean remove(Waiter waiter) {
+		lock.lock();
+		try {
+			return waiters.remove(waiter);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void release(String endpoint, long rttNanos, IOException failure, boolean sample) {
+		List<Waiter> granted = new ArrayList<>();
+		List<Permit> permits = new ArrayList<>();
+		lock.lock();
+		try {
+			if (sample) {
+				if (failure != null && isDrop(failure)) {
+					limit = Math.max(minLimit, limit * backoffRatio);
+				} else if (failure == null || failure instanceof HttpException) {
+					adjust(endpoint, rttNanos);
+				}
+			}
+
+			inFlight--;
+			while (inFlight < (int) limit && !waiters.isEmpty()) {
+				inFlight++;
+				Waiter waiter = waiters.poll();
+				granted.add(waiter);
+				permits.add(new Permit(waiter.endpoint));
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		for (int i = 0; i < granted.size(); i++) {
+			if (!granted.get(i).complete(permits.get(i))) {
+				permits.get(i).abandon();
+			}
+		}
+	}
+
+	/**
+	 * Vegas: estimate the server's queue as {@code limit * (1 - minRtt / rtt)}, with the endpoint's
+	 * own minRtt, and grow the limit while it is below alpha, shrink it above beta.
+	 */
+	private void adjust(String endpoint, long rttNanos) {
+		if (rttNanos <= 0) {
+			return;
+		}
+
+		RttBaseline baseline = baselines.get(endpoint);
+		if (baseline == null) {
+			baseline = new RttBaseline();
+			baselines.put(endpoint, baseline);
+		}
+		long minRttNanos = baseline.sample(rttNanos);
+
+		double step = Math.max(1, Math.log10(limit));
+		double queue = limit * (1 - (double) minRttNanos / rttNanos);
+		if (queue <= 3 * step) {
+			if (inFlight * 2 >= limit) {
+				limit = Math.min(maxLimit, limit + step);
+			}
+		} else if (queue >= 6 * step) {
+			limit = Math.max(minLimit, limit - step);
+		}
+	}
+
+	/**
+	 * The lowest response time of one endpoint, over the current and the previous window of
+	 * samples.
+	 */
+	private static final class RttBaseline {
+
+		private long minRttNanos = Long.MAX_VALUE;
+		private long windowMinRttNanos = Long.MAX_VALUE;
+		private int windowSamples;
+
+		long sample(long rttNanos) {
+			minRttNanos = Math.min(minRttNanos, rttNanos);
+			windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+			if (++windowSamples >= RTT_WINDOW_SAMPLES) {
+				// Forget old minimums so the baseline follows lasting changes in latency
+				minRttNanos = windowMinRttNanos;
+				windowMinRttNanos = Long.MAX_VALUE;
+				windowSamples = 0;
+			}
+
+			return minRttNanos;
+		}
+	}
+
+	private static final class Waiter extends CompletableFuture<Permit> {
+
+		private final String endpoint;
+
+		Waiter(String endpoint) {
+			this.endpoint = endpoint;
+		}
+	}
+
+	/**
+	 * Permission to make one call. It must be released exactly once, with the call's outcome.
+	 */
+	public final class Permit {
+
+		private final String endpoint;
+		private final long startNanos = System.nanoTime();
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit(String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		/**
+		 * Releases the permit; {@code failure} is null if the call succeeded.
+		 */
+		public void release(IOException failure) {
+			if (markReleased()) {
+				ConcurrencyLimiter.this.release(endpoint, System.nanoTime() - startNanos, failure,
+						!(failure instanceof CircuitOpenException));
+			}
+		}
+
+		/**
+		 * Releases the permit without counting an outcome, for a call that was never made.
+		 */
+		public void abandon() {
+			if (markReleased()) {
+				ConcurrencyLimiter.this.release(endpoint, 0, null, false);
+			}
+		}
+
+		private boolean markReleased() {
+			return released.compareAndSet(false, true);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.HttpRequest;
+import com.paypal.http.internal.PathTemplate;
+import com.paypal.http.metrics.LatencyHistogram;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opts an {@link com.paypal.http.HttpClient} into hedged requests: when an idempotent call has
+ * not received a response within the delay, an identical request is sent on another connection.
+ * Whichever response arrives first is used and the other request is cancelled.
+ *
+ * The delay is the {@link #percentile} of recent response times of the same endpoint (verb and
+ * {@link PathTemplate}), bounded by {@link #delayBounds}. Until an endpoint has
+ * {@link #minSamples} responses the upper bound is used. A {@link RetryBudget} caps the extra
+ * load; by default at most about 10% of calls are hedged.
+ *
+ * <pre>
+ * <code>
+ * client.setHedgePolicy(new HedgePolicy().percentile(99));
+ * </code>
+ * </pre>
+ */
+public class HedgePolicy {
+
+	public static final double DEFAULT_PERCENTILE = 95;
+	public static final int DEFAULT_MIN_SAMPLES = 50;
+	public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+	private Set<String> verbs = new HashSet<>(Arrays.asList("GET", "HEAD"));
+	private double percentile = DEFAULT_PERCENTILE;
+	private long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(5);
+	private long maxDelayNanos = TimeUnit.SECONDS.toNanos(1);
+	private int minSamples = DEFAULT_MIN_SAMPLES;
+	private int windowSize = DEFAULT_WINDOW_SIZE;
+	private RetryBudget budget = new RetryBudget(10, 0.1);
+	private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+	public HedgePolicy verbs(String... verbs) {
+		this.verbs = new HashSet<>();
+		for (String verb : verbs) {
+			this.verbs.add(verb.toUpperCase());
+		}
+		return this;
+	}
+
+	/**
+	 * The response time percentile after which a request is hedged, e.g. 95 to hedge the slowest
+	 * 5% of calls.
+	 */
+	public HedgePolicy percentile(double percentile) {
+		if (percentile <= 0 || percentile >= 100) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		}
+
+		this.percentile = percentile;
+		return this;
+	}
+
+	public HedgePolicy delayBounds(long min, long max, TimeUnit unit) {
+		if (min < 0 || max < min) {
+			throw new IllegalArgumentException("delayBounds requires 0 <= min <= max");
+		}
+
+		this.minDelayNanos = unit.toNanos(min);
+		this.maxDelayNanos = unit.toNanos(max);
+		return this;
+	}
+
+	/**
+	 * The number of responses an endpoint needs before its percentile is trusted.
+	 */
+	public HedgePolicy minSamples(int minSamples) {
+		this.minSamples = minSamples;
+		return this;
+	}
+
+	/**
+	 * Response times are kept for roughly the last {@code windowSize} calls per endpoint, so the
+	 * delay follows changes in latency.
+	 */
+	public HedgePolicy windowSize(int windowSize) {
+		if (windowSize < 1) {
+			throw new IllegalArgumentException("windowSize must be at least 1");
+		}
+
+		this.windowSize = windowSize;
+		return this;
+	}
+
+	/**
+	 * Limits the rate of hedges, or null for no limit.
+	 */
+	public HedgePolicy budget(RetryBudget budget) {
+		this.budget = budget;
+		return this;
+	}
+
+	/**
+	 * The delay in nanoseconds after which the request should be hedged, or -1 if it must not be.
+	 */
+	public long hedgeDelayNanos(HttpRequest<?> request) {
+		if (request.verb() == null || !verbs.contains(request.verb().toUpperCase())) {
+			return -1;
+		}
+
+		Window window = windows.get(key(request));
+		LatencyHistogram samples = window == null ? null : window.samples(minSamples);
+		if (samples == null) {
+			return maxDelayNanos;
+		}
+
+		return Math.max(minDelayNanos, Math.min(maxDelayNanos, samples.percentile(percentile)));
+	}
+
+	/**
+	 * Withdraws from the budget for one hedge, returning false if it is exhausted.
+	 */
+	public boolean tryHedge() {
+		return budget == null || budget.tryAcquire();
+	}
+
+	/**
+	 * Records the time a hedgeable call took to get its first response.
+	 */
+	public void record(HttpRequest<?> request, long responseNanos) {
+		if (budget != null) {
+			budget.recordCall();
+		}
+
+		String key = key(request);
+		Window window = windows.get(key);
+		if (window == null) {
+			window = windows.computeIfAbsent(key, k -> new Window());
+		}
+		window.record(responseNanos, windowSize);
+	}
+
+	private static String key(HttpRequest<?> request) {
+		return request.verb().toUpperCase() + " " + PathTemplate.of(request.path());
+	}
+
+	/**
+	 * Two histograms in rotation: once the current one holds {@code windowSize} samples it
+	 * replaces the previous one and a fresh one starts.
+	 */
+	private static final class Window {
+
+		private volatile LatencyHistogram current = new LatencyHistogram();
+		private volatile LatencyHistogram previous;
+
+		void record(long nanos, int windowSize) {
+			LatencyHistogram histogram = current;
+			histogram.record(nanos);
+			if (histogram.count() >= windowSize) {
+				rotate(histogram);
+			}
+		}
+
+		LatencyHistogram samples(int minSamples) {
+			LatencyHistogram histogram = current;
+			if (histogram.count() >= minSamples) {
+				return histogram;
+			}
+
+			histogram = previous;
+			return histogram != null && histogram.count() >= minSamples ? histogram : null;
+		}
+
+		private synchronized void rotate(LatencyHistogram full) {
+			if (current == full) {
+				previous = full;
+				current = new LatencyHistogram();
+			}
+		}
+	}
+}
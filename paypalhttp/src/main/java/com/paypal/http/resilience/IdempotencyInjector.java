@@ -0,0 +1,46 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.HttpRequest;
+import com.paypal.http.Injector;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sets a {@code PayPal-Request-Id} header on POST and PATCH requests that don't already carry
+ * one, using {@link HttpRequest#idempotencyKey()}. Every call gets a new key that all of its
+ * retries share, so the server processes each call at most once, which lets a {@link RetryPolicy}
+ * retry it safely. Set the header yourself to have several calls share a key.
+ *
+ * <pre>
+ * <code>
+ * client.addInjector(new IdempotencyInjector());
+ * client.setRetryPolicy(new RetryPolicy());
+ * </code>
+ * </pre>
+ */
+public class IdempotencyInjector implements Injector {
+
+	public static final String PAYPAL_REQUEST_ID = "PayPal-Request-Id";
+
+	private final Set<String> verbs;
+
+	public IdempotencyInjector() {
+		this("POST", "PATCH");
+	}
+
+	public IdempotencyInjector(String... verbs) {
+		this.verbs = new HashSet<>();
+		for (String verb : verbs) {
+			this.verbs.add(verb.toUpperCase());
+		}
+	}
+
+	@Override
+	public void inject(HttpRequest request) {
+		if (request.verb() != null && verbs.contains(request.verb().toUpperCase())) {
+			request.headers().headerIfNotPresent(PAYPAL_REQUEST_ID, request.idempotencyKey());
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.exceptions.LimitExceededException;
+import com.paypal.http.internal.PathTemplate;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Smooths the requests of an {@link com.paypal.http.HttpClient} to a steady rate with one token
+ * bucket per route: the environment's base url and the request's {@link PathTemplate}. Calls
+ * beyond the rate are delayed until their token is due, and fail with a
+ * {@link LimitExceededException} if that is further away than {@link #maxWait}.
+ *
+ * A 429 response halves the route's rate and, if it carries a {@code Retry-After} header, holds
+ * every call to the route until then. Each successful call then gives back 5% of the configured
+ * rate until it is reached again.
+ *
+ * <pre>
+ * <code>
+ * client.setRateLimiter(new RateLimiter(50)
+ *     .route("/v1/reporting/transactions", 5)
+ *     .maxWait(30, TimeUnit.SECONDS));
+ * </code>
+ * </pre>
+ */
+public class RateLimiter {
+
+	private static final double MIN_RATE_RATIO = 0.05;
+	private static final double RECOVERY_RATIO = 0.05;
+
+	private final double permitsPerSecond;
+	private final Map<String, Double> routeRates = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+	private volatile double burstSeconds = 1;
+	private volatile long maxWaitNanos = TimeUnit.SECONDS.toNanos(10);
+
+	/**
+	 * @param permitsPerSecond the rate of each route without a rate of its own
+	 */
+	public RateLimiter(double permitsPerSecond) {
+		this.permitsPerSecond = checkRate(permitsPerSecond);
+	}
+
+	/**
+	 * Sets the rate of the routes with the given path template, e.g. {@code /v2/checkout/orders/{id}}.
+	 */
+	public RateLimiter route(String pathTemplate, double permitsPerSecond) {
+		routeRates.put(pathTemplate, checkRate(permitsPerSecond));
+		return this;
+	}
+
+	/**
+	 * How many seconds' worth of unused tokens a route may save up and spend in a burst.
+	 */
+	public RateLimiter burst(double seconds) {
+		if (seconds <= 0) {
+			throw new IllegalArgumentException("burst must be positive");
+		}
+
+		this.burstSeconds = seconds;
+		return this;
+	}
+
+	public RateLimiter maxWait(long maxWait, TimeUnit unit) {
+		this.maxWaitNanos = unit.toNanos(maxWait);
+		return this;
+	}
+
+	/**
+	 * The bucket for a path under a base url, created on first use.
+	 */
+	public Bucket bucket(String baseUrl, String path) {
+		String template = PathTemplate.of(path);
+		String name = baseUrl + template;
+		Bucket bucket = buckets.get(name);
+		if (bucket == null) {
+			bucket = buckets.computeIfAbsent(name, key -> new Bucket(key, routeRates.getOrDefault(template, permitsPerSecond)));
+		}
+
+		return bucket;
+	}
+
+	public Collection<Bucket> buckets() {
+		return Collections.unmodifiableCollection(buckets.values());
+	}
+
+	/**
+	 * Whether a failure means the server is rate limiting the client.
+	 */
+	protected boolean isThrottled(IOException failure) {
+		return failure instanceof HttpException && ((HttpException) failure).statusCode() == 429;
+	}
+
+	private static double checkRate(double permitsPerSecond) {
+		if (!(permitsPerSecond > 0)) {
+			throw new IllegalArgumentException("permitsPerSecond must be positive");
+		}
+
+		return permitsPerSecond;
+	}
+
+	/**
+	 * A token bucket kept as the time its next token is due (GCRA), so taking a token is a single
+	 * compare-and-set.
+	 */
+	public final class Bucket {
+
+		private final String name;
+		private final double configuredRate;
+		private volatile double rate;
+		private final AtomicLong nextTokenNanos;
+
+		Bucket(String name, double rate) {
+			this.name = name;
+			this.configuredRate = rate;
+			this.rate = rate;
+			this.nextTokenNanos = new AtomicLong(System.nanoTime() - burstNanos(rate));
+		}
+
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * The current rate in permits per second, lower than configured after 429 responses.
+		 */
+		public double rate() {
+			return rate;
+		}
+
+		/**
+		 * The tokens available right now; negative when calls are waiting for tokens.
+		 */
+		public double tokens() {
+			double rate = this.rate;
+			long now = System.nanoTime();
+			return Math.min(rate * burstSeconds, (now - nextTokenNanos.get()) * rate / TimeUnit.SECONDS.toNanos(1) + 1);
+		}
+
+		/**
+		 * Takes a token, returning the nanoseconds to wait before the call may be made.
+		 */
+		public long reserve() throws LimitExceededException {
+			long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+			long burst = burstNanos(rate);
+			long maxWait = maxWaitNanos;
+
+			long now = System.nanoTime();
+			for (;;) {
+				long current = nextTokenNanos.get();
+				long next = Math.max(current, now - burst);
+				long wait = next - now;
+				if (wait > maxWait) {
+					throw new LimitExceededException(String.format("Rate limit for %s would delay the call by %d ms",
+							name, TimeUnit.NANOSECONDS.toMillis(wait)));
+				}
+
+				if (nextTokenNanos.compareAndSet(current, next + interval)) {
+					return Math.max(0, wait);
+				}
+			}
+		}
+
+		/**
+		 * Adapts the rate to the outcome of a call; {@code failure} is null if it succeeded. Only
+		 * successes recover a rate lowered by 429s.
+		 */
+		public void record(IOException failure) {
+			if (failure != null && isThrottled(failure)) {
+				rate = Math.max(configuredRate * MIN_RATE_RATIO, rate / 2);
+
+				long retryAfter = RetryPolicy.retryAfterMillis(((HttpException) failure).headers().header("Retry-After"));
+				if (retryAfter > 0) {
+					long resume = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfter);
+					nextTokenNanos.accumulateAndGet(resume, Math::max);
+				}
+			} else if (failure == null && rate < configuredRate) {
+				rate = Math.min(configuredRate, rate + configuredRate * RECOVERY_RATIO);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %.1f/s, %.1f tokens", name, rate, tokens());
+		}
+
+		/**
+		 * How far the next token may lag behind the clock, i.e. the time to earn all but one of a
+		 * full bucket of tokens.
+		 */
+		private long burstNanos(double rate) {
+			return Math.max(0, (long) (burstSeconds * TimeUnit.SECONDS.toNanos(1)) - (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.paypal.http.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that caps retries across every request sharing it, so that a struggling backend
+ * is not hit with a retry storm on top of its normal traffic.
+ *
+ * Each call deposits {@code retryRatio} tokens and each retry withdraws one, so retries settle at
+ * no more than {@code retryRatio} of the request rate once the initial {@code maxTokens} burst has
+ * been spent. Updates are lock-free.
+ */
+public class RetryBudget {
+
+	private static final long SCALE = 1000;
+
+	private final long capacity;
+	private final long deposit;
+	private final AtomicLong tokens;
+
+	/**
+	 * @param maxTokens  the most retries that can be made in a burst
+	 * @param retryRatio the fraction of calls that may be retried in the long run, e.g. 0.2
+	 */
+	public RetryBudget(int maxTokens, double retryRatio) {
+		if (maxTokens < 0) {
+			throw new IllegalArgumentException("maxTokens must not be negative");
+		}
+		if (retryRatio < 0) {
+			throw new IllegalArgumentException("retryRatio must not be negative");
+		}
+
+		this.capacity = maxTokens * SCALE;
+		this.deposit = Math.round(retryRatio * SCALE);
+		this.tokens = new AtomicLong(capacity);
+	}
+
+	/**
+	 * Records a call, earning a fraction of a retry.
+	 */
+	public void recordCall() {
+		long current;
+		do {
+			current = tokens.get();
+			if (current >= capacity) {
+				return;
+			}
+		} while (!tokens.compareAndSet(current, Math.min(capacity, current + deposit)));
+	}
+
+	/**
+	 * Withdraws a token for one retry, returning false if the budget is exhausted.
+	 */
+	public boolean tryAcquire() {
+		long current;
+		do {
+			current = tokens.get();
+			if (current < SCALE) {
+				return false;
+			}
+		} while (!tokens.compareAndSet(current, current - SCALE));
+
+		return true;
+	}
+
+	/**
+	 * The number of whole retries currently available.
+	 */
+	public long available() {
+		return tokens.get() / SCALE;
+	}
+}
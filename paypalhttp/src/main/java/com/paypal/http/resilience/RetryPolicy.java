@@ -0,0 +1,229 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.HttpRequest;
+import com.paypal.http.exceptions.CircuitOpenException;
+import com.paypal.http.exceptions.HttpException;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a failed call should be retried and how long to wait first.
+ *
+ * A failure is retried when the verb is retriable, and it is either an
+ * {@link HttpException} with a retriable status code or an instance of a retriable exception
+ * class, and the {@link RetryBudget} still has a token. The wait is exponential backoff with full
+ * jitter, unless the response carried a {@code Retry-After} header, which is honoured up to
+ * {@link #maxRetryAfter}.
+ *
+ * The defaults retry GET, HEAD, OPTIONS, PUT and DELETE up to 3 attempts on 429, 502, 503, 504,
+ * timeouts and connection errors. Requests of any other verb are also retried when they carry an
+ * idempotency key header, see {@link IdempotencyInjector}.
+ *
+ * <pre>
+ * <code>
+ * client.setRetryPolicy(new RetryPolicy()
+ *     .maxAttempts(4)
+ *     .backoff(200, 2000, TimeUnit.MILLISECONDS));
+ * </code>
+ * </pre>
+ */
+public class RetryPolicy {
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final long DEFAULT_BASE_DELAY_MILLIS = 100;
+	public static final long DEFAULT_MAX_DELAY_MILLIS = 5000;
+	public static final long DEFAULT_MAX_RETRY_AFTER_MILLIS = 30000;
+
+	private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+	private long baseDelayMillis = DEFAULT_BASE_DELAY_MILLIS;
+	private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+	private long maxRetryAfterMillis = DEFAULT_MAX_RETRY_AFTER_MILLIS;
+	private Set<String> verbs = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+	private Set<Integer> statusCodes = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+	private List<Class<? extends IOException>> exceptions = Arrays.asList(SocketException.class, SocketTimeoutException.class);
+	private String idempotencyHeader = IdempotencyInjector.PAYPAL_REQUEST_ID;
+	private RetryBudget budget = new RetryBudget(100, 0.2);
+
+	/**
+	 * The total number of attempts, including the first.
+	 */
+	public RetryPolicy maxAttempts(int maxAttempts) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("maxAttempts must be at least 1");
+		}
+
+		this.maxAttempts = maxAttempts;
+		return this;
+	}
+
+	/**
+	 * The backoff before retry {@code n} is a random delay of up to {@code base * 2^(n-1)}, capped
+	 * at {@code max}.
+	 */
+	public RetryPolicy backoff(long base, long max, TimeUnit unit) {
+		if (base < 0 || max < base) {
+			throw new IllegalArgumentException("backoff requires 0 <= base <= max");
+		}
+
+		this.baseDelayMillis = unit.toMillis(base);
+		this.maxDelayMillis = unit.toMillis(max);
+		return this;
+	}
+
+	/**
+	 * The longest {@code Retry-After} that will be waited for; longer ones fail immediately.
+	 */
+	public RetryPolicy maxRetryAfter(long maxRetryAfter, TimeUnit unit) {
+		this.maxRetryAfterMillis = unit.toMillis(maxRetryAfter);
+		return this;
+	}
+
+	public RetryPolicy verbs(String... verbs) {
+		this.verbs = new HashSet<>();
+		for (String verb : verbs) {
+			this.verbs.add(verb.toUpperCase());
+		}
+		return this;
+	}
+
+	public RetryPolicy statusCodes(Integer... statusCodes) {
+		this.statusCodes = new HashSet<>(Arrays.asList(statusCodes));
+		return this;
+	}
+
+	@SafeVarargs
+	public final RetryPolicy exceptions(Class<? extends IOException>... exceptions) {
+		this.exceptions = Arrays.asList(exceptions);
+		return this;
+	}
+
+	/**
+	 * The header whose presence makes a request safe to retry whatever its verb, or null to only
+	 * retry by verb.
+	 */
+	public RetryPolicy idempotencyHeader(String idempotencyHeader) {
+		this.idempotencyHeader = idempotencyHeader;
+		return this;
+	}
+
+	/**
+	 * The budget shared by every call using this policy, or null for no budget.
+	 */
+	public RetryPolicy budget(RetryBudget budget) {
+		this.budget = budget;
+		return this;
+	}
+
+	public int maxAttempts() {
+		return maxAttempts;
+	}
+
+	public RetryBudget budget() {
+		return budget;
+	}
+
+	/**
+	 * Called once for every call made under this policy, to fund the {@link RetryBudget}.
+	 */
+	public void recordCall() {
+		if (budget != null) {
+			budget.recordCall();
+		}
+	}
+
+	/**
+	 * The number of milliseconds to wait before retrying a call that has failed after
+	 * {@code attempts} attempts, or -1 if it should not be retried.
+	 */
+	public long retryDelayMillis(HttpRequest<?> request, IOException failure, int attempts) {
+		if (attempts >= maxAttempts || !isRetriable(request) || !isRetriable(failure)) {
+			return -1;
+		}
+
+		long delay = backoffMillis(attempts);
+		if (failure instanceof HttpException) {
+			long retryAfter = retryAfterMillis(((HttpException) failure).headers().header("Retry-After"));
+			if (retryAfter > maxRetryAfterMillis) {
+				return -1;
+			}
+			if (retryAfter >= 0) {
+				delay = retryAfter;
+			}
+		}
+
+		if (budget != null && !budget.tryAcquire()) {
+			return -1;
+		}
+
+		return delay;
+	}
+
+	protected boolean isRetriable(HttpRequest<?> request) {
+		if (request.verb() != null && verbs.contains(request.verb().toUpperCase())) {
+			return true;
+		}
+
+		return idempotencyHeader != null && request.headers().header(idempotencyHeader) != null;
+	}
+
+	protected boolean isRetriable(IOException failure) {
+		if (failure instanceof CircuitOpenException) {
+			return false;
+		}
+
+		if (failure instanceof HttpException) {
+			return statusCodes.contains(((HttpException) failure).statusCode());
+		}
+
+		for (Class<? extends IOException> type : exceptions) {
+			if (type.isInstance(failure)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private long backoffMillis(int attempts) {
+		long ceiling = baseDelayMillis << Math.min(attempts - 1, 30);
+		if (ceiling <= 0 || ceiling > maxDelayMillis) {
+			ceiling = maxDelayMillis;
+		}
+
+		return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	/**
+	 * Parses a {@code Retry-After} value given either as delay-seconds or an HTTP-date, returning
+	 * -1 if it is absent or malformed.
+	 */
+	static long retryAfterMillis(String retryAfter) {
+		if (retryAfter == null || retryAfter.trim().isEmpty()) {
+			return -1;
+		}
+
+		retryAfter = retryAfter.trim();
+		try {
+			return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)));
+		} catch (NumberFormatException ignored) {}
+
+		try {
+			ZonedDateTime date = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+			return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+		} catch (DateTimeParseException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.paypal.http.resilience;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts calls, failures and slow calls over the last {@code buckets * bucketNanos} nanoseconds
+ * in a ring of time buckets updated with atomic operations. A bucket is reset by the first
+ * recorder to reach it in a new period, so a few counts racing with the reset may be lost.
+ */
+final class SlidingWindow {
+
+	static final int CALLS = 0;
+	static final int FAILURES = 1;
+	static final int SLOW = 2;
+
+	private static final long UNUSED = Long.MIN_VALUE;
+
+	private final int buckets;
+	private final long bucketNanos;
+	private final AtomicLongArray epochs;
+	private final AtomicLongArray counts;
+
+	SlidingWindow(int buckets, long windowNanos) {
+		this.buckets = buckets;
+		this.bucketNanos = Math.max(1, windowNanos / buckets);
+		this.epochs = new AtomicLongArray(buckets);
+		this.counts = new AtomicLongArray(buckets * 3);
+		reset();
+	}
+
+	void record(long nowNanos, boolean failure, boolean slow) {
+		long epoch = Math.floorDiv(nowNanos, bucketNanos);
+		int bucket = (int) Math.floorMod(epoch, (long) buckets);
+
+		long current = epochs.get(bucket);
+		if (current != epoch && epochs.compareAndSet(bucket, current, epoch)) {
+			counts.set(bucket * 3 + CALLS, 0);
+			counts.set(bucket * 3 + FAILURES, 0);
+			counts.set(bucket * 3 + SLOW, 0);
+		}
+
+		counts.incrementAndGet(bucket * 3 + CALLS);
+		if (failure) {
+			counts.incrementAndGet(bucket * 3 + FAILURES);
+		}
+		if (slow) {
+			counts.incrementAndGet(bucket * 3 + SLOW);
+		}
+	}
+
+	/**
+	 * The calls, failures and slow calls within the window, indexed by {@link #CALLS},
+	 * {@link #FAILURES} and {@link #SLOW}.
+	 */
+	long[] totals(long nowNanos) {
+		long oldest = Math.floorDiv(nowNanos, bucketNanos) - buckets;
+		long[] totals = new long[3];
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			if (epochs.get(bucket) > oldest) {
+				totals[CALLS] += counts.get(bucket * 3 + CALLS);
+				totals[FAILURES] += counts.get(bucket * 3 + FAILURES);
+				totals[SLOW] += counts.get(bucket * 3 + SLOW);
+			}
+		}
+
+		return totals;
+	}
+
+	void reset() {
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			epochs.set(bucket, UNUSED);
+		}
+	}
+}
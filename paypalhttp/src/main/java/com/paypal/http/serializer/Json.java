@@ -6,18 +6,71 @@ import com.paypal.http.annotations.ListOf;
 import com.paypal.http.exceptions.MalformedJsonException;
 import com.paypal.http.exceptions.SerializeException;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.util.*;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 public class Json implements Serializer {
 
+    private static final Gson DEFAULT_GSON = new GsonBuilder().create();
+    private static final Gson DEFAULT_VALUE_GSON = valueGson(DEFAULT_GSON);
+
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>(){}.getType();
+    private static final Type LIST_TYPE = new TypeToken<List<Object>>(){}.getType();
+    private static final Type LIST_OF_MAPS_TYPE = new TypeToken<List<Map<String, Object>>>(){}.getType();
+
+    private final Gson gson;
+    private final Gson valueGson;
+    private final boolean streamingBinding;
+
+    /**
+     * Creates a serializer backed by a shared, default-configured {@link Gson}.
+     */
+    public Json() {
+        this.gson = DEFAULT_GSON;
+        this.valueGson = DEFAULT_VALUE_GSON;
+        this.streamingBinding = true;
+    }
+
+    /**
+     * Creates a serializer backed by a custom {@link Gson}. Gson instances are thread-safe, so a
+     * single instance should be shared rather than created per request.
+     */
+    public Json(Gson gson) {
+        this(gson, true);
+    }
+
+    /**
+     * @param streamingBinding when true, models are read and written field-by-field straight from
+     *                         the Json stream. When false, they are converted through an
+     *                         intermediate {@code Map<String, Object>} with {@link ObjectMapper}.
+     */
+    public Json(Gson gson, boolean streamingBinding) {
+        this.gson = gson;
+        this.valueGson = valueGson(gson);
+        this.streamingBinding = streamingBinding;
+    }
+
+    private static Gson valueGson(Gson gson) {
+        return gson.newBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).create();
+    }
+
     @Override
     public String contentType() {
         return "^application\\/json";
@@ -41,14 +94,29 @@ public class Json implements Serializer {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T decode(String source, Class<T> cls) throws IOException {
-        Gson gson = new GsonBuilder().create();
+        return decode(new StringReader(source), cls);
+    }
+
+    /**
+     * Parses the body directly from the stream, without first buffering it into a String.
+     */
+    @Override
+    public <T> T decode(InputStream source, Charset charset, Class<T> cls) throws IOException {
+        return decode(new InputStreamReader(source, charset), cls);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T decode(Reader source, Class<T> cls) throws IOException {
+        if (streamingBinding && !hasAncestor(cls, Map.class)
+                && (!hasAncestor(cls, List.class) || cls.getAnnotation(ListOf.class) != null)) {
+            return bind(source, cls);
+        }
 
         if (hasAncestor(cls, List.class) && cls.getAnnotation(ListOf.class) != null) {
             ListOf listOf = cls.getAnnotation(ListOf.class);
 
-            List<Map<String, Object>> deserialized = gson.fromJson(source, new TypeToken<List<Map<String, Object>>>(){}.getType());
+            List<Map<String, Object>> deserialized = fromJson(source, LIST_OF_MAPS_TYPE);
             try {
                 T outlist = cls.getDeclaredConstructor().newInstance();
                 for (Map<String, Object> map : deserialized) {
@@ -60,18 +128,51 @@ public class Json implements Serializer {
                 throw new UnsupportedEncodingException("Could not instantiate type " + cls.getSimpleName());
             }
         } else if (hasAncestor(cls, List.class) || hasAncestor(cls, Map.class)) {
-            try {
-                return gson.fromJson(source, cls);
-            } catch (com.google.gson.JsonSyntaxException e) {
-                throw new MalformedJsonException("Malformed Json " + e.getMessage());
-            }
+            return fromJson(source, cls);
         } else {
-            try {
-                Map<String, Object> deserialized = gson.fromJson(source, new TypeToken<Map<String, Object>>(){}.getType());
-                return unmap(deserialized, cls);
-            } catch (com.google.gson.JsonSyntaxException e) {
-                throw new MalformedJsonException("Malformed Json " + e.getMessage());
+            Map<String, Object> deserialized = fromJson(source, MAP_TYPE);
+            return unmap(deserialized, cls);
+        }
+    }
+
+    private <T> T fromJson(Reader source, Type type) throws IOException {
+        try {
+            return gson.fromJson(source, type);
+        } catch (com.google.gson.JsonIOException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getMessage());
+        } catch (com.google.gson.JsonSyntaxException e) {
+            throw new MalformedJsonException("Malformed Json " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T bind(Reader source, Class<T> cls) throws IOException {
+        JsonReader reader = gson.newJsonReader(source);
+        reader.setLenient(true);
+
+        try {
+            T result;
+            ListOf listOf = cls.getAnnotation(ListOf.class);
+            if (listOf != null) {
+                try {
+                    result = cls.getDeclaredConstructor().newInstance();
+                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+                    throw new UnsupportedEncodingException("Could not instantiate type " + cls.getSimpleName());
+                }
+                ModelBinder.readElements(reader, (List) result, listOf.listClass());
+            } else {
+                result = ModelBinder.read(reader, cls);
             }
+
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new MalformedJsonException("Malformed Json: document was not fully consumed");
+            }
+
+            return result;
+        } catch (com.google.gson.stream.MalformedJsonException | EOFException e) {
+            throw new MalformedJsonException("Malformed Json " + e.getMessage());
+        } catch (RuntimeException re) {
+            throw new MalformedJsonException("Unable to parse Json " + re.getMessage());
         }
     }
 
@@ -91,10 +192,17 @@ public class Json implements Serializer {
     }
 
     public String serialize(Object o) throws SerializeException {
-        Gson gson = new Gson();
         if (ObjectMapper.isModel(o)) {
             try {
+                if (streamingBinding) {
+                    StringWriter writer = new StringWriter();
+                    ModelBinder.write(gson.newJsonWriter(writer), o);
+                    return writer.toString();
+                }
+
                 return gson.toJson(ObjectMapper.map(o));
+            } catch (IOException e) {
+                throw new SerializeException(e.getMessage());
             } catch (IllegalAccessException e) {
                 throw new SerializeException(e.getMessage());
             }
@@ -105,13 +213,12 @@ public class Json implements Serializer {
 
     @SuppressWarnings("unchecked")
     private String jsonValueStringFor(Object obj) throws SerializeException {
-        Gson gson = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).create();
         if (obj == null || obj instanceof String || obj instanceof Number || obj instanceof Boolean ) {
-            return gson.toJson(obj);
+            return valueGson.toJson(obj);
         } else if (obj instanceof Object[] || obj instanceof Collection ){
-            return gson.toJson(obj, new TypeToken<List<Object>>(){}.getType());
+            return valueGson.toJson(obj, LIST_TYPE);
         } else if (obj instanceof Map) {
-            return gson.toJson(obj, new TypeToken<Map<String, Object>>(){}.getType());
+            return valueGson.toJson(obj, MAP_TYPE);
         } else if (ObjectMapper.isModel(obj)) {
             return serialize(obj);
         } else {
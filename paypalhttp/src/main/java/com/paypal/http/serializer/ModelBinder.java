@@ -0,0 +1,180 @@
+package com.paypal.http.serializer;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds objects directly to and from Gson's {@link JsonReader} and {@link JsonWriter} using
+ * {@link ModelDescriptor}s. It follows the same rules as {@link ObjectMapper#map} and
+ * {@link ObjectMapper#unmap}, but never builds the intermediate {@code Map<String, Object>} tree.
+ */
+final class ModelBinder {
+
+	private ModelBinder() {}
+
+	static void write(JsonWriter out, Object model) throws IOException, IllegalAccessException {
+		out.beginObject();
+		for (ModelDescriptor.Property property : ModelDescriptor.of(model.getClass()).serializedProperties()) {
+			Object value = property.get(model);
+			if (value == null) {
+				continue;
+			}
+
+			out.name(property.name);
+			if (value instanceof List) {
+				out.beginArray();
+				for (Object element : (List) value) {
+					writeValue(out, element);
+				}
+				out.endArray();
+			} else {
+				writeValue(out, value);
+			}
+		}
+		out.endObject();
+	}
+
+	static <T> T read(JsonReader in, Class<T> cls) throws IOException {
+		ModelDescriptor descriptor = ModelDescriptor.of(cls);
+		T instance = newInstance(descriptor, cls);
+
+		in.beginObject();
+		while (in.hasNext()) {
+			ModelDescriptor.Property property = descriptor.property(in.nextName());
+			if (property == null || in.peek() == JsonToken.NULL) {
+				in.skipValue();
+				continue;
+			}
+
+			Object value;
+			switch (in.peek()) {
+				case BEGIN_ARRAY:
+					value = readList(in, property);
+					break;
+				case BEGIN_OBJECT:
+					value = read(in, property.type);
+					break;
+				default:
+					value = readPrimitive(in, property.type);
+			}
+
+			try {
+				property.set(instance, value);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		in.endObject();
+
+		return instance;
+	}
+
+	static <T> void readElements(JsonReader in, List<T> target, Class<T> elementClass) throws IOException {
+		in.beginArray();
+		while (in.hasNext()) {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				target.add(null);
+			} else {
+				target.add(read(in, elementClass));
+			}
+		}
+		in.endArray();
+	}
+
+	private static void writeValue(JsonWriter out, Object value) throws IOException, IllegalAccessException {
+		if (value == null) {
+			out.nullValue();
+		} else if (value instanceof Number) {
+			out.value((Number) value);
+		} else if (value instanceof Boolean) {
+			out.value((Boolean) value);
+		} else if (value instanceof String || value instanceof Character) {
+			out.value(value.toString());
+		} else {
+			write(out, value);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> readList(JsonReader in, ModelDescriptor.Property property) throws IOException {
+		Class listClass = property.listClass;
+		if (listClass.equals(Void.class)) {
+			throw new UnsupportedEncodingException("Generated array properties must set the listClass property on SerializedName");
+		}
+
+		List<Object> list = new ArrayList<>();
+		if (!property.primitiveList) {
+			readElements(in, list, listClass);
+			return list;
+		}
+
+		in.beginArray();
+		while (in.hasNext()) {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				list.add(null);
+			} else {
+				list.add(listClass.cast(readPrimitive(in, listClass)));
+			}
+		}
+		in.endArray();
+
+		return list;
+	}
+
+	private static Object readPrimitive(JsonReader in, Class<?> type) throws IOException {
+		switch (in.peek()) {
+			case NUMBER:
+				return readNumber(in.nextString(), type);
+			case BOOLEAN:
+				return in.nextBoolean();
+			case STRING:
+				return in.nextString();
+			default:
+				throw new IllegalStateException("Expected a primitive value but was " + in.peek() + " at " + in.getPath());
+		}
+	}
+
+	/**
+	 * Parses a number literal straight into the declared type, so that integers beyond 2^53 and
+	 * decimals keep every digit. Numbers of any other type are read as a Double.
+	 */
+	private static Object readNumber(String literal, Class<?> type) {
+		if (type.equals(BigDecimal.class)) {
+			return new BigDecimal(literal);
+		} else if (type.equals(BigInteger.class)) {
+			return new BigDecimal(literal).toBigInteger();
+		} else if (type.equals(Float.class)) {
+			return Float.parseFloat(literal);
+		} else if (type.equals(Double.class) || !ObjectMapper.isNumeric(type)) {
+			return Double.parseDouble(literal);
+		}
+
+		long number;
+		try {
+			number = Long.parseLong(literal);
+		} catch (NumberFormatException e) {
+			// e.g. 1.0 or 1e3 for an integral field
+			number = new BigDecimal(literal).longValue();
+		}
+		return ObjectMapper.numericCast(type, number);
+	}
+
+	private static <T> T newInstance(ModelDescriptor descriptor, Class<T> cls) throws UnsupportedEncodingException {
+		try {
+			return cls.cast(descriptor.newInstance());
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+			throw new UnsupportedEncodingException("Could not instantiate type " + cls.getSimpleName());
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package com.paypal.http.serializer;
+
+import com.paypal.http.annotations.Model;
+import com.paypal.http.annotations.SerializedName;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The reflective shape of a class as seen by {@link ObjectMapper}: its {@link SerializedName}
+ * fields keyed by Json name, and its no-arg constructor. Descriptors are computed once per class
+ * and cached, so mapping the same {@link Model} types repeatedly does no reflection lookups.
+ *
+ * Fields and constructors are accessed through {@link MethodHandle}s, falling back to plain
+ * reflection when a handle cannot be created. Access is checked once when a handle is created,
+ * not on every {@code Field.get} and {@code Field.set} call. The handles live in instance fields
+ * rather than static final ones, so the JIT does not treat them as constants or inline through
+ * them.
+ */
+final class ModelDescriptor {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final ClassValue<ModelDescriptor> CACHE = new ClassValue<ModelDescriptor>() {
+		@Override
+		protected ModelDescriptor computeValue(Class<?> type) {
+			return new ModelDescriptor(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final boolean model;
+	private final List<Property> serializedProperties;
+	private final Map<String, Property> propertiesByName;
+	private final Constructor<?> constructor;
+	private final MethodHandle constructorHandle;
+
+	private ModelDescriptor(Class<?> type) {
+		this.type = type;
+		this.model = type.getAnnotation(Model.class) != null;
+
+		List<Property> serialized = new ArrayList<>();
+		Map<String, Property> byName = new HashMap<>();
+		for (Field f : type.getDeclaredFields()) {
+			SerializedName sn = f.getAnnotation(SerializedName.class);
+			if (sn == null) {
+				continue;
+			}
+
+			f.setAccessible(true);
+			Property property = new Property(sn, f);
+			byName.putIfAbsent(property.name, property);
+			if (!Modifier.isTransient(f.getModifiers())) {
+				serialized.add(property);
+			}
+		}
+
+		this.serializedProperties = Collections.unmodifiableList(serialized);
+		this.propertiesByName = byName;
+		this.constructor = publicNoArgConstructor(type);
+		this.constructorHandle = constructorHandle(constructor);
+	}
+
+	static ModelDescriptor of(Class<?> type) {
+		return CACHE.get(type);
+	}
+
+	boolean isModel() {
+		return model;
+	}
+
+	/**
+	 * Properties written when serializing, in declaration order. Transient fields are excluded.
+	 */
+	List<Property> serializedProperties() {
+		return serializedProperties;
+	}
+
+	/**
+	 * The property for a Json key, or null if the class has no field with that name.
+	 */
+	Property property(String name) {
+		return propertiesByName.get(name);
+	}
+
+	Object newInstance() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+		if (constructor == null) {
+			throw new NoSuchMethodException(type.getName() + ".<init>()");
+		}
+
+		if (constructorHandle == null) {
+			return constructor.newInstance();
+		}
+
+		try {
+			return (Object) constructorHandle.invokeExact();
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	private static MethodHandle constructorHandle(Constructor<?> constructor) {
+		if (constructor == null || Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+			return null;
+		}
+
+		try {
+			return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+		} catch (IllegalAccessException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static Constructor<?> publicNoArgConstructor(Class<?> type) {
+		Constructor<?> constructor;
+		try {
+			constructor = type.getConstructor();
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+
+		try {
+			constructor.setAccessible(true);
+		} catch (RuntimeException ignored) {}
+
+		return constructor;
+	}
+
+	static final class Property {
+
+		final String name;
+		final Field field;
+		final Class<?> type;
+		final Class<?> listClass;
+		final boolean numeric;
+		final boolean primitiveList;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		private Property(SerializedName sn, Field field) {
+			this.name = sn.value();
+			this.field = field;
+			this.type = field.getType();
+			this.listClass = sn.listClass();
+			this.numeric = ObjectMapper.isNumeric(type);
+			this.primitiveList = ObjectMapper.isPrimitive(listClass);
+			this.getter = getter(field);
+			this.setter = setter(field);
+		}
+
+		Object get(Object instance) throws IllegalAccessException {
+			if (getter == null) {
+				return field.get(instance);
+			}
+
+			try {
+				return (Object) getter.invokeExact(instance);
+			} catch (Throwable t) {
+				throw unchecked(t);
+			}
+		}
+
+		void set(Object instance, Object value) throws IllegalAccessException {
+			if (setter == null) {
+				field.set(instance, value);
+				return;
+			}
+
+			try {
+				setter.invokeExact(instance, value);
+			} catch (Throwable t) {
+				throw unchecked(t);
+			}
+		}
+
+		private static MethodHandle getter(Field field) {
+			try {
+				return LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+			} catch (IllegalAccessException | RuntimeException e) {
+				return null;
+			}
+		}
+
+		private static MethodHandle setter(Field field) {
+			try {
+				return LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+			} catch (IllegalAccessException | RuntimeException e) {
+				return null;
+			}
+		}
+
+		private static RuntimeException unchecked(Throwable t) {
+			if (t instanceof Error) {
+				throw (Error) t;
+			}
+			if (t instanceof RuntimeException) {
+				return (RuntimeException) t;
+			}
+
+			return new IllegalStateException(t);
+		}
+	}
+}
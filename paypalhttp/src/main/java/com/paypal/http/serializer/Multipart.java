@@ -6,6 +6,7 @@ import com.paypal.http.HttpRequest;
 import com.paypal.http.exceptions.SerializeException;
 import com.paypal.http.multipart.FormData;
 import com.paypal.http.multipart.MultipartBody;
+import com.paypal.http.transport.RequestBody;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -13,6 +14,7 @@ import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 
 import static com.paypal.http.serializer.StreamUtils.writeOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class Multipart implements Serializer {
 
@@ -24,29 +26,30 @@ public class Multipart implements Serializer {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public byte[] encode(HttpRequest request) throws IOException {
-		if (!(request.requestBody() instanceof MultipartBody)) {
-			throw new SerializeException("Request requestBody must be MultipartBody when Content-Type is multipart/*");
-		} else {
-			String contentType = request.headers().header(Headers.CONTENT_TYPE);
-			String boundary = "boundary" + System.currentTimeMillis();
-			contentType = contentType + "; boundary=" + boundary;
-			request.header(Headers.CONTENT_TYPE, contentType); // Rewrite header with boundary
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		encodeBody(request).writeTo(os);
 
-			MultipartBody body = (MultipartBody) request.requestBody();
-			ByteArrayOutputStream os = new ByteArrayOutputStream();
+		return os.toByteArray();
+	}
 
-			for (FormData formData : body) {
-				writePart(os, formData, boundary);
-			}
+	/**
+	 * Rewrites the Content-Type header with a boundary immediately, and writes each part to the
+	 * connection as it is sent rather than buffering the whole body. The exact length is computed
+	 * up front so uploads can use a Content-Length.
+	 */
+	@Override
+	public RequestBody encodeBody(HttpRequest request) throws IOException {
+		if (!(request.requestBody() instanceof MultipartBody)) {
+			throw new SerializeException("Request requestBody must be MultipartBody when Content-Type is multipart/*");
+		}
 
-			writeOutputStream(os, "--" + boundary + "--");
-			writeOutputStream(os, CRLF);
-			writeOutputStream(os, CRLF);
+		String contentType = request.headers().header(Headers.CONTENT_TYPE);
+		String boundary = "boundary" + System.currentTimeMillis();
+		contentType = contentType + "; boundary=" + boundary;
+		request.header(Headers.CONTENT_TYPE, contentType); // Rewrite header with boundary
 
-			return os.toByteArray();
-		}
+		return new MultipartRequestBody((MultipartBody) request.requestBody(), boundary);
 	}
 
 	@Override
@@ -64,4 +67,58 @@ public class Multipart implements Serializer {
 		part.writeData(writer);
 		writeOutputStream(writer, CRLF);
 	}
+
+	private class MultipartRequestBody implements RequestBody {
+
+		private final MultipartBody body;
+		private final String boundary;
+		private final long contentLength;
+
+		MultipartRequestBody(MultipartBody body, String boundary) throws IOException {
+			this.body = body;
+			this.boundary = boundary;
+			this.contentLength = computeContentLength();
+		}
+
+		@Override
+		public long contentLength() {
+			return contentLength;
+		}
+
+		@Override
+		public void writeTo(OutputStream os) throws IOException {
+			for (FormData formData : body) {
+				writePart(os, formData, boundary);
+			}
+
+			writeOutputStream(os, "--" + boundary + "--");
+			writeOutputStream(os, CRLF);
+			writeOutputStream(os, CRLF);
+		}
+
+		/**
+		 * Boundaries, part headers and part data, mirroring {@link #writeTo}. -1 if any part does
+		 * not know its length.
+		 */
+		private long computeContentLength() throws IOException {
+			int delimiterLength = byteLength("--" + boundary);
+			int crlfLength = byteLength(CRLF);
+
+			long length = 0;
+			for (FormData formData : body) {
+				long dataLength = formData.contentLength();
+				if (dataLength < 0) {
+					return -1;
+				}
+
+				length += delimiterLength + crlfLength + byteLength(formData.header()) + 2 * crlfLength + dataLength + crlfLength;
+			}
+
+			return length + byteLength("--" + boundary + "--") + 2 * crlfLength;
+		}
+	}
+
+	private static int byteLength(String s) {
+		return s.getBytes(UTF_8).length;
+	}
 }
@@ -1,46 +1,31 @@
 package com.paypal.http.serializer;
 
-import com.paypal.http.annotations.Model;
-import com.paypal.http.annotations.SerializedName;
-
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
 import java.util.*;
 
 public class ObjectMapper {
 
 	public static Map<String, Object> map(Object o) throws IllegalAccessException {
 		Map<String, Object> serialized = new HashMap<>();
-		Class oClass = o.getClass();
-		for (Field f : oClass.getDeclaredFields()) {
-			if (!Modifier.isTransient(f.getModifiers())) {
-				f.setAccessible(true);
-
-				SerializedName sn = f.getAnnotation(SerializedName.class);
-				if (sn == null) {
-					continue;
-				}
-
-				String key = sn.value();
-
-				Object value = f.get(o);
-				if (value != null) {
-					if (isPrimitive(value)) {
-						serialized.put(key, value);
-					} else if (value instanceof List) {
-						List valueList = new ArrayList();
-						for (Object subValue : (List) value) {
-							if (isPrimitive(subValue)) {
-								valueList.add(subValue);
-							} else {
-								valueList.add(map(subValue));
-							}
+		for (ModelDescriptor.Property property : ModelDescriptor.of(o.getClass()).serializedProperties()) {
+			String key = property.name;
+
+			Object value = property.get(o);
+			if (value != null) {
+				if (isPrimitive(value)) {
+					serialized.put(key, value);
+				} else if (value instanceof List) {
+					List valueList = new ArrayList();
+					for (Object subValue : (List) value) {
+						if (isPrimitive(subValue)) {
+							valueList.add(subValue);
+						} else {
+							valueList.add(map(subValue));
 						}
-						serialized.put(key, valueList);
-					} else {
-						serialized.put(key, map(value));
 					}
+					serialized.put(key, valueList);
+				} else {
+					serialized.put(key, map(value));
 				}
 			}
 		}
@@ -50,32 +35,30 @@ public class ObjectMapper {
 
 	@SuppressWarnings("unchecked")
 	public static <T> T unmap(Map<String, Object> inputData, Class<T> cls) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-		T instance = cls.getConstructor().newInstance();
+		ModelDescriptor descriptor = ModelDescriptor.of(cls);
+		T instance = (T) descriptor.newInstance();
 
-		for (String key : inputData.keySet()) {
-			Object value = inputData.get(key);
+		for (Map.Entry<String, Object> entry : inputData.entrySet()) {
+			Object value = entry.getValue();
 
-			Field f = fieldForSerializedName(key, cls);
-			if (f == null || value == null) {
+			ModelDescriptor.Property property = descriptor.property(entry.getKey());
+			if (property == null || value == null) {
 				continue;
 			}
 
-			SerializedName sn = f.getAnnotation(SerializedName.class);
-			f.setAccessible(true);
-
 			if (isPrimitive(value)) {
-				if (isNumeric(f.getType())) {
-					f.set(instance, numericCast(f.getType(), (Number) value));
+				if (property.numeric) {
+					property.set(instance, numericCast(property.type, (Number) value));
 				} else {
-					f.set(instance, value);
+					property.set(instance, value);
 				}
 			} else if (value instanceof List) {
-				Class listClass = sn.listClass();
+				Class listClass = property.listClass;
 				if (listClass.equals(Void.class)) {
 					throw new InstantiationException("Generated array properties must set the listClass property on SerializedName");
 				}
 				List destList = new ArrayList();
-				if (isPrimitive(listClass)) {
+				if (property.primitiveList) {
 					List sourceList = (List) value;
 					for (Object sourceListValue : sourceList) {
 						destList.add(listClass.cast(sourceListValue));
@@ -87,45 +70,32 @@ public class ObjectMapper {
 					}
 				}
 
-				f.set(instance, destList);
+				property.set(instance, destList);
 			} else {
-				f.set(instance, unmap((Map<String, Object>) value, f.getType()));
+				property.set(instance, unmap((Map<String, Object>) value, property.type));
 			}
 		}
 
 		return instance;
 	}
 
-	private static Field fieldForSerializedName(String name, Class cls) {
-		Field target = null;
-		for (Field f : cls.getDeclaredFields()) {
-			SerializedName sn = f.getAnnotation(SerializedName.class);
-			if (sn != null && name.equals(sn.value())) {
-				target = f;
-				break;
-			}
-		}
-
-		return target;
-	}
-
 	public static boolean isModel(Object o) {
-		return o.getClass().getAnnotation(Model.class) != null;
+		return ModelDescriptor.of(o.getClass()).isModel();
 	}
 
 	private static boolean isPrimitive(Object o) {
 		return o != null && isPrimitive(o.getClass());
 	}
 
-	private static boolean isPrimitive(Class cls) {
+	static boolean isPrimitive(Class cls) {
 		return cls.isPrimitive() || isWrapperType(cls);
 	}
 
-	private static boolean isNumeric(Class cls) {
+	static boolean isNumeric(Class cls) {
 		return NUMERIC_TYPES.contains(cls);
 	}
 
-	private static Object numericCast(Class dest, Number o) {
+	static Object numericCast(Class dest, Number o) {
 		if (dest.equals(Byte.class)) {
 			return o.byteValue();
 		} else if (dest.equals(Short.class)) {
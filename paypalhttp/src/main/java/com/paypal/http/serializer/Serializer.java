@@ -1,11 +1,32 @@
 package com.paypal.http.serializer;
 
 import com.paypal.http.HttpRequest;
+import com.paypal.http.transport.RequestBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 
 public interface Serializer {
 	String contentType();
 	byte[] encode(HttpRequest request) throws IOException;
 	<T> T decode(String source, Class<T> cls) throws IOException;
+
+	/**
+	 * Encodes a request as a body that is written straight to the connection. Serializers that can
+	 * produce their output incrementally should override this; by default the request is encoded
+	 * with {@link #encode(HttpRequest)}.
+	 */
+	default RequestBody encodeBody(HttpRequest request) throws IOException {
+		return RequestBody.of(encode(request));
+	}
+
+	/**
+	 * Decodes a response body straight from its stream. Serializers that can parse incrementally
+	 * should override this; by default the stream is read into a String and passed to
+	 * {@link #decode(String, Class)}.
+	 */
+	default <T> T decode(InputStream source, Charset charset, Class<T> cls) throws IOException {
+		return decode(StreamUtils.readStream(source, charset), cls);
+	}
 }
@@ -4,6 +4,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.zip.GZIPInputStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -19,14 +20,33 @@ public class StreamUtils {
 			in = new GZIPInputStream(in);
 		}
 
+		return readStream(in, UTF_8);
+	}
+
+	public static String readStream(InputStream in, Charset charset) throws IOException {
+		if (in == null) {
+			return null;
+		}
+
+		return new String(readBytes(in), charset);
+	}
+
+	/**
+	 * Reads a stream to its end and closes it. A null stream reads as no bytes.
+	 */
+	public static byte[] readBytes(InputStream in) throws IOException {
+		if (in == null) {
+			return new byte[0];
+		}
+
 		try {
 			ByteArrayOutputStream out = new ByteArrayOutputStream();
-			byte[] buffer = new byte[1024];
+			byte[] buffer = new byte[8192];
 			for (int count; (count = in.read(buffer)) != -1; ) {
 				out.write(buffer, 0, count);
 			}
 
-			return new String(out.toByteArray(), UTF_8);
+			return out.toByteArray();
 		} finally {
 			try {
 				in.close();
@@ -0,0 +1,79 @@
+package com.paypal.http.transport;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets an in-flight {@link TransportRequest} be abandoned from another thread. A transport
+ * registers an action that aborts the connection it is using, typically by closing its socket,
+ * so a thread blocked on the network fails with an {@link java.io.IOException} instead of
+ * waiting for the read timeout.
+ *
+ * The action runs under a {@link ReentrantLock} rather than a monitor, so a virtual thread that
+ * cancels doesn't pin its carrier thread while the socket closes.
+ */
+public final class Cancellation {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private Runnable action;
+	private boolean cancelled;
+
+	/**
+	 * Aborts the request. The registered action, if any, runs on the calling thread.
+	 */
+	public void cancel() {
+		lock.lock();
+		try {
+			if (cancelled) {
+				return;
+			}
+
+			cancelled = true;
+			if (action != null) {
+				action.run();
+				action = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean isCancelled() {
+		lock.lock();
+		try {
+			return cancelled;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Registers the action that aborts the request's connection, replacing any previous one.
+	 * Throws if the request has already been cancelled.
+	 */
+	public void onCancel(Runnable action) throws InterruptedIOException {
+		lock.lock();
+		try {
+			if (cancelled) {
+				throw new InterruptedIOException("Request was cancelled");
+			}
+
+			this.action = action;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Unregisters the action once the connection is no longer used by this request, so a late
+	 * cancel cannot affect whoever uses it next.
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			action = null;
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.paypal.http.transport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Frames everything written to it as HTTP/1.1 chunks. {@link #finish()} writes the terminating
+ * chunk but leaves the underlying connection open.
+ */
+final class ChunkedOutputStream extends FilterOutputStream {
+
+	private static final byte[] CRLF = {'\r', '\n'};
+	private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(ISO_8859_1);
+
+	ChunkedOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[]{(byte) b}, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return;
+		}
+
+		out.write(Integer.toHexString(len).getBytes(ISO_8859_1));
+		out.write(CRLF);
+		out.write(b, off, len);
+		out.write(CRLF);
+	}
+
+	void finish() throws IOException {
+		out.write(LAST_CHUNK);
+	}
+
+	@Override
+	public void close() {
+		// The connection outlives the body; it is closed by its pool.
+	}
+}
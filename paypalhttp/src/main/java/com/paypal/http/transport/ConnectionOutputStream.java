@@ -0,0 +1,33 @@
+package com.paypal.http.transport;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * The buffered output side of a {@link PooledConnection}. When the socket is backed by a
+ * {@link SocketChannel}, file transfers flush any buffered bytes and then hand the file to the
+ * channel directly; otherwise (e.g. over TLS) they are copied through the buffer.
+ */
+final class ConnectionOutputStream extends BufferedOutputStream implements FileChannelSink {
+
+	private final SocketChannel channel;
+
+	ConnectionOutputStream(OutputStream out, SocketChannel channel) {
+		super(out, 8192);
+		this.channel = channel;
+	}
+
+	@Override
+	public long transferFrom(FileChannel file, long position, long count) throws IOException {
+		if (channel == null) {
+			return file.transferTo(position, count, Channels.newChannel(this));
+		}
+
+		flush();
+		return file.transferTo(position, count, channel);
+	}
+}
@@ -0,0 +1,38 @@
+package com.paypal.http.transport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Counts the bytes of a body whose length is not known up front.
+ */
+final class CountingOutputStream extends FilterOutputStream {
+
+	private long count;
+
+	CountingOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		count++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		count += len;
+	}
+
+	@Override
+	public void close() {
+		// The connection outlives the body.
+	}
+
+	long count() {
+		return count;
+	}
+}
@@ -0,0 +1,31 @@
+package com.paypal.http.transport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/**
+ * Implemented by connection streams that can take file content straight from a
+ * {@link FileChannel}. On a plain socket this lets the kernel copy the file to the network
+ * (sendfile) without it ever passing through the Java heap.
+ */
+public interface FileChannelSink {
+
+	/**
+	 * Transfers up to {@code count} bytes of the file starting at {@code position}, returning the
+	 * number of bytes actually transferred.
+	 */
+	long transferFrom(FileChannel file, long position, long count) throws IOException;
+
+	/**
+	 * Transfers file content to any stream, using {@link #transferFrom} when the stream supports it.
+	 */
+	static long transfer(FileChannel file, long position, long count, OutputStream os) throws IOException {
+		if (os instanceof FileChannelSink) {
+			return ((FileChannelSink) os).transferFrom(file, position, count);
+		}
+
+		return file.transferTo(position, count, Channels.newChannel(os));
+	}
+}
@@ -0,0 +1,63 @@
+package com.paypal.http.transport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Passes through exactly the number of bytes announced in the Content-Length header, failing if
+ * a {@link RequestBody} writes more or fewer.
+ */
+final class FixedLengthOutputStream extends FilterOutputStream implements FileChannelSink {
+
+	private final long expected;
+	private long written;
+
+	FixedLengthOutputStream(OutputStream out, long expected) {
+		super(out);
+		this.expected = expected;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		checkLength(1);
+		out.write(b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		checkLength(len);
+		out.write(b, off, len);
+	}
+
+	@Override
+	public long transferFrom(FileChannel file, long position, long count) throws IOException {
+		if (written + count > expected) {
+			throw new ProtocolException(String.format("Request body exceeded its content length of %d bytes", expected));
+		}
+
+		long transferred = FileChannelSink.transfer(file, position, count, out);
+		written += transferred;
+		return transferred;
+	}
+
+	void finish() throws IOException {
+		if (written != expected) {
+			throw new ProtocolException(String.format("Request body wrote %d bytes, but its content length was %d", written, expected));
+		}
+	}
+
+	@Override
+	public void close() {
+		// The connection outlives the body; it is closed by its pool.
+	}
+
+	private void checkLength(int len) throws ProtocolException {
+		written += len;
+		if (written > expected) {
+			throw new ProtocolException(String.format("Request body exceeded its content length of %d bytes", expected));
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.paypal.http.transport;
+
+/**
+ * A point-in-time snapshot of a {@link PooledTransport}'s connection pool.
+ */
+public class PoolStats {
+
+	private final int routes;
+	private final int leased;
+	private final int idle;
+	private final long created;
+	private final long reused;
+
+	public PoolStats(int routes, int leased, int idle, long created, long reused) {
+		this.routes = routes;
+		this.leased = leased;
+		this.idle = idle;
+		this.created = created;
+		this.reused = reused;
+	}
+
+	/**
+	 * The number of distinct scheme/host/port combinations the pool has connected to.
+	 */
+	public int routes() {
+		return routes;
+	}
+
+	/**
+	 * The number of connections currently executing a request.
+	 */
+	public int leased() {
+		return leased;
+	}
+
+	/**
+	 * The number of open connections waiting to be reused.
+	 */
+	public int idle() {
+		return idle;
+	}
+
+	/**
+	 * The total number of connections opened, each of which cost a TCP (and TLS) handshake.
+	 */
+	public long created() {
+		return created;
+	}
+
+	/**
+	 * The total number of requests that were sent over an already open connection.
+	 */
+	public long reused() {
+		return reused;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PoolStats{routes=%d, leased=%d, idle=%d, created=%d, reused=%d}", routes, leased, idle, created, reused);
+	}
+}
@@ -0,0 +1,308 @@
+package com.paypal.http.transport;
+
+import com.paypal.http.Headers;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.channels.SocketChannel;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * A single keep-alive HTTP/1.1 connection owned by a {@link PooledTransport}.
+ */
+final class PooledConnection {
+
+	private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+	private final PooledTransport pool;
+	private final Route route;
+	private final Socket socket;
+	private final InputStream in;
+	private final OutputStream out;
+	private long idleSinceNanos;
+	private int requestCount;
+	private Cancellation cancellation;
+
+	private PooledConnection(PooledTransport pool, Route route, Socket socket) throws IOException {
+		this.pool = pool;
+		this.route = route;
+		this.socket = socket;
+		this.in = new BufferedInputStream(socket.getInputStream());
+		this.out = new ConnectionOutputStream(socket.getOutputStream(), socket.getChannel());
+	}
+
+	static PooledConnection open(PooledTransport pool, Route route, TransportRequest request) throws IOException {
+		// Plain sockets are opened through a channel so file bodies can be sent with sendfile
+		Socket socket = route.isSecure() ? new Socket() : SocketChannel.open().socket();
+		try {
+			long start = System.nanoTime();
+			socket.setTcpNoDelay(true);
+			socket.connect(new InetSocketAddress(route.host(), route.port()), request.connectTimeout());
+			socket.setSoTimeout(request.readTimeout());
+
+			long connected = System.nanoTime();
+			request.listener().connected(connected - start);
+
+			if (route.isSecure()) {
+				socket = route.sslSocketFactory().createSocket(socket, route.host(), route.port(), true);
+				if (socket instanceof SSLSocket) {
+					SSLSocket sslSocket = (SSLSocket) socket;
+					SSLParameters parameters = sslSocket.getSSLParameters();
+					parameters.setEndpointIdentificationAlgorithm("HTTPS");
+					sslSocket.setSSLParameters(parameters);
+					sslSocket.startHandshake();
+				}
+				request.listener().secureConnected(System.nanoTime() - connected);
+			}
+
+			return new PooledConnection(pool, route, socket);
+		} catch (IOException | RuntimeException e) {
+			closeQuietly(socket);
+			throw e;
+		}
+	}
+
+	Route route() {
+		return route;
+	}
+
+	boolean isReused() {
+		return requestCount > 0;
+	}
+
+	boolean isOpen() {
+		return !socket.isClosed() && !socket.isInputShutdown() && !socket.isOutputShutdown();
+	}
+
+	boolean isExpired(long nowNanos, long keepAliveNanos) {
+		return nowNanos - idleSinceNanos >= keepAliveNanos;
+	}
+
+	void markIdle(long nowNanos) {
+		idleSinceNanos = nowNanos;
+	}
+
+	/**
+	 * Lets the request currently using this connection abort it by closing the socket.
+	 */
+	void watch(Cancellation cancellation) throws IOException {
+		if (cancellation != null) {
+			this.cancellation = cancellation;
+			cancellation.onCancel(this::close);
+		}
+	}
+
+	void unwatch() {
+		if (cancellation != null) {
+			cancellation.clear();
+			cancellation = null;
+		}
+	}
+
+	void release(boolean reusable) {
+		pool.release(this, reusable);
+	}
+
+	void close() {
+		closeQuietly(socket);
+	}
+
+	/**
+	 * Writes the request and returns the number of body bytes sent.
+	 */
+	long writeRequest(URL url, TransportRequest request) throws IOException {
+		socket.setSoTimeout(request.readTimeout());
+		requestCount++;
+
+		String target = url.getFile().isEmpty() ? "/" : url.getFile();
+		String verb = request.verb().toUpperCase();
+
+		StringBuilder head = new StringBuilder(256)
+				.append(verb).append(' ').append(target).append(" HTTP/1.1\r\n")
+				.append("Host: ").append(url.getHost());
+		if (url.getPort() != -1 && url.getPort() != url.getDefaultPort()) {
+			head.append(':').append(url.getPort());
+		}
+		head.append("\r\n");
+
+		Headers headers = request.headers();
+		for (String key : headers) {
+			String value = headers.header(key);
+			if (key != null && value != null && !isFramingHeader(key)) {
+				head.append(key).append(": ").append(value).append("\r\n");
+			}
+		}
+
+		RequestBody body = request.body();
+		if (body != null && body.contentLength() >= 0) {
+			head.append("Content-Length: ").append(body.contentLength()).append("\r\n");
+		} else if (body != null) {
+			head.append("Transfer-Encoding: chunked\r\n");
+		} else if (verb.equals("POST") || verb.equals("PUT") || verb.equals("PATCH")) {
+			head.append("Content-Length: 0\r\n");
+		}
+		head.append("\r\n");
+
+		out.write(head.toString().getBytes(ISO_8859_1));
+		long bodyBytes = 0;
+		if (body != null && body.contentLength() >= 0) {
+			FixedLengthOutputStream fixed = new FixedLengthOutputStream(out, body.contentLength());
+			body.writeTo(fixed);
+			fixed.finish();
+			bodyBytes = body.contentLength();
+		} else if (body != null) {
+			// Coalesce small writes so each chunk carries a useful amount of data
+			ChunkedOutputStream chunked = new ChunkedOutputStream(out);
+			CountingOutputStream counting = new CountingOutputStream(new BufferedOutputStream(chunked, 8192));
+			body.writeTo(counting);
+			counting.flush();
+			chunked.finish();
+			bodyBytes = counting.count();
+		}
+		out.flush();
+
+		return bodyBytes;
+	}
+
+	TransportResponse readResponse(TransportRequest request) throws IOException {
+		String statusLine;
+		int statusCode;
+		Headers headers;
+		do {
+			statusLine = readLine(in);
+			if (statusLine == null) {
+				throw new EOFException("Connection to " + route + " closed before a response was received");
+			}
+
+			statusCode = parseStatusCode(statusLine);
+			headers = readHeaders(in);
+		} while (statusCode >= 100 && statusCode < 200);
+
+		String connectionHeader = headers.header("connection");
+		boolean keepAlive = statusLine.startsWith("HTTP/1.1")
+				? !"close".equalsIgnoreCase(connectionHeader)
+				: "keep-alive".equalsIgnoreCase(connectionHeader);
+
+		String transferEncoding = headers.header("transfer-encoding");
+		String contentLength = headers.header("content-length");
+
+		ResponseBodyStream body;
+		if ("HEAD".equalsIgnoreCase(request.verb()) || statusCode == 204 || statusCode == 304) {
+			body = ResponseBodyStream.fixedLength(this, in, 0, keepAlive);
+		} else if (transferEncoding != null && transferEncoding.toLowerCase().contains("chunked")) {
+			body = ResponseBodyStream.chunked(this, in, keepAlive);
+		} else if (contentLength != null) {
+			try {
+				body = ResponseBodyStream.fixedLength(this, in, Long.parseLong(contentLength.trim()), keepAlive);
+			} catch (NumberFormatException e) {
+				throw new ProtocolException("Invalid Content-Length: " + contentLength);
+			}
+		} else {
+			body = ResponseBodyStream.untilClose(this, in);
+		}
+
+		return new Response(statusCode, headers, body);
+	}
+
+	static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+		int b;
+		while ((b = in.read()) != -1) {
+			if (b == '\n') {
+				return trimCarriageReturn(line.toString("ISO-8859-1"));
+			}
+
+			if (line.size() >= MAX_LINE_LENGTH) {
+				throw new ProtocolException("Response line exceeds " + MAX_LINE_LENGTH + " bytes");
+			}
+			line.write(b);
+		}
+
+		return line.size() > 0 ? trimCarriageReturn(line.toString("ISO-8859-1")) : null;
+	}
+
+	static Headers readHeaders(InputStream in) throws IOException {
+		Headers headers = new Headers();
+		String line;
+		while ((line = readLine(in)) != null && !line.isEmpty()) {
+			int colon = line.indexOf(':');
+			if (colon > 0) {
+				headers.header(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+			}
+		}
+
+		return headers;
+	}
+
+	private static int parseStatusCode(String statusLine) throws ProtocolException {
+		if (statusLine.startsWith("HTTP/") && statusLine.length() >= 12) {
+			try {
+				return Integer.parseInt(statusLine.substring(9, 12));
+			} catch (NumberFormatException ignored) {}
+		}
+
+		throw new ProtocolException("Invalid status line: " + statusLine);
+	}
+
+	private static boolean isFramingHeader(String key) {
+		return key.equalsIgnoreCase("host")
+				|| key.equalsIgnoreCase("content-length")
+				|| key.equalsIgnoreCase("transfer-encoding")
+				|| key.equalsIgnoreCase("connection");
+	}
+
+	private static String trimCarriageReturn(String line) {
+		return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+	}
+
+	private static void closeQuietly(Socket socket) {
+		try {
+			socket.close();
+		} catch (IOException ignored) {}
+	}
+
+	private static class Response implements TransportResponse {
+
+		private final int statusCode;
+		private final Headers headers;
+		private final ResponseBodyStream body;
+
+		Response(int statusCode, Headers headers, ResponseBodyStream body) {
+			this.statusCode = statusCode;
+			this.headers = headers;
+			this.body = body;
+		}
+
+		@Override
+		public int statusCode() {
+			return statusCode;
+		}
+
+		@Override
+		public Headers headers() {
+			return headers;
+		}
+
+		@Override
+		public InputStream body() {
+			return body;
+		}
+
+		@Override
+		public void close() {
+			body.close();
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package com.paypal.http.transport;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Transport} that speaks HTTP/1.1 over its own pool of keep-alive connections, so
+ * consecutive requests to the same host skip the TCP and TLS handshakes.
+ *
+ * At most {@code maxConnectionsPerRoute} connections are leased per scheme/host/port at once;
+ * further requests wait up to the connect timeout for one to be released. Connections left idle
+ * for longer than the keep-alive period are closed by a background evictor thread.
+ *
+ * Proxies configured through the {@code http.proxyHost} family of system properties are not
+ * honoured; use {@link UrlConnectionTransport} when a proxy is required.
+ *
+ * <pre>
+ * <code>
+ * PooledTransport transport = new PooledTransport(20, 30, TimeUnit.SECONDS);
+ * client.setTransport(transport);
+ * ...
+ * transport.close();
+ * </code>
+ * </pre>
+ */
+public class PooledTransport implements Transport {
+
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+	public static final long DEFAULT_KEEP_ALIVE_SECONDS = 30;
+
+	private final int maxConnectionsPerRoute;
+	private final long keepAliveNanos;
+	private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService evictor;
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong reused = new AtomicLong();
+	private volatile boolean closed;
+
+	public PooledTransport() {
+		this(DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+	}
+
+	public PooledTransport(int maxConnectionsPerRoute, long keepAlive, TimeUnit unit) {
+		if (maxConnectionsPerRoute < 1) {
+			throw new IllegalArgumentException("maxConnectionsPerRoute must be at least 1");
+		}
+		if (keepAlive <= 0) {
+			throw new IllegalArgumentException("keepAlive must be positive");
+		}
+
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		this.keepAliveNanos = unit.toNanos(keepAlive);
+
+		this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "paypalhttp-connection-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long period = Math.max(1, unit.toMillis(keepAlive) / 2);
+		evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public TransportResponse send(TransportRequest request) throws IOException {
+		if (closed) {
+			throw new IOException("PooledTransport has been closed");
+		}
+
+		URL url = new URL(request.url());
+		Route route = route(url, request);
+
+		TransportListener listener = request.listener();
+		for (int attempt = 0; ; attempt++) {
+			long start = System.nanoTime();
+			PooledConnection connection = acquire(route, request, attempt == 0);
+			boolean wasReused = connection.isReused();
+
+			TransportResponse response;
+			long sent;
+			boolean written = false;
+			try {
+				long acquired = System.nanoTime();
+				listener.connectionAcquired(wasReused, acquired - start);
+				connection.watch(request.cancellation());
+
+				long bodyBytes = connection.writeRequest(url, request);
+				written = true;
+				sent = System.nanoTime();
+				listener.requestSent(bodyBytes, sent - acquired);
+
+				response = connection.readResponse(request);
+			} catch (IOException e) {
+				release(connection, false);
+
+				// The server may have closed an idle keep-alive connection just before we wrote to it;
+				// retry once on a new connection, unless the server was simply slow to respond. Once the
+				// whole request is out the server may have acted on it, so only idempotent requests are
+				// sent again (RFC 7230, section 6.3.1).
+				if (!wasReused || attempt > 0 || e instanceof SocketTimeoutException || isCancelled(request)
+						|| (written && !isIdempotent(request.verb()))) {
+					throw e;
+				}
+				continue;
+			} catch (RuntimeException e) {
+				release(connection, false);
+				throw e;
+			}
+
+			try {
+				listener.responseHeadersReceived(response.statusCode(), System.nanoTime() - sent);
+			} catch (RuntimeException e) {
+				response.close();
+				throw e;
+			}
+			return response;
+		}
+	}
+
+	public PoolStats stats() {
+		int leased = 0;
+		int idle = 0;
+		for (Route route : routes.values()) {
+			leased += route.leased();
+			idle += route.idleCount();
+		}
+
+		return new PoolStats(routes.size(), leased, idle, created.get(), reused.get());
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		evictor.shutdownNow();
+
+		for (Route route : routes.values()) {
+			for (PooledConnection connection : route.removeAll()) {
+				connection.close();
+			}
+		}
+	}
+
+	void release(PooledConnection connection, boolean reusable) {
+		Route route = connection.route();
+		connection.unwatch();
+		try {
+			if (reusable && !closed && connection.isOpen()) {
+				connection.markIdle(System.nanoTime());
+				route.offerIdle(connection);
+			} else {
+				connection.close();
+			}
+		} finally {
+			route.permits().release();
+		}
+	}
+
+	void evictIdleConnections() {
+		long now = System.nanoTime();
+		for (Route route : routes.values()) {
+			for (PooledConnection connection : route.removeExpired(now, keepAliveNanos)) {
+				connection.close();
+			}
+		}
+	}
+
+	private static boolean isIdempotent(String verb) {
+		switch (verb.toUpperCase()) {
+			case "GET":
+			case "HEAD":
+			case "PUT":
+			case "DELETE":
+			case "OPTIONS":
+			case "TRACE":
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static boolean isCancelled(TransportRequest request) {
+		return request.cancellation() != null && request.cancellation().isCancelled();
+	}
+
+	private Route route(URL url, TransportRequest request) throws IOException {
+		String scheme = url.getProtocol().toLowerCase();
+		SSLSocketFactory sslSocketFactory = null;
+		if (scheme.equals("https")) {
+			sslSocketFactory = request.sslSocketFactory();
+			if (sslSocketFactory == null) {
+				String message = "SSLSocketFactory was not set or failed to initialize";
+				System.out.println(message);
+				throw new SSLException(message);
+			}
+		} else if (!scheme.equals("http")) {
+			throw new MalformedURLException("Unsupported scheme: " + scheme);
+		}
+
+		String host = url.getHost();
+		int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+		SSLSocketFactory factory = sslSocketFactory;
+
+		return routes.computeIfAbsent(Route.key(scheme, host, port, factory),
+				key -> new Route(scheme, host, port, factory, maxConnectionsPerRoute));
+	}
+
+	/**
+	 * Leases a connection for the route, reusing an idle one unless {@code reuseIdle} is false.
+	 */
+	private PooledConnection acquire(Route route, TransportRequest request, boolean reuseIdle) throws IOException {
+		try {
+			if (request.connectTimeout() > 0) {
+				if (!route.permits().tryAcquire(request.connectTimeout(), TimeUnit.MILLISECONDS)) {
+					throw new SocketTimeoutException("Timed out waiting for a pooled connection to " + route);
+				}
+			} else {
+				route.permits().acquire();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for a pooled connection to " + route);
+		}
+
+		try {
+			long now = System.nanoTime();
+			PooledConnection connection;
+			while (reuseIdle && (connection = route.pollIdle()) != null) {
+				if (connection.isOpen() && !connection.isExpired(now, keepAliveNanos)) {
+					reused.incrementAndGet();
+					return connection;
+				}
+				connection.close();
+			}
+
+			connection = PooledConnection.open(this, route, request);
+			created.incrementAndGet();
+			return connection;
+		} catch (IOException | RuntimeException e) {
+			route.permits().release();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.paypal.http.transport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An encoded request body that a {@link Transport} streams to the connection instead of holding
+ * it in memory as a single byte array.
+ *
+ * A body may be written more than once, for example when a request is retried on a fresh
+ * connection, so implementations must be able to replay their content.
+ */
+public interface RequestBody {
+
+	/**
+	 * The exact number of bytes {@link #writeTo} will produce, or -1 if unknown, in which case the
+	 * body is sent with chunked transfer encoding.
+	 */
+	long contentLength();
+
+	/**
+	 * Writes the body to the given stream. Implementations must not close the stream.
+	 */
+	void writeTo(OutputStream os) throws IOException;
+
+	static RequestBody of(byte[] data) {
+		return new RequestBody() {
+			@Override
+			public long contentLength() {
+				return data.length;
+			}
+
+			@Override
+			public void writeTo(OutputStream os) throws IOException {
+				os.write(data);
+			}
+		};
+	}
+}
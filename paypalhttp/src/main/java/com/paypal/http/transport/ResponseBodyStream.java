@@ -0,0 +1,166 @@
+package com.paypal.http.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProtocolException;
+
+/**
+ * Reads a single response body off a {@link PooledConnection}, honouring Content-Length or
+ * chunked framing, and hands the connection back to its pool as soon as the body is exhausted.
+ *
+ * Closing the stream early drains a small remainder so the connection can still be reused;
+ * anything larger is cheaper to discard.
+ */
+final class ResponseBodyStream extends InputStream {
+
+	private static final long UNBOUNDED = -1;
+	private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+	private final PooledConnection connection;
+	private final InputStream in;
+	private final boolean chunked;
+	private final boolean keepAlive;
+	private long remaining;
+	private boolean firstChunk = true;
+	private boolean eof;
+	private boolean released;
+
+	private ResponseBodyStream(PooledConnection connection, InputStream in, long length, boolean chunked, boolean keepAlive) {
+		this.connection = connection;
+		this.in = in;
+		this.remaining = length;
+		this.chunked = chunked;
+		this.keepAlive = keepAlive;
+	}
+
+	static ResponseBodyStream fixedLength(PooledConnection connection, InputStream in, long length, boolean keepAlive) {
+		ResponseBodyStream stream = new ResponseBodyStream(connection, in, length, false, keepAlive);
+		if (length == 0) {
+			stream.finish(true);
+		}
+
+		return stream;
+	}
+
+	static ResponseBodyStream chunked(PooledConnection connection, InputStream in, boolean keepAlive) {
+		return new ResponseBodyStream(connection, in, 0, true, keepAlive);
+	}
+
+	static ResponseBodyStream untilClose(PooledConnection connection, InputStream in) {
+		return new ResponseBodyStream(connection, in, UNBOUNDED, false, false);
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] single = new byte[1];
+		int count = read(single, 0, 1);
+		return count == -1 ? -1 : single[0] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (eof) {
+			return -1;
+		}
+		if (len == 0) {
+			return 0;
+		}
+
+		try {
+			if (chunked && remaining == 0 && !nextChunk()) {
+				finish(true);
+				return -1;
+			}
+
+			int toRead = remaining == UNBOUNDED ? len : (int) Math.min(len, remaining);
+			int count = in.read(b, off, toRead);
+			if (count == -1) {
+				if (remaining == UNBOUNDED) {
+					finish(false);
+					return -1;
+				}
+
+				throw new EOFException("Connection closed before the response body was complete");
+			}
+
+			if (remaining != UNBOUNDED) {
+				remaining -= count;
+				if (!chunked && remaining == 0) {
+					finish(true);
+				}
+			}
+
+			return count;
+		} catch (IOException e) {
+			finish(false);
+			throw e;
+		}
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (eof) {
+			return 0;
+		}
+
+		int available = in.available();
+		return remaining == UNBOUNDED ? available : (int) Math.min(available, remaining);
+	}
+
+	@Override
+	public void close() {
+		if (released) {
+			return;
+		}
+
+		try {
+			byte[] buffer = new byte[4096];
+			long drained = 0;
+			while (!eof && drained < MAX_DRAIN_BYTES && remaining != UNBOUNDED) {
+				int count = read(buffer, 0, buffer.length);
+				if (count == -1) {
+					break;
+				}
+				drained += count;
+			}
+		} catch (IOException ignored) {}
+
+		finish(eof);
+	}
+
+	private boolean nextChunk() throws IOException {
+		if (!firstChunk) {
+			PooledConnection.readLine(in);
+		}
+		firstChunk = false;
+
+		String line = PooledConnection.readLine(in);
+		if (line == null) {
+			throw new EOFException("Connection closed before the response body was complete");
+		}
+
+		int extension = line.indexOf(';');
+		String size = (extension == -1 ? line : line.substring(0, extension)).trim();
+		try {
+			remaining = Long.parseLong(size, 16);
+		} catch (NumberFormatException e) {
+			throw new ProtocolException("Invalid chunk size: " + line);
+		}
+
+		if (remaining == 0) {
+			PooledConnection.readHeaders(in);
+			return false;
+		}
+
+		return true;
+	}
+
+	private void finish(boolean reusable) {
+		eof = true;
+		if (!released) {
+			released = true;
+			connection.release(reusable && keepAlive);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.paypal.http.transport;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A scheme, host and port (and, for https, the socket factory) that pooled connections are keyed
+ * by. Each route bounds how many connections may be leased at once and keeps its idle connections
+ * most-recently-used first.
+ */
+final class Route {
+
+	private final String scheme;
+	private final String host;
+	private final int port;
+	private final SSLSocketFactory sslSocketFactory;
+	private final int maxConnections;
+	private final Semaphore permits;
+	private final Deque<PooledConnection> idle = new ArrayDeque<>();
+	private final ReentrantLock idleLock = new ReentrantLock();
+
+	Route(String scheme, String host, int port, SSLSocketFactory sslSocketFactory, int maxConnections) {
+		this.scheme = scheme;
+		this.host = host;
+		this.port = port;
+		this.sslSocketFactory = sslSocketFactory;
+		this.maxConnections = maxConnections;
+		this.permits = new Semaphore(maxConnections, true);
+	}
+
+	static String key(String scheme, String host, int port, SSLSocketFactory sslSocketFactory) {
+		String key = scheme + "://" + host + ":" + port;
+		if (sslSocketFactory != null) {
+			key += "#" + System.identityHashCode(sslSocketFactory);
+		}
+
+		return key;
+	}
+
+	String host() {
+		return host;
+	}
+
+	int port() {
+		return port;
+	}
+
+	boolean isSecure() {
+		return sslSocketFactory != null;
+	}
+
+	SSLSocketFactory sslSocketFactory() {
+		return sslSocketFactory;
+	}
+
+	Semaphore permits() {
+		return permits;
+	}
+
+	int leased() {
+		return maxConnections - permits.availablePermits();
+	}
+
+	PooledConnection pollIdle() {
+		idleLock.lock();
+		try {
+			return idle.pollFirst();
+		} finally {
+			idleLock.unlock();
+		}
+	}
+
+	void offerIdle(PooledConnection connection) {
+		idleLock.lock();
+		try {
+			idle.offerFirst(connection);
+		} finally {
+			idleLock.unlock();
+		}
+	}
+
+	int idleCount() {
+		idleLock.lock();
+		try {
+			return idle.size();
+		} finally {
+			idleLock.unlock();
+		}
+	}
+
+	List<PooledConnection> removeExpired(long nowNanos, long keepAliveNanos) {
+		List<PooledConnection> expired = new ArrayList<>();
+		idleLock.lock();
+		try {
+			for (Iterator<PooledConnection> it = idle.iterator(); it.hasNext(); ) {
+				PooledConnection connection = it.next();
+				if (connection.isExpired(nowNanos, keepAliveNanos)) {
+					it.remove();
+					expired.add(connection);
+				}
+			}
+		} finally {
+			idleLock.unlock();
+		}
+
+		return expired;
+	}
+
+	List<PooledConnection> removeAll() {
+		idleLock.lock();
+		try {
+			List<PooledConnection> removed = new ArrayList<>(idle);
+			idle.clear();
+			return removed;
+		} finally {
+			idleLock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return scheme + "://" + host + ":" + port;
+	}
+}
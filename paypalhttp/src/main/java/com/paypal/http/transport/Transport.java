@@ -0,0 +1,47 @@
+package com.paypal.http.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A Transport moves an already-encoded {@link TransportRequest} over the wire and hands back the
+ * raw {@link TransportResponse}. {@link com.paypal.http.HttpClient} takes care of injectors and
+ * (de)serialization, so implementations only deal with connections, bytes and headers.
+ *
+ * Callers must close the returned response once its body has been consumed, which allows the
+ * transport to reuse the underlying connection.
+ */
+public interface Transport extends Closeable {
+
+	TransportResponse send(TransportRequest request) throws IOException;
+
+	/**
+	 * Sends a request without blocking the caller. By default the blocking {@link #send} runs on
+	 * the given executor and holds one of its threads until the response headers arrive; none of
+	 * the built-in transports does better. Transports with a non-blocking implementation should
+	 * override this.
+	 */
+	default CompletableFuture<TransportResponse> sendAsync(TransportRequest request, Executor executor) {
+		CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				TransportResponse response = send(request);
+				if (!future.complete(response)) {
+					response.close();
+				}
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			}
+		});
+
+		return future;
+	}
+
+	/**
+	 * Releases any resources (such as idle connections) held by this transport.
+	 */
+	@Override
+	default void close() throws IOException {}
+}
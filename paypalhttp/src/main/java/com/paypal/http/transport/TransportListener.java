@@ -0,0 +1,41 @@
+package com.paypal.http.transport;
+
+/**
+ * Receives connection-level events from a {@link Transport} while it sends a single
+ * {@link TransportRequest}. All durations are in nanoseconds.
+ *
+ * {@link PooledTransport} reports every event. {@link UrlConnectionTransport} cannot observe
+ * connection setup or reuse, so it only reports {@link #requestSent} and
+ * {@link #responseHeadersReceived}; any connect and TLS time is included in whichever of the two
+ * first touches the network.
+ */
+public interface TransportListener {
+
+	TransportListener NONE = new TransportListener() {};
+
+	/**
+	 * A connection was obtained, either {@code reused} from a pool or newly opened. The duration
+	 * covers waiting for the pool plus any connect and TLS handshake.
+	 */
+	default void connectionAcquired(boolean reused, long durationNanos) {}
+
+	/**
+	 * A new TCP connection was established.
+	 */
+	default void connected(long durationNanos) {}
+
+	/**
+	 * The TLS handshake on a new connection completed.
+	 */
+	default void secureConnected(long durationNanos) {}
+
+	/**
+	 * The request line, headers and {@code bodyBytes} of body were written.
+	 */
+	default void requestSent(long bodyBytes, long durationNanos) {}
+
+	/**
+	 * The status line and headers arrived, {@code durationNanos} after the request was sent.
+	 */
+	default void responseHeadersReceived(int statusCode, long durationNanos) {}
+}
@@ -0,0 +1,112 @@
+package com.paypal.http.transport;
+
+import com.paypal.http.Headers;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * The wire-level view of an {@link com.paypal.http.HttpRequest}: an absolute url, a verb, the
+ * final set of headers and the encoded body, along with the connection settings of the
+ * {@link com.paypal.http.HttpClient} executing it.
+ */
+public class TransportRequest {
+
+	private String url;
+	private String verb;
+	private Headers headers;
+	private RequestBody body;
+	private int connectTimeout;
+	private int readTimeout;
+	private SSLSocketFactory sslSocketFactory;
+	private TransportListener listener = TransportListener.NONE;
+	private Cancellation cancellation;
+
+	public TransportRequest(String url, String verb, Headers headers) {
+		this.url = url;
+		this.verb = verb;
+		this.headers = headers;
+	}
+
+	public TransportRequest body(RequestBody body) {
+		this.body = body;
+		return this;
+	}
+
+	public TransportRequest connectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+		return this;
+	}
+
+	public TransportRequest readTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+		return this;
+	}
+
+	public TransportRequest sslSocketFactory(SSLSocketFactory sslSocketFactory) {
+		this.sslSocketFactory = sslSocketFactory;
+		return this;
+	}
+
+	public TransportRequest listener(TransportListener listener) {
+		this.listener = listener == null ? TransportListener.NONE : listener;
+		return this;
+	}
+
+	/**
+	 * Makes the request abortable through the given {@link Cancellation}, or not at all if null.
+	 */
+	public TransportRequest cancellation(Cancellation cancellation) {
+		this.cancellation = cancellation;
+		return this;
+	}
+
+	/**
+	 * A copy of this request that shares its headers and body, e.g. to send it twice at once
+	 * with a different {@link Cancellation} for each.
+	 */
+	public TransportRequest copy() {
+		return new TransportRequest(url, verb, headers)
+				.body(body)
+				.connectTimeout(connectTimeout)
+				.readTimeout(readTimeout)
+				.sslSocketFactory(sslSocketFactory)
+				.listener(listener)
+				.cancellation(cancellation);
+	}
+
+	public String url() {
+		return url;
+	}
+
+	public String verb() {
+		return verb;
+	}
+
+	public Headers headers() {
+		return headers;
+	}
+
+	public RequestBody body() {
+		return body;
+	}
+
+	public int connectTimeout() {
+		return connectTimeout;
+	}
+
+	public int readTimeout() {
+		return readTimeout;
+	}
+
+	public SSLSocketFactory sslSocketFactory() {
+		return sslSocketFactory;
+	}
+
+	public TransportListener listener() {
+		return listener;
+	}
+
+	public Cancellation cancellation() {
+		return cancellation;
+	}
+}
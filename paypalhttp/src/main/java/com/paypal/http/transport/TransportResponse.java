@@ -0,0 +1,24 @@
+package com.paypal.http.transport;
+
+import com.paypal.http.Headers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A raw response returned by a {@link Transport}. Closing it releases the connection it was read
+ * from, either back to a pool or to be discarded.
+ */
+public interface TransportResponse extends Closeable {
+
+	int statusCode() throws IOException;
+
+	Headers headers() throws IOException;
+
+	/**
+	 * The response body. Error bodies are returned here as well; this may be null if the server
+	 * did not send one.
+	 */
+	InputStream body() throws IOException;
+}
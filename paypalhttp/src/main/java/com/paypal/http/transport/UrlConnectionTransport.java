@@ -0,0 +1,219 @@
+package com.paypal.http.transport;
+
+import com.paypal.http.Headers;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.net.URLConnection;
+
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
+
+/**
+ * The default {@link Transport}, backed by {@link HttpURLConnection}.
+ *
+ * Connections are never explicitly disconnected. Closing a response drains and closes its stream
+ * instead, which lets the JDK return the socket to its own keep-alive cache.
+ */
+public class UrlConnectionTransport implements Transport {
+
+	/**
+	 * Bodies up to this size are buffered by the connection, so that it can replay them to answer
+	 * an authentication challenge or follow a redirect; larger bodies are streamed.
+	 */
+	static final long STREAMING_THRESHOLD = 64 * 1024;
+
+	@Override
+	public TransportResponse send(TransportRequest request) throws IOException {
+		TransportListener listener = request.listener();
+		long start = System.nanoTime();
+		HttpURLConnection connection = open(request);
+		long bodyBytes = writeBody(connection, request.body());
+		long sent = System.nanoTime();
+		listener.requestSent(bodyBytes, sent - start);
+
+		// Wait for the status line here, so that send, and sendAsync, only return once the server
+		// has answered; hedging relies on that to tell a slow request from a fast one
+		int statusCode;
+		try {
+			statusCode = connection.getResponseCode();
+		} catch (IOException e) {
+			connection.disconnect();
+			throw e;
+		}
+		listener.responseHeadersReceived(statusCode, System.nanoTime() - sent);
+
+		return new UrlConnectionResponse(connection, request.cancellation());
+	}
+
+	public HttpURLConnection connect(TransportRequest request) throws IOException {
+		HttpURLConnection connection = open(request);
+		writeBody(connection, request.body());
+
+		return connection;
+	}
+
+	private HttpURLConnection open(TransportRequest request) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(request.url()).openConnection();
+
+		if (connection instanceof HttpsURLConnection) {
+			if (request.sslSocketFactory() == null) {
+				String message = "SSLSocketFactory was not set or failed to initialize";
+				System.out.println(message);
+				throw new SSLException(message);
+			}
+
+			((HttpsURLConnection) connection).setSSLSocketFactory(request.sslSocketFactory());
+		}
+
+		connection.setReadTimeout(request.readTimeout());
+		connection.setConnectTimeout(request.connectTimeout());
+
+		setRequestVerb(request.verb(), connection);
+		applyHeadersFromRequest(connection, request.headers());
+
+		if (request.cancellation() != null) {
+			request.cancellation().onCancel(connection::disconnect);
+		}
+
+		return connection;
+	}
+
+	/**
+	 * Writes the body, if any. Small bodies are buffered; bodies over
+	 * {@link #STREAMING_THRESHOLD} are streamed with a fixed length, and bodies of unknown length
+	 * chunked. In streaming mode the connection can't resend the body, so a 401 or 407 surfaces
+	 * as an {@link java.net.HttpRetryException} and redirects are not followed. Returns the number
+	 * of body bytes written.
+	 */
+	private long writeBody(HttpURLConnection connection, RequestBody body) throws IOException {
+		if (body == null) {
+			return 0;
+		}
+
+		connection.setDoOutput(true);
+		if (body.contentLength() > STREAMING_THRESHOLD) {
+			connection.setFixedLengthStreamingMode(body.contentLength());
+		} else if (body.contentLength() < 0) {
+			connection.setChunkedStreamingMode(0);
+		}
+
+		try (OutputStream os = connection.getOutputStream()) {
+			if (body.contentLength() >= 0) {
+				body.writeTo(os);
+				return body.contentLength();
+			}
+
+			CountingOutputStream counting = new CountingOutputStream(os);
+			body.writeTo(counting);
+			return counting.count();
+		} catch (IOException e) {
+			connection.disconnect();
+			throw e;
+		}
+	}
+
+	public static Headers parseResponseHeaders(URLConnection connection) {
+		Headers headers = new Headers();
+		for (String key : connection.getHeaderFields().keySet()) {
+			headers.header(key, connection.getHeaderField(key));
+		}
+
+		return headers;
+	}
+
+	private void applyHeadersFromRequest(HttpURLConnection connection, Headers headers) {
+		for (String key: headers) {
+			connection.setRequestProperty(key, headers.header(key));
+		}
+	}
+
+	/**
+	 * Workaround for a bug in {@code HttpURLConnection.setRequestMethod(String)}
+	 * The implementation of Sun/Oracle is throwing a {@code ProtocolException}
+	 * when the method is other than the HTTP/1.1 default methods. So to use {@code PATCH}
+	 * and others, we must apply this workaround.
+	 *
+	 * See issue https://bugs.openjdk.java.net/browse/JDK-7016595
+	 */
+	private void setRequestVerb(String verb, HttpURLConnection connection) {
+		try {
+			connection.setRequestMethod(verb.toUpperCase());
+		} catch (ProtocolException ignored) {
+			try {
+				Field delegateField = connection.getClass().getDeclaredField("delegate");
+				delegateField.setAccessible(true);
+				HttpURLConnection delegateConnection = (HttpURLConnection) delegateField.get(connection);
+
+				setRequestVerb(verb, delegateConnection);
+			} catch (NoSuchFieldException e) {
+				Field methodField = null;
+				Class connectionClass = connection.getClass();
+				while (methodField == null) {
+					try {
+						methodField = connectionClass.getDeclaredField("method");
+						methodField.setAccessible(true);
+						methodField.set(connection, "PATCH");
+					} catch (IllegalAccessException | NoSuchFieldException _ignored) {
+						connectionClass = connectionClass.getSuperclass();
+					}
+				}
+			} catch (IllegalAccessException ignoredIllegalAccess) {}
+		}
+	}
+
+	private static class UrlConnectionResponse implements TransportResponse {
+
+		private final HttpURLConnection connection;
+		private final Cancellation cancellation;
+		private InputStream body;
+		private boolean bodyOpened;
+
+		UrlConnectionResponse(HttpURLConnection connection, Cancellation cancellation) {
+			this.connection = connection;
+			this.cancellation = cancellation;
+		}
+
+		@Override
+		public int statusCode() throws IOException {
+			return connection.getResponseCode();
+		}
+
+		@Override
+		public Headers headers() {
+			return parseResponseHeaders(connection);
+		}
+
+		@Override
+		public InputStream body() throws IOException {
+			if (!bodyOpened) {
+				bodyOpened = true;
+				body = statusCode() >= HTTP_BAD_REQUEST ? connection.getErrorStream() : connection.getInputStream();
+			}
+
+			return body;
+		}
+
+		@Override
+		public void close() {
+			if (cancellation != null) {
+				cancellation.clear();
+			}
+
+			try {
+				InputStream stream = body();
+				if (stream != null) {
+					stream.close();
+				}
+			} catch (IOException e) {
+				connection.disconnect();
+			}
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package com.paypal.http.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts virtual threads. This is the JDK 21+ version that the multi-release jar loads in place of
+ * the one in {@code src/main/java}.
+ */
+public final class VirtualThreadSupport {
+
+	private VirtualThreadSupport() {}
+
+	public static boolean isSupported() {
+		return true;
+	}
+
+	/**
+	 * An executor that runs each task on a new virtual thread named after {@code prefix}.
+	 */
+	public static ExecutorService newExecutor(String prefix) {
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+	}
+}
@@ -0,0 +1,179 @@
+package com.paypal.http;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class BatchExecutionTest extends BasicWireMockHarness {
+
+	// Responses close their connections so that the parallel calls don't leave idle keep-alive
+	// connections to this test's server behind for the tests that run after it.
+
+	@Test
+	public void testExecuteAll_capturesEachResultInRequestOrder() throws IOException {
+		stubFor(WireMock.get(urlMatching("/v1/orders/\\d+"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withHeader("Connection", "close").withBody("order")));
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/3"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(404).withHeader("Connection", "close").withBody("not found")));
+		HttpClient client = new HttpClient(environment());
+
+		List<HttpRequest<String>> requests = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			requests.add(new HttpRequest<>("/v1/orders/" + i, "GET", String.class));
+		}
+		List<int[]> progress = Collections.synchronizedList(new ArrayList<>());
+
+		List<BatchResult<?>> results = client.executeAll(requests, new BatchOptions()
+				.parallelism(3)
+				.onProgress((completed, failed, total) -> progress.add(new int[]{completed, failed, total})));
+
+		assertEquals(results.size(), 6);
+		for (int i = 0; i < 6; i++) {
+			BatchResult<?> result = results.get(i);
+			assertEquals(result.index(), i);
+			assertSame(result.request(), requests.get(i));
+			if (i == 3) {
+				assertFalse(result.isSuccess());
+				assertEquals(((HttpException) result.error()).statusCode(), 404);
+				assertNull(result.response());
+			} else {
+				assertTrue(result.isSuccess());
+				assertEquals(result.response().result(), "order");
+			}
+		}
+		assertEquals(progress.size(), 6);
+		assertEquals(progress.get(5), new int[]{6, 1, 6});
+	}
+
+	@Test
+	public void testExecuteAll_boundsParallelism() throws IOException {
+		stubFor(WireMock.get(urlMatching("/v1/orders/\\d+"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(50)
+						.withHeader("Content-Type", "text/plain").withHeader("Connection", "close").withBody("order")));
+		HttpClient client = new HttpClient(environment());
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		client.addListener(new HttpClientListener() {
+			@Override
+			public void callStart(HttpRequest<?> request) {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			}
+
+			@Override
+			public void callEnd(HttpRequest<?> request, int statusCode, long durationNanos) {
+				inFlight.decrementAndGet();
+			}
+		});
+
+		List<HttpRequest<String>> requests = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			requests.add(new HttpRequest<>("/v1/orders/" + i, "GET", String.class));
+		}
+
+		List<BatchResult<?>> results = client.executeAll(requests, new BatchOptions().parallelism(3).retainResults(false));
+
+		assertTrue(results.isEmpty());
+		assertTrue(maxInFlight.get() <= 3, "max in flight was " + maxInFlight.get());
+		verify(12, getRequestedFor(urlMatching("/v1/orders/\\d+")));
+	}
+
+	@Test
+	public void testExecuteAll_streamsResultsInOrderOrAsTheyComplete() throws IOException {
+		stubFor(WireMock.get(urlMatching("/v1/orders/\\d+"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withHeader("Connection", "close").withBody("order")));
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/0"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(300)
+						.withHeader("Content-Type", "text/plain").withHeader("Connection", "close").withBody("slow order")));
+		HttpClient client = new HttpClient(environment());
+
+		List<HttpRequest<String>> requests = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			requests.add(new HttpRequest<>("/v1/orders/" + i, "GET", String.class));
+		}
+
+		List<Integer> ordered = new ArrayList<>();
+		client.executeAll(requests, new BatchOptions().parallelism(4).ordered(true).onResult(result -> ordered.add(result.index())));
+		assertEquals(ordered, Arrays.asList(0, 1, 2, 3));
+
+		List<Integer> unordered = new ArrayList<>();
+		client.executeAll(requests, new BatchOptions().parallelism(4).onResult(result -> unordered.add(result.index())));
+		assertEquals(unordered.size(), 4);
+		assertEquals(unordered.get(3), Integer.valueOf(0));
+	}
+
+	@Test
+	public void testExecuteAll_orderedDeliveryHoldsBackAtMostParallelismResults() throws IOException {
+		stubFor(WireMock.get(urlMatching("/v1/orders/\\d+"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withHeader("Connection", "close").withBody("order")));
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/0"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(300)
+						.withHeader("Content-Type", "text/plain").withHeader("Connection", "close").withBody("slow order")));
+		HttpClient client = new HttpClient(environment());
+		AtomicInteger started = new AtomicInteger();
+		client.addListener(new HttpClientListener() {
+			@Override
+			public void callStart(HttpRequest<?> request) {
+				started.incrementAndGet();
+			}
+		});
+
+		List<HttpRequest<String>> requests = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			requests.add(new HttpRequest<>("/v1/orders/" + i, "GET", String.class));
+		}
+		AtomicInteger startedBeforeHead = new AtomicInteger();
+		List<Integer> delivered = new ArrayList<>();
+
+		client.executeAll(requests, new BatchOptions().parallelism(2).ordered(true).retainResults(false).onResult(result -> {
+			if (result.index() == 0) {
+				startedBeforeHead.set(started.get());
+			}
+			delivered.add(result.index());
+		}));
+
+		assertEquals(startedBeforeHead.get(), 2);
+		assertEquals(delivered, Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7));
+	}
+
+	@Test
+	public void testExecuteAll_keepsDeliveringAfterCallbackThrows() throws IOException {
+		stubFor(WireMock.get(urlMatching("/v1/orders/\\d+"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withHeader("Connection", "close").withBody("order")));
+		HttpClient client = new HttpClient(environment());
+
+		List<HttpRequest<String>> requests = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			requests.add(new HttpRequest<>("/v1/orders/" + i, "GET", String.class));
+		}
+		List<Integer> delivered = new ArrayList<>();
+
+		try {
+			client.executeAll(requests, new BatchOptions().parallelism(4).ordered(true).onResult(result -> {
+				delivered.add(result.index());
+				if (result.index() == 1) {
+					throw new IllegalStateException("consumer failed");
+				}
+			}));
+			fail("Expected the consumer's exception once the batch is done");
+		} catch (IllegalStateException e) {
+			assertEquals(e.getMessage(), "consumer failed");
+		}
+		assertEquals(delivered, Arrays.asList(0, 1, 2, 3));
+	}
+}
@@ -2,12 +2,15 @@ package com.paypal.http;
 
 import com.paypal.http.multipart.FormPart;
 import com.paypal.http.multipart.MultipartBody;
+import com.paypal.http.serializer.StreamUtils;
+import com.paypal.http.transport.RequestBody;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -240,6 +243,62 @@ public class EncoderTest {
 		assertNotSame(s, "");
 	}
 
+	@Test
+	public void testEncoder_serializeRequestBody_json_hasContentLength() throws IOException {
+		HttpRequest<Void> request = new HttpRequest("/", "POST", Void.class);
+		request.header("Content-Type", "application/json");
+		request.requestBody(new Zoo("Brian Tree", 10, null));
+
+		Encoder encoder = new Encoder();
+		RequestBody body = encoder.serializeRequestBody(request);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		body.writeTo(os);
+		assertEquals(os.size(), body.contentLength());
+		assertEquals(new String(encoder.serializeRequest(request)), os.toString("UTF-8"));
+	}
+
+	@Test
+	public void testEncoder_serializeRequestBody_multipart_streamsRepeatably() throws IOException {
+		HttpRequest<Void> request = new HttpRequest("/", "POST", Void.class);
+		request.header("Content-Type", "multipart/form-data");
+		request.requestBody(new MultipartBody(new FormPart("Key", "Value")));
+
+		RequestBody body = new Encoder().serializeRequestBody(request);
+
+		String contentType = request.headers().header("Content-Type");
+		assertTrue(contentType.startsWith("multipart/form-data; boundary="));
+
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		body.writeTo(first);
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		body.writeTo(second);
+
+		String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+		assertTrue(first.toString("UTF-8").contains("Value"));
+		assertTrue(first.toString("UTF-8").endsWith("--" + boundary + "--\r\n\r\n"));
+		assertEquals(first.toString("UTF-8"), second.toString("UTF-8"));
+		assertEquals(first.size(), body.contentLength());
+	}
+
+	@Test
+	public void testEncoder_serializeRequestBody_gzipsMultipartBody() throws IOException {
+		HttpRequest<Void> request = new HttpRequest("/", "POST", Void.class);
+		request.header("Content-Type", "multipart/form-data");
+		request.header("Content-Encoding", "gzip");
+		request.requestBody(new MultipartBody(new FormPart("Key", "Value")));
+
+		RequestBody body = new Encoder().serializeRequestBody(request);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		body.writeTo(os);
+		assertEquals(os.size(), body.contentLength());
+
+		String decoded = StreamUtils.readStream(new ByteArrayInputStream(os.toByteArray()), "gzip");
+		assertTrue(decoded.contains("Content-Disposition: form-data; name=\"Key\""));
+		assertTrue(decoded.contains("Value"));
+	}
+
 	@Test
 	public void testEncoder_encode_formEncoded() throws IOException {
 		HttpRequest<Void> request = new HttpRequest("/", "POST", Void.class);
@@ -256,4 +315,40 @@ public class EncoderTest {
 
 		assertNotSame("", s);
 	}
+
+	@Test
+	public void testEncoder_decode_json_honoursCharset() throws IOException {
+		String response = "{\"name\":\"Caf\u00e9\"}";
+		Headers headers = new Headers();
+		headers.header("Content-Type", "application/json; charset=ISO-8859-1");
+
+		Zoo s = new Encoder().deserializeResponse(new ByteArrayInputStream(response.getBytes(StandardCharsets.ISO_8859_1)), Zoo.class, headers);
+
+		assertEquals("Caf\u00e9", s.name);
+	}
+
+	@Test
+	public void testEncoder_decode_returnsNullForEmptyBody() throws IOException {
+		Headers headers = new Headers();
+
+		Zoo s = new Encoder().deserializeResponse(new ByteArrayInputStream(new byte[0]), Zoo.class, headers);
+
+		assertNull(s);
+	}
+
+	@Test
+	public void testEncoder_decode_jsonWithGzip() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		GZIPOutputStream gzos = new GZIPOutputStream(bos);
+		gzos.write("{\"name\":\"Brian Tree\"}".getBytes());
+		gzos.close();
+
+		Headers headers = new Headers();
+		headers.header("Content-Type", "application/json");
+		headers.header("Content-Encoding", "gzip");
+
+		Zoo s = new Encoder().deserializeResponse(new ByteArrayInputStream(bos.toByteArray()), Zoo.class, headers);
+
+		assertEquals("Brian Tree", s.name);
+	}
 }
@@ -18,6 +18,11 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.HttpURLConnection;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -108,6 +113,28 @@ public class HttpClientTest extends BasicWireMockHarness {
 		}
 	}
 
+	@Test
+	public void testHttpClient_execute_exposesErrorBodyOfUnauthorizedPost() throws IOException {
+		HttpRequest<String> request = new HttpRequest<>("/", "POST", String.class)
+				.header("Content-Type", "application/json")
+				.requestBody("{\"amount\": \"10.00\"}");
+
+		String body = "{\"error\": \"invalid_token\"}";
+		stubFor(WireMock.post(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(401)
+						.withHeader("Content-Type", "application/json")
+						.withBody(body)));
+
+		try {
+			client.execute(request);
+			fail("We should always be throwing an exception");
+		} catch (HttpException ex) {
+			assertEquals(ex.statusCode(), 401);
+			assertEquals(ex.getMessage(), body);
+		}
+	}
+
 	@Test(dataProvider = "getSuccessCode")
 	public void testHttpClient_execute_returnsSuccess(final int statusCode) throws IOException {
 		HttpRequest<String> request = simpleRequest();
@@ -351,6 +378,64 @@ public class HttpClientTest extends BasicWireMockHarness {
 		assertEquals(1, client.mInjectors.size());
 	}
 
+	@Test
+	public void testHttpClient_addInjector_duringExecuteAppliesToLaterCalls() throws IOException {
+		Injector late = request -> request.header("Late", "true");
+		client.addInjector(request -> client.addInjector(late));
+
+		HttpRequest<String> request = simpleRequest();
+		stub(request, null);
+
+		client.execute(request);
+		verify(0, getRequestedFor(urlEqualTo("/")).withHeader("Late", equalTo("true")));
+
+		client.execute(request);
+		verify(1, getRequestedFor(urlEqualTo("/")).withHeader("Late", equalTo("true")));
+	}
+
+	@Test
+	public void testHttpClient_injectors_canBeRemovedAndReordered() throws IOException {
+		Injector first = request -> request.header("Order", "first");
+		Injector second = request -> request.header("Order", "second");
+		client.addInjector(first);
+		client.addInjector(0, second);
+
+		assertEquals(client.injectors().get(0), second);
+		assertEquals(client.injectors().size(), 3);
+		assertTrue(client.removeInjector(second));
+		assertFalse(client.removeInjector(second));
+
+		List<Injector> reordered = new ArrayList<>(client.injectors());
+		reordered.add(0, second);
+		client.setInjectors(reordered);
+
+		HttpRequest<String> request = simpleRequest();
+		stub(request, null);
+		client.execute(request);
+
+		verify(getRequestedFor(urlEqualTo("/")).withHeader("Order", equalTo("first")));
+	}
+
+	@Test
+	public void testHttpClient_injectorEnd_timesEachInjector() throws IOException {
+		Injector custom = request -> request.header("Custom", "true");
+		client.addInjector(custom);
+		List<Injector> timed = new ArrayList<>();
+		client.addListener(new HttpClientListener() {
+			@Override
+			public void injectorEnd(HttpRequest<?> request, Injector injector, long durationNanos) {
+				assertTrue(durationNanos >= 0);
+				timed.add(injector);
+			}
+		});
+
+		HttpRequest<String> request = simpleRequest();
+		stub(request, null);
+		client.execute(request);
+
+		assertEquals(timed, client.injectors());
+	}
+
 	@Test
 	public void testHttpClient_parseResponseHeaders_returnsParsedHeaders() throws IOException {
 		HttpURLConnection connection = mock(HttpURLConnection.class);
@@ -470,6 +555,164 @@ public class HttpClientTest extends BasicWireMockHarness {
 		}
 	}
 
+	@Test
+	public void testHttpClient_executeAsync_completesWithResponse() throws Exception {
+		HttpRequest<Zoo> request = new HttpRequest<>("/", "GET", Zoo.class);
+
+		Zoo zoo = new Zoo();
+		zoo.name = "Brian Tree";
+
+		stub(request, new HttpResponse<>(new Headers().header("Content-Type", "application/json"), 200, zoo));
+
+		HttpResponse<Zoo> actualResponse = client.executeAsync(request).get(5, TimeUnit.SECONDS);
+		assertEquals(200, actualResponse.statusCode());
+		assertEquals("Brian Tree", actualResponse.result().name);
+	}
+
+	@Test
+	public void testHttpClient_executeAsync_completesExceptionallyWithHttpException() throws Exception {
+		HttpRequest<String> request = simpleRequest();
+		stub(request, new HttpResponse<>(null, HTTP_UNAUTHORIZED, null));
+
+		try {
+			client.executeAsync(request).get(5, TimeUnit.SECONDS);
+			fail("Expected executeAsync to complete exceptionally");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof HttpException);
+			assertEquals(HTTP_UNAUTHORIZED, ((HttpException) e.getCause()).statusCode());
+		}
+	}
+
+	@Test
+	public void testHttpClient_executeAsync_runsInjectorsOnConfiguredExecutor() throws Exception {
+		List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "custom-executor"));
+		client.setExecutor(executor);
+		client.addInjector(request -> threadNames.add(Thread.currentThread().getName()));
+
+		HttpRequest<String> request = simpleRequest();
+		stub(request, null);
+
+		try {
+			client.executeAsync(request).get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(Collections.singletonList("custom-executor"), threadNames);
+	}
+
+	@Test
+	public void testHttpClient_executeAsync_slowCallsDoNotHoldTheClientExecutor() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/slow"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(300)
+						.withHeader("Content-Type", "text/plain").withBody("slow")));
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		client.setExecutor(executor);
+
+		try {
+			long start = System.nanoTime();
+			List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				calls.add(client.executeAsync(new HttpRequest<>("/slow", "GET", String.class)));
+			}
+			for (CompletableFuture<HttpResponse<String>> call : calls) {
+				assertEquals("slow", call.get(5, TimeUnit.SECONDS).result());
+			}
+
+			// Run one after another on the single client thread, the calls would take 1.2 s
+			assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testHttpClient_executeAsync_awaitsAsyncInjectorsInOrder() throws Exception {
+		List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "custom-executor"));
+		ExecutorService signer = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "signer"));
+		client.setExecutor(executor);
+		client.addInjector((AsyncInjector) request -> CompletableFuture.runAsync(() -> request.header("Signature", "signed"), signer));
+		client.addInjector(request -> {
+			threadNames.add(Thread.currentThread().getName());
+			request.header("Signed", request.headers().header("Signature"));
+		});
+
+		HttpRequest<String> request = simpleRequest();
+		stub(request, null);
+
+		try {
+			client.executeAsync(request).get(5, TimeUnit.SECONDS);
+			client.execute(request);
+		} finally {
+			executor.shutdown();
+			signer.shutdown();
+		}
+
+		assertEquals("custom-executor", threadNames.get(0));
+		verify(2, getRequestedFor(urlEqualTo("/")).withHeader("Signed", equalTo("signed")));
+	}
+
+	@Test
+	public void testHttpClient_executeAsync_failsWhenAsyncInjectorFails() throws Exception {
+		client.addInjector((AsyncInjector) request -> {
+			CompletableFuture<Void> failed = new CompletableFuture<>();
+			failed.completeExceptionally(new IOException("signer unavailable"));
+			return failed;
+		});
+
+		try {
+			client.executeAsync(simpleRequest()).get(5, TimeUnit.SECONDS);
+			fail("Expected the injector's failure");
+		} catch (ExecutionException e) {
+			assertEquals("signer unavailable", e.getCause().getMessage());
+		}
+
+		try {
+			client.execute(simpleRequest());
+			fail("Expected the injector's failure");
+		} catch (IOException e) {
+			assertEquals("signer unavailable", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testHttpClient_execute_notifiesListenersOfEachPhase() throws IOException {
+		RecordingListener listener = new RecordingListener();
+		client.addListener(listener);
+
+		HttpRequest<String> request = new HttpRequest<>("/", "POST", String.class)
+				.header(Headers.CONTENT_TYPE, "text/plain")
+				.requestBody("some data");
+		stubFor(WireMock.post(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withBody("some response")));
+
+		client.execute(request);
+
+		assertEquals(Arrays.asList("callStart", "injectorsEnd", "requestEncoded 9", "requestSent 9",
+				"responseHeadersEnd 200", "responseBodyEnd 13", "callEnd 200"), listener.events);
+	}
+
+	@Test
+	public void testHttpClient_executeAsync_notifiesListenersOfFailure() throws Exception {
+		RecordingListener listener = new RecordingListener();
+		client.addListener(listener);
+
+		HttpRequest<String> request = simpleRequest();
+		stub(request, new HttpResponse<>(null, HTTP_UNAUTHORIZED, null));
+
+		try {
+			client.executeAsync(request).get(5, TimeUnit.SECONDS);
+			fail("Expected executeAsync to complete exceptionally");
+		} catch (ExecutionException expected) {}
+
+		assertEquals("callFailed HttpException", listener.events.get(listener.events.size() - 1));
+	}
+
 	@DataProvider(name = "getVerbs")
 	public Object[][] getVerbs() {
 		return new Object[][]{
@@ -502,6 +745,51 @@ public class HttpClientTest extends BasicWireMockHarness {
 		return new HttpRequest<>("/", "GET", String.class);
 	}
 
+	private static class RecordingListener implements HttpClientListener {
+
+		private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+		@Override
+		public void callStart(HttpRequest<?> request) {
+			events.add("callStart");
+		}
+
+		@Override
+		public void injectorsEnd(HttpRequest<?> request, long durationNanos) {
+			events.add("injectorsEnd");
+		}
+
+		@Override
+		public void requestEncoded(HttpRequest<?> request, long contentLength, long durationNanos) {
+			events.add("requestEncoded " + contentLength);
+		}
+
+		@Override
+		public void requestSent(HttpRequest<?> request, long bodyBytes, long durationNanos) {
+			events.add("requestSent " + bodyBytes);
+		}
+
+		@Override
+		public void responseHeadersEnd(HttpRequest<?> request, int statusCode, long durationNanos) {
+			events.add("responseHeadersEnd " + statusCode);
+		}
+
+		@Override
+		public void responseBodyEnd(HttpRequest<?> request, long bodyBytes, long readNanos, long decodeNanos) {
+			events.add("responseBodyEnd " + bodyBytes);
+		}
+
+		@Override
+		public void callEnd(HttpRequest<?> request, int statusCode, long durationNanos) {
+			events.add("callEnd " + statusCode);
+		}
+
+		@Override
+		public void callFailed(HttpRequest<?> request, IOException e, long durationNanos) {
+			events.add("callFailed " + e.getClass().getSimpleName());
+		}
+	}
+
 	private class SampleObject {
 		public SampleObject() {}
 
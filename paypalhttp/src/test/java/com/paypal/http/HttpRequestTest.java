@@ -3,6 +3,7 @@ package com.paypal.http;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 
 public class HttpRequestTest {
@@ -15,4 +16,18 @@ public class HttpRequestTest {
 		assertNotNull(request.headers().header("key"));
 		assertEquals("value", request.headers().header("key"));
 	}
+
+	@Test
+	public void testHttpRequest_idempotencyKey_isNotCopied() {
+		HttpRequest<String> template = new HttpRequest<>("/", "POST", String.class);
+		HttpRequest<String> first = template.copy();
+		HttpRequest<String> second = template.copy();
+
+		String key = first.idempotencyKey();
+		assertNotNull(key);
+		assertEquals(first.idempotencyKey(), key);
+		assertNotEquals(second.idempotencyKey(), key);
+		assertNotEquals(template.idempotencyKey(), key);
+		assertNotEquals(first.copy().idempotencyKey(), key);
+	}
 }
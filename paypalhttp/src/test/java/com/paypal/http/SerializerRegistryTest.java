@@ -0,0 +1,95 @@
+package com.paypal.http;
+
+import com.paypal.http.serializer.FormEncoded;
+import com.paypal.http.serializer.Json;
+import com.paypal.http.serializer.Multipart;
+import com.paypal.http.serializer.Serializer;
+import com.paypal.http.serializer.Text;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+public class SerializerRegistryTest {
+
+	private SerializerRegistry registry;
+
+	@BeforeMethod
+	public void setup() {
+		registry = new SerializerRegistry();
+		registry.register(new Json());
+		registry.register(new Text());
+		registry.register(new Multipart());
+		registry.register(new FormEncoded());
+	}
+
+	@Test
+	public void testSerializerRegistry_resolvesExactAndPatternTypes() {
+		assertTrue(registry.serializer("application/json") instanceof Json);
+		assertTrue(registry.serializer("application/json; charset=utf-8") instanceof Json);
+		assertTrue(registry.serializer("text/html") instanceof Text);
+		assertTrue(registry.serializer("multipart/form-data; boundary=abc") instanceof Multipart);
+		assertTrue(registry.serializer("application/x-www-form-urlencoded") instanceof FormEncoded);
+	}
+
+	@Test
+	public void testSerializerRegistry_returnsNullForUnsupportedTypes() {
+		assertNull(registry.serializer("application/xml"));
+		assertNull(registry.serializer("application/jsonp"));
+		assertNull(registry.serializer("not application/json"));
+	}
+
+	@Test
+	public void testSerializerRegistry_firstRegisteredMatchWins() {
+		Serializer html = new StubSerializer("^text\\/html");
+		registry.register(html);
+
+		assertTrue(registry.serializer("text/html") instanceof Text);
+
+		SerializerRegistry preferHtml = new SerializerRegistry();
+		preferHtml.register(html);
+		preferHtml.register(new Text());
+
+		assertSame(preferHtml.serializer("text/html"), html);
+		assertTrue(preferHtml.serializer("text/plain") instanceof Text);
+	}
+
+	@Test
+	public void testSerializerRegistry_registerInvalidatesResolvedTypes() {
+		assertNull(registry.serializer("application/xml"));
+
+		Serializer xml = new StubSerializer("^application\\/xml");
+		registry.register(xml);
+
+		assertSame(registry.serializer("application/xml"), xml);
+		assertEquals(registry.supportedEncodings(), Arrays.asList(
+				"^application\\/json", "^text\\/.*", "^multipart\\/.*", "^application/x-www-form-urlencoded", "^application\\/xml"));
+	}
+
+	private static class StubSerializer implements Serializer {
+
+		private final String contentType;
+
+		StubSerializer(String contentType) {
+			this.contentType = contentType;
+		}
+
+		@Override
+		public String contentType() {
+			return contentType;
+		}
+
+		@Override
+		public byte[] encode(HttpRequest request) throws IOException {
+			return new byte[0];
+		}
+
+		@Override
+		public <T> T decode(String source, Class<T> cls) throws IOException {
+			return null;
+		}
+	}
+}
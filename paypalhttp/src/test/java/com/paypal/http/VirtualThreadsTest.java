@@ -0,0 +1,20 @@
+package com.paypal.http;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class VirtualThreadsTest {
+
+	@Test
+	public void testVirtualThreads_newExecutor_isUnsupportedOnJava8Classes() {
+		// Tests load the classes in src/main/java, not the JDK 21 ones of the multi-release jar
+		assertFalse(VirtualThreads.isSupported());
+		try {
+			VirtualThreads.newExecutor();
+			fail("Expected virtual threads to be unsupported");
+		} catch (UnsupportedOperationException e) {
+			assertEquals(e.getMessage(), "Virtual threads require JDK 21 or later");
+		}
+	}
+}
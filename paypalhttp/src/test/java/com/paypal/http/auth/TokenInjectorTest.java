@@ -0,0 +1,176 @@
+package com.paypal.http.auth;
+
+import com.paypal.http.Headers;
+import com.paypal.http.HttpRequest;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class TokenInjectorTest {
+
+	@Test
+	public void testTokenInjector_inject_cachesToken() throws IOException {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenInjector injector = new TokenInjector(() -> new AccessToken("token-" + fetches.incrementAndGet(), 1, TimeUnit.HOURS));
+
+		HttpRequest<String> first = new HttpRequest<>("/v1/orders", "GET", String.class);
+		HttpRequest<String> second = new HttpRequest<>("/v1/orders", "GET", String.class);
+		HttpRequest<String> explicit = new HttpRequest<>("/v1/orders", "GET", String.class).header("Authorization", "Basic abc");
+		injector.inject(first);
+		injector.inject(second);
+		injector.inject(explicit);
+
+		assertEquals(first.headers().header(Headers.AUTHORIZATION), "Bearer token-1");
+		assertEquals(second.headers().header(Headers.AUTHORIZATION), "Bearer token-1");
+		assertEquals(explicit.headers().header(Headers.AUTHORIZATION), "Basic abc");
+		assertEquals(fetches.get(), 1);
+	}
+
+	@Test
+	public void testTokenInjector_injectAsync_waitsForFirstToken() throws Exception {
+		CompletableFuture<Void> release = new CompletableFuture<>();
+		TokenInjector injector = new TokenInjector(() -> {
+			release.join();
+			return new AccessToken("token", 1, TimeUnit.HOURS);
+		});
+
+		HttpRequest<String> request = new HttpRequest<>("/v1/orders", "GET", String.class);
+		CompletableFuture<Void> injected = injector.injectAsync(request).toCompletableFuture();
+		assertFalse(injected.isDone());
+
+		release.complete(null);
+		injected.get(1, TimeUnit.SECONDS);
+		assertEquals(request.headers().header(Headers.AUTHORIZATION), "Bearer token");
+		assertTrue(injector.injectAsync(new HttpRequest<>("/v1/orders", "GET", String.class)).toCompletableFuture().isDone());
+	}
+
+	@Test
+	public void testTokenInjector_token_refreshesInBackgroundBeforeExpiry() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenInjector injector = new TokenInjector(() -> new AccessToken("token-" + fetches.incrementAndGet(), 400, TimeUnit.MILLISECONDS))
+				.refreshAhead(1, TimeUnit.MINUTES);
+
+		assertEquals(injector.token().value(), "token-1");
+		Thread.sleep(250);
+
+		assertEquals(injector.token().value(), "token-1");
+		for (int i = 0; i < 100 && !injector.token().value().equals("token-2"); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(injector.token().value(), "token-2");
+		assertEquals(fetches.get(), 2);
+	}
+
+	@Test
+	public void testTokenInjector_token_keepsTokenWhileRefreshFails() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenInjector injector = new TokenInjector(() -> {
+			if (fetches.incrementAndGet() > 1) {
+				throw new IOException("token endpoint down");
+			}
+			return new AccessToken("token-1", 400, TimeUnit.MILLISECONDS);
+		}).retryInterval(1, TimeUnit.MINUTES);
+
+		injector.token();
+		Thread.sleep(250);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(injector.token().value(), "token-1");
+			Thread.sleep(10);
+		}
+		assertEquals(fetches.get(), 2, "a failed refresh must not be retried before the retry interval");
+
+		Thread.sleep(200);
+		try {
+			injector.token();
+			fail("Expected the expired token to need a new one");
+		} catch (IOException e) {
+			assertEquals(e.getMessage(), "token endpoint down");
+		}
+	}
+
+	@Test
+	public void testTokenInjector_token_sharesOneFetch() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		TokenInjector injector = new TokenInjector(() -> {
+			fetches.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return new AccessToken("token", 1, TimeUnit.HOURS);
+		});
+
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<AccessToken>> tokens = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				tokens.add(threads.submit(injector::token));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<AccessToken> token : tokens) {
+				assertEquals(token.get(1, TimeUnit.SECONDS).value(), "token");
+			}
+		} finally {
+			threads.shutdownNow();
+		}
+		assertEquals(fetches.get(), 1);
+
+		injector.invalidate();
+		injector.token();
+		assertEquals(fetches.get(), 2);
+	}
+
+	@Test
+	public void testTokenInjector_token_fetchesAgainAfterProviderError() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenInjector injector = new TokenInjector(() -> {
+			if (fetches.incrementAndGet() == 1) {
+				throw new AssertionError("provider broke");
+			}
+			return new AccessToken("token", 1, TimeUnit.HOURS);
+		});
+
+		try {
+			injector.token();
+			fail("Expected the provider's error");
+		} catch (AssertionError e) {
+			assertEquals(e.getMessage(), "provider broke");
+		}
+
+		assertEquals(injector.token().value(), "token");
+		assertEquals(fetches.get(), 2);
+	}
+
+	@Test
+	public void testTokenInjector_refresh_cancellingDoesNotAffectOtherCallers() throws Exception {
+		CompletableFuture<Void> release = new CompletableFuture<>();
+		TokenInjector injector = new TokenInjector(() -> {
+			release.join();
+			return new AccessToken("token", 1, TimeUnit.HOURS);
+		});
+
+		CompletableFuture<AccessToken> cancelled = injector.refresh();
+		CompletableFuture<AccessToken> waiting = injector.refresh();
+		cancelled.cancel(true);
+		release.complete(null);
+
+		assertEquals(waiting.get(1, TimeUnit.SECONDS).value(), "token");
+		assertEquals(injector.token().value(), "token");
+	}
+}
@@ -0,0 +1,144 @@
+package com.paypal.http.cache;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.Headers;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.HttpResponse;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.metrics.MetricsListener;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class RequestCoalescerTest extends BasicWireMockHarness {
+
+	@Test
+	public void testRequestCoalescer_join_leadsAndFollows() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		HttpRequest<String> request = new HttpRequest<>("/v1/orders/1", "GET", String.class);
+
+		RequestCoalescer.Flight leader = coalescer.join("https://api", request);
+		RequestCoalescer.Flight follower = coalescer.join("https://api", request.copy());
+		assertTrue(leader.isLeader());
+		assertFalse(follower.isLeader());
+		assertTrue(coalescer.join("https://api", request.copy().header("Authorization", "Bearer other")).isLeader());
+		assertTrue(coalescer.join("https://api", new HttpRequest<>("/v1/orders/1", "GET", Void.class)).isLeader());
+		assertNull(coalescer.join("https://api", new HttpRequest<>("/v1/orders/1", "POST", String.class)));
+		assertEquals(coalescer.inFlight(), 3);
+
+		follower.complete(200, new Headers(), new byte[0]);
+		assertFalse(follower.result().isDone());
+		leader.abandon();
+		try {
+			follower.result().get(1, TimeUnit.SECONDS);
+			fail("Expected the abandoned flight to fail its followers");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+		assertEquals(coalescer.inFlight(), 2);
+		assertTrue(coalescer.join("https://api", request.copy()).isLeader());
+	}
+
+	@Test
+	public void testRequestCoalescer_execute_sharesOneCall() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(500)
+						.withHeader("Content-Type", "text/plain").withBody("order 1")));
+		HttpClient client = new HttpClient(environment());
+		RequestCoalescer coalescer = new RequestCoalescer();
+		client.setRequestCoalescer(coalescer);
+		MetricsListener metrics = new MetricsListener();
+		client.addListener(metrics);
+
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				responses.add(threads.submit(() -> client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class))));
+			}
+			CompletableFuture<HttpResponse<String>> async = client.executeAsync(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+
+			for (Future<HttpResponse<String>> response : responses) {
+				assertEquals(response.get(5, TimeUnit.SECONDS).result(), "order 1");
+			}
+			assertEquals(async.get(5, TimeUnit.SECONDS).result(), "order 1");
+		} finally {
+			threads.shutdownNow();
+		}
+
+		verify(1, getRequestedFor(urlEqualTo("/v1/orders/1")));
+		assertEquals(metrics.endpoint("GET", "/v1/orders/{id}").coalescedCalls(), 4);
+		assertEquals(coalescer.inFlight(), 0);
+	}
+
+	@Test
+	public void testRequestCoalescer_execute_sharesFailures() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(404).withFixedDelay(500).withBody("not found")));
+		HttpClient client = new HttpClient(environment());
+		client.setRequestCoalescer(new RequestCoalescer());
+
+		CompletableFuture<HttpResponse<String>> first = client.executeAsync(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+		CompletableFuture<HttpResponse<String>> second = client.executeAsync(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+
+		for (CompletableFuture<HttpResponse<String>> call : Arrays.asList(first, second)) {
+			try {
+				call.get(5, TimeUnit.SECONDS);
+				fail("Expected the 404 to be shared");
+			} catch (ExecutionException e) {
+				assertEquals(((HttpException) e.getCause()).statusCode(), 404);
+			}
+		}
+		verify(1, getRequestedFor(urlEqualTo("/v1/orders/1")));
+
+		try {
+			client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+			fail("Expected a new call after the flight landed");
+		} catch (HttpException expected) {}
+		verify(2, getRequestedFor(urlEqualTo("/v1/orders/1")));
+	}
+
+	@Test
+	public void testRequestCoalescer_execute_decodesForEachFollower() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(500)
+						.withHeader("Content-Type", "text/plain").withHeader("ETag", "\"v1\"").withBody("order 1")));
+		HttpClient client = new HttpClient(environment());
+		client.setRequestCoalescer(new RequestCoalescer());
+
+		List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			calls.add(client.executeAsync(new HttpRequest<>("/v1/orders/1", "GET", String.class)));
+		}
+		List<HttpResponse<String>> responses = new ArrayList<>();
+		for (CompletableFuture<HttpResponse<String>> call : calls) {
+			responses.add(call.get(5, TimeUnit.SECONDS));
+		}
+		verify(1, getRequestedFor(urlEqualTo("/v1/orders/1")));
+
+		responses.get(0).headers().header("ETag", "changed");
+		for (int i = 0; i < responses.size(); i++) {
+			assertEquals(responses.get(i).result(), "order 1");
+			for (int j = i + 1; j < responses.size(); j++) {
+				assertNotSame(responses.get(i).headers(), responses.get(j).headers());
+				assertNotSame(responses.get(i).result(), responses.get(j).result());
+			}
+		}
+		assertEquals(responses.get(1).headers().header("ETag"), "\"v1\"");
+	}
+}
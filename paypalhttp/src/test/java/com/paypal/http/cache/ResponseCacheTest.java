@@ -0,0 +1,270 @@
+package com.paypal.http.cache;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.Headers;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.HttpResponse;
+import com.paypal.http.metrics.EndpointMetrics;
+import com.paypal.http.metrics.MetricsListener;
+import com.paypal.http.transport.TransportRequest;
+import com.paypal.http.transport.TransportResponse;
+import com.paypal.http.transport.UrlConnectionTransport;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class ResponseCacheTest extends BasicWireMockHarness {
+
+	@Test
+	public void testResponseCache_freshnessLifetime() {
+		assertEquals(ResponseCache.freshnessMillis(new Headers().header("Cache-Control", "private, max-age=60")), 60000);
+		assertEquals(ResponseCache.freshnessMillis(new Headers().header("Cache-Control", "max-age=60").header("Age", "20")), 40000);
+		assertEquals(ResponseCache.freshnessMillis(new Headers().header("Cache-Control", "max-age=60, no-cache")), 0);
+		assertEquals(ResponseCache.freshnessMillis(new Headers()
+				.header("Date", "Sun, 06 Nov 1994 08:49:37 GMT")
+				.header("Expires", "Sun, 06 Nov 1994 08:59:37 GMT")), 600000);
+		assertEquals(ResponseCache.freshnessMillis(new Headers().header("Expires", "0")), 0);
+	}
+
+	@Test
+	public void testResponseCache_isStorable() {
+		ResponseCache cache = new ResponseCache();
+		HttpRequest<String> request = new HttpRequest<>("/v1/orders", "GET", String.class);
+
+		assertTrue(cache.isStorable(request, new Headers().header("Cache-Control", "max-age=60")));
+		assertTrue(cache.isStorable(request, new Headers().header("ETag", "\"v1\"")));
+		assertFalse(cache.isStorable(request, new Headers()));
+		assertFalse(cache.isStorable(request, new Headers().header("Cache-Control", "no-store, max-age=60")));
+		assertFalse(cache.isStorable(request, new Headers().header("Cache-Control", "max-age=60").header("Vary", "*")));
+		assertFalse(new ResponseCache(10, 100).isStorable(request,
+				new Headers().header("Cache-Control", "max-age=60").header("Content-Length", "101")));
+
+		request.header("Cache-Control", "no-store");
+		assertFalse(cache.isStorable(request, new Headers().header("Cache-Control", "max-age=60")));
+	}
+
+	@Test
+	public void testResponseCache_evictsLeastRecentlyUsed() {
+		ResponseCache cache = new ResponseCache(10, 10);
+		HttpRequest<String> request = new HttpRequest<>("/v1/orders", "GET", String.class);
+		Headers headers = new Headers().header("Cache-Control", "max-age=60");
+
+		cache.store("a", request, 200, headers, new byte[4]);
+		cache.store("b", request, 200, headers, new byte[4]);
+		assertNotNull(cache.lookup("a", request));
+		cache.store("c", request, 200, headers, new byte[4]);
+
+		assertEquals(cache.size(), 2);
+		assertEquals(cache.bytes(), 8);
+		assertNull(cache.lookup("b", request));
+		assertNotNull(cache.lookup("a", request));
+		assertNull(cache.store("d", request, 200, headers, new byte[11]));
+	}
+
+	@Test
+	public void testResponseCache_execute_servesFreshResponsesFromCache() throws IOException {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withHeader("Cache-Control", "max-age=60")
+						.withBody("order 1")));
+		HttpClient client = new HttpClient(environment());
+		ResponseCache cache = new ResponseCache();
+		client.setResponseCache(cache);
+		MetricsListener metrics = new MetricsListener();
+		client.addListener(metrics);
+
+		for (int i = 0; i < 3; i++) {
+			HttpResponse<String> response = client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+			assertEquals(response.statusCode(), 200);
+			assertEquals(response.result(), "order 1");
+			assertEquals(response.headers().header("Cache-Control"), "max-age=60");
+		}
+
+		verify(1, getRequestedFor(urlEqualTo("/v1/orders/1")));
+		assertEquals(cache.hits(), 2);
+		assertEquals(cache.misses(), 1);
+		EndpointMetrics endpoint = metrics.endpoint("GET", "/v1/orders/{id}");
+		assertEquals(endpoint.cacheHits(), 2);
+		assertEquals(endpoint.calls(), 3);
+	}
+
+	@Test
+	public void testResponseCache_execute_revalidatesWithETag() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1")).atPriority(2)
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withHeader("Cache-Control", "no-cache")
+						.withHeader("ETag", "\"v1\"")
+						.withBody("order 1")));
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1")).atPriority(1)
+				.withHeader("If-None-Match", equalTo("\"v1\""))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(304).withHeader("ETag", "\"v1\"")));
+		HttpClient client = new HttpClient(environment());
+		ResponseCache cache = new ResponseCache();
+		client.setResponseCache(cache);
+
+		client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+		HttpResponse<String> revalidated = client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+		HttpResponse<String> revalidatedAsync = client.executeAsync(new HttpRequest<>("/v1/orders/1", "GET", String.class))
+				.get(5, TimeUnit.SECONDS);
+
+		assertEquals(revalidated.statusCode(), 200);
+		assertEquals(revalidated.result(), "order 1");
+		assertEquals(revalidatedAsync.result(), "order 1");
+		verify(2, getRequestedFor(urlEqualTo("/v1/orders/1")).withHeader("If-None-Match", equalTo("\"v1\"")));
+		assertEquals(cache.hits(), 0);
+		assertEquals(cache.revalidations(), 2);
+	}
+
+	@Test
+	public void testResponseCache_lookup_honoursVaryAndRequestDirectives() {
+		ResponseCache cache = new ResponseCache();
+		Headers headers = new Headers().header("Cache-Control", "max-age=60").header("Vary", "Accept-Language");
+		cache.store("a", new HttpRequest<>("/v1/orders", "GET", String.class).header("Accept-Language", "en"), 200, headers, new byte[4]);
+
+		assertTrue(cache.lookup("a", new HttpRequest<>("/v1/orders", "GET", String.class).header("accept-language", "en")).isFresh());
+		assertNull(cache.lookup("a", new HttpRequest<>("/v1/orders", "GET", String.class).header("Accept-Language", "de")));
+		assertNull(cache.lookup("a", new HttpRequest<>("/v1/orders", "GET", String.class)));
+		assertFalse(cache.lookup("a", new HttpRequest<>("/v1/orders", "GET", String.class)
+				.header("Accept-Language", "en").header("Cache-Control", "no-cache")).isFresh());
+		assertEquals(cache.hits(), 1);
+		assertEquals(cache.misses(), 3);
+	}
+
+	@Test
+	public void testResponseCache_execute_honoursNoStore() throws IOException {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/2"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withHeader("Cache-Control", "no-store")
+						.withBody("order 2")));
+		HttpClient client = new HttpClient(environment());
+		ResponseCache cache = new ResponseCache();
+		client.setResponseCache(cache);
+
+		client.execute(new HttpRequest<>("/v1/orders/2", "GET", String.class));
+		client.execute(new HttpRequest<>("/v1/orders/2", "GET", String.class));
+
+		verify(2, getRequestedFor(urlEqualTo("/v1/orders/2")));
+		assertEquals(cache.size(), 0);
+	}
+
+	@Test
+	public void testResponseCache_execute_unsafeVerbsInvalidate() throws IOException {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withHeader("Cache-Control", "max-age=60")
+						.withBody("order 1")));
+		stubFor(WireMock.delete(urlEqualTo("/v1/orders/1")).willReturn(new ResponseDefinitionBuilder().withStatus(204)));
+		HttpClient client = new HttpClient(environment());
+		ResponseCache cache = new ResponseCache();
+		client.setResponseCache(cache);
+
+		client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+		assertEquals(cache.size(), 1);
+		client.execute(new HttpRequest<>("/v1/orders/1", "DELETE", Void.class));
+		assertEquals(cache.size(), 0);
+		client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+
+		verify(2, getRequestedFor(urlEqualTo("/v1/orders/1")));
+	}
+
+	@Test
+	public void testResponseCache_execute_unsafeVerbsInvalidateEveryVariant() throws IOException {
+		stubFor(WireMock.get(urlMatching("/v1/catalogs/products/1.*"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withHeader("Cache-Control", "max-age=60")
+						.withBody("product 1")));
+		stubFor(WireMock.patch(urlEqualTo("/v1/catalogs/products/1")).willReturn(new ResponseDefinitionBuilder().withStatus(204)));
+		HttpClient client = new HttpClient(environment());
+		ResponseCache cache = new ResponseCache();
+		client.setResponseCache(cache);
+
+		client.execute(new HttpRequest<>("/v1/catalogs/products/1", "GET", String.class));
+		client.execute(new HttpRequest<>("/v1/catalogs/products/1?fields=name", "GET", String.class));
+		client.execute(new HttpRequest<>("/v1/catalogs/products/1", "GET", String.class).header("Authorization", "Bearer other"));
+		assertEquals(cache.size(), 3);
+		client.execute(new HttpRequest<>("/v1/catalogs/products/1", "PATCH", Void.class));
+		assertEquals(cache.size(), 0);
+		client.execute(new HttpRequest<>("/v1/catalogs/products/1?fields=name", "GET", String.class));
+
+		verify(2, getRequestedFor(urlEqualTo("/v1/catalogs/products/1?fields=name")));
+	}
+
+	@Test
+	public void testResponseCache_execute_keepsPrincipalsApart() throws IOException {
+		for (String token : new String[]{"a", "b"}) {
+			stubFor(WireMock.get(urlEqualTo("/v1/orders/1"))
+					.withHeader("Authorization", equalTo("Bearer " + token))
+					.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+							.withHeader("Content-Type", "text/plain")
+							.withHeader("Cache-Control", "max-age=60")
+							.withBody("order of " + token)));
+		}
+		stubFor(WireMock.delete(urlEqualTo("/v1/orders/1")).willReturn(new ResponseDefinitionBuilder().withStatus(204)));
+		HttpClient client = new HttpClient(environment());
+		ResponseCache cache = new ResponseCache();
+		client.setResponseCache(cache);
+
+		for (int i = 0; i < 2; i++) {
+			for (String token : new String[]{"a", "b"}) {
+				HttpResponse<String> response = client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class)
+						.header("Authorization", "Bearer " + token));
+				assertEquals(response.result(), "order of " + token);
+			}
+		}
+		verify(2, getRequestedFor(urlEqualTo("/v1/orders/1")));
+		assertEquals(cache.size(), 2);
+		assertEquals(cache.hits(), 2);
+
+		client.execute(new HttpRequest<>("/v1/orders/1", "DELETE", Void.class).header("Authorization", "Bearer a"));
+		assertEquals(cache.size(), 0);
+	}
+
+	@Test
+	public void testResponseCache_execute_servesNotModifiedAfterEviction() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1")).atPriority(2)
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withHeader("Cache-Control", "no-cache")
+						.withHeader("ETag", "\"v1\"")
+						.withBody("order 1")));
+		stubFor(WireMock.get(urlEqualTo("/v1/orders/1")).atPriority(1)
+				.withHeader("If-None-Match", equalTo("\"v1\""))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(304).withHeader("ETag", "\"v1\"")));
+		HttpClient client = new HttpClient(environment());
+		ResponseCache cache = new ResponseCache();
+		client.setResponseCache(cache);
+
+		client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+		client.setTransport(new UrlConnectionTransport() {
+			@Override
+			public TransportResponse send(TransportRequest request) throws IOException {
+				cache.clear();
+				return super.send(request);
+			}
+		});
+
+		HttpResponse<String> revalidated = client.execute(new HttpRequest<>("/v1/orders/1", "GET", String.class));
+		assertEquals(revalidated.statusCode(), 200);
+		assertEquals(revalidated.result(), "order 1");
+
+		cache.store(environment().baseUrl() + "/v1/orders/1", new HttpRequest<>("/v1/orders/1", "GET", String.class), 200,
+				new Headers().header("Cache-Control", "no-cache").header("ETag", "\"v1\"").header("Content-Type", "text/plain"),
+				"order 1".getBytes("UTF-8"));
+		HttpResponse<String> revalidatedAsync = client.executeAsync(new HttpRequest<>("/v1/orders/1", "GET", String.class))
+				.get(5, TimeUnit.SECONDS);
+		assertEquals(revalidatedAsync.result(), "order 1");
+		verify(2, getRequestedFor(urlEqualTo("/v1/orders/1")).withHeader("If-None-Match", equalTo("\"v1\"")));
+	}
+}
@@ -0,0 +1,25 @@
+package com.paypal.http.internal;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class PathTemplateTest {
+
+	@Test
+	public void testPathTemplate_replacesIdSegments() {
+		assertEquals(PathTemplate.of("/v2/checkout/orders/5O190127TN364715T/capture"), "/v2/checkout/orders/{id}/capture");
+		assertEquals(PathTemplate.of("/v1/customer/disputes/PP-000-042-663-135"), "/v1/customer/disputes/{id}");
+		assertEquals(PathTemplate.of("/v1/invoicing/invoices/12345?fields=all"), "/v1/invoicing/invoices/{id}");
+		assertEquals(PathTemplate.of("/v1/notifications/webhooks/7b92603e-77ed-4896-8e78-5dea2050476a/"), "/v1/notifications/webhooks/{id}/");
+	}
+
+	@Test
+	public void testPathTemplate_keepsPathsWithoutIds() {
+		String path = "/v2/checkout/orders";
+		assertSame(PathTemplate.of(path), path);
+		assertEquals(PathTemplate.of("/v1/oauth2/token?grant_type=client_credentials"), "/v1/oauth2/token");
+		assertEquals(PathTemplate.of("/"), "/");
+		assertEquals(PathTemplate.of(""), "");
+	}
+}
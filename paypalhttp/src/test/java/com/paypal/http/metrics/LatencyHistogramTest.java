@@ -0,0 +1,75 @@
+package com.paypal.http.metrics;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testLatencyHistogram_bucketsCoverRangeWithinThreePercent() {
+		int previous = -1;
+		for (long value = 0; value < 10_000_000; value = value * 11 / 10 + 1) {
+			int index = LatencyHistogram.index(value);
+			assertTrue(index >= previous);
+			previous = index;
+
+			long highest = LatencyHistogram.highestEquivalentValue(index);
+			assertTrue(highest >= value);
+			assertTrue(highest - value <= Math.max(1, value / 32), "value " + value + " reported as " + highest);
+		}
+
+		assertEquals(LatencyHistogram.highestEquivalentValue(LatencyHistogram.index(Long.MAX_VALUE)), Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testLatencyHistogram_percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value * 1000);
+		}
+
+		assertEquals(histogram.count(), 1000);
+		assertEquals(histogram.max(), 1_000_000);
+		assertEquals(histogram.mean(), 500_500, 0.1);
+		assertEquals(histogram.percentile(50), 500_000, 500_000 / 32);
+		assertEquals(histogram.percentile(99), 990_000, 990_000 / 32);
+		assertEquals(histogram.percentile(100), 1_000_000);
+	}
+
+	@Test
+	public void testLatencyHistogram_emptyAndReset() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(histogram.percentile(99), 0);
+		assertEquals(histogram.mean(), 0.0);
+
+		histogram.record(42);
+		histogram.reset();
+
+		assertEquals(histogram.count(), 0);
+		assertEquals(histogram.max(), 0);
+		assertEquals(histogram.percentile(50), 0);
+	}
+
+	@Test
+	public void testLatencyHistogram_recordsConcurrently() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			executor.execute(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					histogram.record(i);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(histogram.count(), 40_000);
+		assertEquals(histogram.max(), 9_999);
+	}
+}
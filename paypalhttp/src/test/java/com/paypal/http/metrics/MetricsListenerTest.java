@@ -0,0 +1,95 @@
+package com.paypal.http.metrics;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.Headers;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.metrics.EndpointMetrics.Phase;
+import com.paypal.http.transport.PooledTransport;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class MetricsListenerTest extends BasicWireMockHarness {
+
+	private PooledTransport transport;
+	private MetricsListener metrics;
+	private HttpClient client;
+
+	@BeforeMethod
+	public void setup() {
+		super.setup();
+		transport = new PooledTransport();
+		metrics = new MetricsListener();
+		client = new HttpClient(environment());
+		client.setTransport(transport);
+		client.addListener(metrics);
+	}
+
+	@AfterMethod
+	public void closeTransport() {
+		transport.close();
+	}
+
+	@Test
+	public void testMetricsListener_recordsPhasesPerEndpoint() throws IOException {
+		stubFor(WireMock.post(urlPathMatching("/v2/checkout/orders/.*/capture"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(201)
+						.withHeader("Content-Type", "text/plain")
+						.withBody("captured")));
+
+		for (String id : new String[]{"5O190127TN364715T", "8MC585209K746392H"}) {
+			client.execute(new HttpRequest<>("/v2/checkout/orders/" + id + "/capture", "POST", String.class)
+					.header(Headers.CONTENT_TYPE, "text/plain")
+					.requestBody("some data"));
+		}
+
+		assertEquals(metrics.endpoints().size(), 1);
+		EndpointMetrics capture = metrics.endpoint("POST", "/v2/checkout/orders/{id}/capture");
+		assertEquals(capture.calls(), 2);
+		assertEquals(capture.failures(), 0);
+		assertEquals(capture.newConnections(), 1);
+		assertEquals(capture.reusedConnections(), 1);
+		assertEquals(capture.bytesSent(), 18);
+		assertEquals(capture.bytesReceived(), 16);
+		assertEquals(capture.statusCodes().get(201), Long.valueOf(2));
+
+		for (Phase phase : new Phase[]{Phase.TOTAL, Phase.INJECTORS, Phase.ENCODE, Phase.CONNECTION_ACQUIRE,
+				Phase.REQUEST_SEND, Phase.TIME_TO_FIRST_BYTE, Phase.BODY_READ, Phase.DECODE}) {
+			assertEquals(capture.histogram(phase).count(), 2, phase.name());
+		}
+		assertEquals(capture.histogram(Phase.CONNECT).count(), 1);
+		assertEquals(capture.histogram(Phase.TLS_HANDSHAKE).count(), 0);
+		assertTrue(capture.histogram(Phase.TOTAL).max() >= capture.histogram(Phase.TIME_TO_FIRST_BYTE).max());
+	}
+
+	@Test
+	public void testMetricsListener_countsFailures() throws IOException {
+		stubFor(WireMock.get(urlPathEqualTo("/v1/invoicing/invoices/12345"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(404)
+						.withHeader("Content-Type", "text/plain")
+						.withBody("not found")));
+
+		try {
+			client.execute(new HttpRequest<>("/v1/invoicing/invoices/12345", "GET", String.class));
+			fail("Expected an HttpException");
+		} catch (HttpException expected) {}
+
+		EndpointMetrics invoices = metrics.endpoint("GET", "/v1/invoicing/invoices/{id}");
+		assertEquals(invoices.calls(), 1);
+		assertEquals(invoices.failures(), 1);
+		Map<Integer, Long> statusCodes = invoices.statusCodes();
+		assertEquals(statusCodes.get(404), Long.valueOf(1));
+	}
+}
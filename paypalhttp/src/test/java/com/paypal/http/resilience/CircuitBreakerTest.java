@@ -0,0 +1,214 @@
+package com.paypal.http.resilience;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.exceptions.CircuitOpenException;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class CircuitBreakerTest extends BasicWireMockHarness {
+
+	private HttpClient client;
+	private CircuitBreakerPolicy policy;
+
+	@BeforeMethod
+	public void setup() {
+		super.setup();
+		policy = new CircuitBreakerPolicy().minimumCalls(4).openDuration(1, TimeUnit.MINUTES);
+		client = new HttpClient(environment());
+		client.setCircuitBreakerPolicy(policy);
+	}
+
+	@Test
+	public void testCircuitBreaker_execute_failsFastOnceOpen() throws IOException {
+		stubStatus("/v1/orders/12345", 500);
+
+		for (int i = 0; i < 4; i++) {
+			expectStatus(new HttpRequest<>("/v1/orders/" + (12345 + i), "GET", String.class), 500);
+		}
+
+		try {
+			client.execute(new HttpRequest<>("/v1/orders/99999", "GET", String.class));
+			fail("Expected the circuit to be open");
+		} catch (CircuitOpenException e) {
+			assertEquals(e.statusCode(), 503);
+			assertEquals(e.circuit(), environment().baseUrl() + "/v1/orders/{id}");
+			assertEquals(e.headers().header("Retry-After"), "60");
+		}
+
+		verify(4, getRequestedFor(urlMatching("/v1/orders/.*")));
+		assertEquals(policy.breaker(environment().baseUrl(), "/v1/orders/1").state(), CircuitBreaker.State.OPEN);
+		assertEquals(policy.breaker(environment().baseUrl(), "/v1/other").state(), CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	public void testCircuitBreaker_executeAsync_failsFastOnceOpen() throws Exception {
+		stubStatus("/v1/orders", 503);
+
+		for (int i = 0; i < 4; i++) {
+			expectStatus(new HttpRequest<>("/v1/orders", "GET", String.class), 503);
+		}
+
+		try {
+			client.executeAsync(new HttpRequest<>("/v1/orders", "GET", String.class)).get(5, TimeUnit.SECONDS);
+			fail("Expected the circuit to be open");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof CircuitOpenException);
+		}
+		verify(4, getRequestedFor(urlEqualTo("/v1/orders")));
+	}
+
+	@Test
+	public void testCircuitBreaker_execute_clientErrorsDoNotOpenCircuit() throws IOException {
+		stubStatus("/v1/orders", 404);
+
+		for (int i = 0; i < 6; i++) {
+			expectStatus(new HttpRequest<>("/v1/orders", "GET", String.class), 404);
+		}
+		verify(6, getRequestedFor(urlEqualTo("/v1/orders")));
+	}
+
+	@Test
+	public void testCircuitBreaker_execute_openCircuitIsNotRetried() throws IOException {
+		stubStatus("/v1/orders", 503);
+		client.setRetryPolicy(new RetryPolicy().maxAttempts(10).backoff(0, 0, TimeUnit.MILLISECONDS));
+
+		try {
+			client.execute(new HttpRequest<>("/v1/orders", "GET", String.class));
+			fail("Expected the circuit to open");
+		} catch (CircuitOpenException expected) {}
+
+		verify(4, getRequestedFor(urlEqualTo("/v1/orders")));
+	}
+
+	@Test
+	public void testCircuitBreaker_halfOpenTrialCallsCloseOrReopenCircuit() throws Exception {
+		CircuitBreakerPolicy policy = new CircuitBreakerPolicy()
+				.minimumCalls(2)
+				.openDuration(50, TimeUnit.MILLISECONDS)
+				.trialCalls(2);
+		CircuitBreaker breaker = policy.breaker("https://api", "/v1/orders");
+
+		trip(breaker);
+		Thread.sleep(60);
+
+		CircuitBreaker.Permit trial = breaker.acquire();
+		assertEquals(breaker.state(), CircuitBreaker.State.HALF_OPEN);
+		trial.record(true, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.OPEN);
+		assertRejected(breaker);
+
+		Thread.sleep(60);
+		CircuitBreaker.Permit first = breaker.acquire();
+		CircuitBreaker.Permit second = breaker.acquire();
+		assertRejected(breaker);
+		first.record(false, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.HALF_OPEN);
+		second.record(false, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.CLOSED);
+
+		breaker.acquire().record(true, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	public void testCircuitBreaker_ignoresOutcomesOfCallsAdmittedInAnEarlierState() throws Exception {
+		CircuitBreakerPolicy policy = new CircuitBreakerPolicy()
+				.minimumCalls(2)
+				.openDuration(50, TimeUnit.MILLISECONDS)
+				.trialCalls(1);
+		CircuitBreaker breaker = policy.breaker("https://api", "/v1/orders");
+
+		CircuitBreaker.Permit beforeTrip = breaker.acquire();
+		trip(breaker);
+		Thread.sleep(60);
+		CircuitBreaker.Permit trial = breaker.acquire();
+
+		beforeTrip.record(true, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.HALF_OPEN);
+		trial.record(false, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.CLOSED);
+
+		trial.record(true, 0);
+		trial.record(true, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	public void testCircuitBreaker_slowCallsOpenCircuit() throws Exception {
+		CircuitBreakerPolicy policy = new CircuitBreakerPolicy()
+				.minimumCalls(4)
+				.slowCallThreshold(1, TimeUnit.SECONDS, 50);
+		CircuitBreaker breaker = policy.breaker("https://api", "/v1/orders");
+
+		breaker.acquire().record(false, TimeUnit.MILLISECONDS.toNanos(10));
+		breaker.acquire().record(false, TimeUnit.MILLISECONDS.toNanos(10));
+		breaker.acquire().record(false, TimeUnit.SECONDS.toNanos(2));
+		assertEquals(breaker.state(), CircuitBreaker.State.CLOSED);
+		breaker.acquire().record(false, TimeUnit.SECONDS.toNanos(2));
+		assertEquals(breaker.state(), CircuitBreaker.State.OPEN);
+	}
+
+	@Test
+	public void testCircuitBreakerPolicy_isFailure() {
+		assertTrue(policy.isFailure(new HttpException("", 502, null)));
+		assertFalse(policy.isFailure(new HttpException("", 429, null)));
+		assertTrue(policy.isFailure(new SocketTimeoutException()));
+		assertFalse(policy.isFailure(new InterruptedIOException()));
+	}
+
+	@Test
+	public void testSlidingWindow_forgetsExpiredBuckets() {
+		SlidingWindow window = new SlidingWindow(10, TimeUnit.SECONDS.toNanos(10));
+		long now = TimeUnit.SECONDS.toNanos(1000);
+
+		window.record(now, true, false);
+		window.record(now + TimeUnit.SECONDS.toNanos(5), false, true);
+		assertEquals(window.totals(now + TimeUnit.SECONDS.toNanos(5)), new long[]{2, 1, 1});
+		assertEquals(window.totals(now + TimeUnit.SECONDS.toNanos(12)), new long[]{1, 0, 1});
+
+		window.record(now + TimeUnit.SECONDS.toNanos(20), false, false);
+		assertEquals(window.totals(now + TimeUnit.SECONDS.toNanos(20)), new long[]{1, 0, 0});
+	}
+
+	private void trip(CircuitBreaker breaker) throws CircuitOpenException {
+		breaker.acquire().record(true, 0);
+		breaker.acquire().record(true, 0);
+		assertEquals(breaker.state(), CircuitBreaker.State.OPEN);
+	}
+
+	private static void assertRejected(CircuitBreaker breaker) {
+		try {
+			breaker.acquire();
+			fail("Expected the call to be rejected");
+		} catch (CircuitOpenException expected) {}
+	}
+
+	private void expectStatus(HttpRequest<String> request, int statusCode) throws IOException {
+		try {
+			client.execute(request);
+			fail("Expected an HttpException");
+		} catch (HttpException e) {
+			assertFalse(e instanceof CircuitOpenException);
+			assertEquals(e.statusCode(), statusCode);
+		}
+	}
+
+	private void stubStatus(String path, int statusCode) {
+		stubFor(WireMock.get(urlMatching(path.replaceAll("\\d+", "\\\\d+")))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(statusCode).withBody("error")));
+	}
+}
@@ -0,0 +1,167 @@
+package com.paypal.http.resilience;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.HttpResponse;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.exceptions.LimitExceededException;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class ConcurrencyLimiterTest extends BasicWireMockHarness {
+
+	@Test
+	public void testConcurrencyLimiter_rejectsCallsOverLimitWithoutQueue() throws IOException {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(2, 1, 2).maxQueue(0);
+
+		ConcurrencyLimiter.Permit first = limiter.acquire();
+		limiter.acquire();
+		assertEquals(limiter.inFlight(), 2);
+
+		try {
+			limiter.acquire();
+			fail("Expected the limit to be exceeded");
+		} catch (LimitExceededException expected) {}
+
+		first.release(null);
+		first.release(null);
+		assertEquals(limiter.inFlight(), 1);
+		limiter.acquire();
+	}
+
+	@Test
+	public void testConcurrencyLimiter_queuedCallsGetPermitsInOrder() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(1, 1, 1);
+
+		ConcurrencyLimiter.Permit permit = limiter.acquire();
+		CompletableFuture<ConcurrencyLimiter.Permit> second = limiter.acquireAsync();
+		CompletableFuture<ConcurrencyLimiter.Permit> third = limiter.acquireAsync();
+		assertFalse(second.isDone());
+		assertEquals(limiter.queued(), 2);
+
+		permit.release(null);
+		assertTrue(second.isDone());
+		assertFalse(third.isDone());
+
+		second.get().release(null);
+		third.get(1, TimeUnit.SECONDS).release(null);
+		assertEquals(limiter.inFlight(), 0);
+	}
+
+	@Test
+	public void testConcurrencyLimiter_queuedCallsTimeOut() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(1, 1, 1).maxWait(20, TimeUnit.MILLISECONDS);
+		limiter.acquire();
+
+		try {
+			limiter.acquireAsync().get(1, TimeUnit.SECONDS);
+			fail("Expected the wait to time out");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof LimitExceededException);
+		}
+		assertEquals(limiter.queued(), 0);
+	}
+
+	@Test
+	public void testConcurrencyLimiter_droppedCallsCutLimit() throws IOException {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(10, 2, 20).backoffRatio(0.5);
+
+		limiter.acquire().release(new HttpException("slow down", 429, null));
+		assertEquals(limiter.limit(), 5);
+		limiter.acquire().release(new HttpException("unavailable", 503, null));
+		assertEquals(limiter.limit(), 2);
+		limiter.acquire().release(new HttpException("not found", 404, null));
+		limiter.acquire().release(new ConnectException());
+		assertEquals(limiter.limit(), 2);
+	}
+
+	@Test
+	public void testConcurrencyLimiter_growsWhileLatencyIsSteady() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(4, 1, 100);
+
+		List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			permits.add(limiter.acquire());
+		}
+		Thread.sleep(20);
+		for (ConcurrencyLimiter.Permit permit : permits) {
+			permit.release(null);
+		}
+
+		assertTrue(limiter.limit() > 4, "limit was " + limiter.limit());
+	}
+
+	@Test
+	public void testConcurrencyLimiter_executeAsync_rejectsCallsOverLimit() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/slow"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(300)
+						.withHeader("Content-Type", "text/plain").withBody("done")));
+		HttpClient client = new HttpClient(environment());
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(1, 1, 1).maxQueue(0);
+		client.setConcurrencyLimiter(limiter);
+
+		CompletableFuture<HttpResponse<String>> first = client.executeAsync(new HttpRequest<>("/slow", "GET", String.class));
+		for (int i = 0; i < 100 && limiter.inFlight() == 0; i++) {
+			Thread.sleep(5);
+		}
+
+		try {
+			client.execute(new HttpRequest<>("/slow", "GET", String.class));
+			fail("Expected the limit to be exceeded");
+		} catch (LimitExceededException expected) {}
+
+		assertEquals(first.get(5, TimeUnit.SECONDS).result(), "done");
+		assertEquals(limiter.inFlight(), 0);
+		assertEquals(client.execute(new HttpRequest<>("/slow", "GET", String.class)).result(), "done");
+	}
+
+	@Test
+	public void testConcurrencyLimiter_comparesResponseTimesPerEndpoint() throws Exception {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(10, 1, 100);
+		limiter.acquire("GET /v1/ping").release(null);
+
+		List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			permits.add(limiter.acquire("GET /v1/reports/{id}"));
+		}
+		Thread.sleep(20);
+		for (ConcurrencyLimiter.Permit permit : permits) {
+			permit.release(null);
+		}
+
+		assertTrue(limiter.limit() >= 10, "a slow endpoint must not look like queueing behind a fast one, limit was " + limiter.limit());
+	}
+
+	@Test
+	public void testConcurrencyLimiter_executeAsync_releasesPermitWhenCallCannotStart() throws Exception {
+		HttpClient client = new HttpClient(environment()) {
+			@Override
+			protected CircuitBreakerPolicy getCircuitBreakerPolicy() {
+				throw new IllegalStateException("misconfigured");
+			}
+		};
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter().limits(1, 1, 1).maxQueue(0);
+		client.setConcurrencyLimiter(limiter);
+
+		try {
+			client.executeAsync(new HttpRequest<>("/slow", "GET", String.class)).get(5, TimeUnit.SECONDS);
+			fail("Expected the call to fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertEquals(limiter.inFlight(), 0);
+	}
+}
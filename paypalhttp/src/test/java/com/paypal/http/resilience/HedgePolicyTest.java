@@ -0,0 +1,165 @@
+package com.paypal.http.resilience;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.HttpResponse;
+import com.paypal.http.metrics.EndpointMetrics;
+import com.paypal.http.metrics.MetricsListener;
+import com.paypal.http.transport.PooledTransport;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.testng.Assert.*;
+
+public class HedgePolicyTest extends BasicWireMockHarness {
+
+	private HttpClient client;
+	private MetricsListener metrics;
+
+	@BeforeMethod
+	public void setup() {
+		super.setup();
+		metrics = new MetricsListener();
+		client = new HttpClient(environment());
+		client.addListener(metrics);
+		client.setHedgePolicy(new HedgePolicy().delayBounds(50, 50, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testHedgePolicy_execute_hedgeAnswersSlowRequest() throws IOException {
+		stubSlowThenFast();
+
+		long start = System.nanoTime();
+		HttpResponse<String> response = client.execute(new HttpRequest<>("/lookup", "GET", String.class));
+
+		assertEquals(response.result(), "fast");
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+		EndpointMetrics endpoint = metrics.endpoint("GET", "/lookup");
+		assertEquals(endpoint.hedges(), 1);
+		assertEquals(endpoint.hedgeWins(), 1);
+	}
+
+	@Test
+	public void testHedgePolicy_execute_hedgesWithoutListeners() throws IOException {
+		stubSlowThenFast();
+		HttpClient client = new HttpClient(environment());
+		client.setHedgePolicy(new HedgePolicy().delayBounds(50, 50, TimeUnit.MILLISECONDS));
+
+		long start = System.nanoTime();
+		HttpResponse<String> response = client.execute(new HttpRequest<>("/lookup", "GET", String.class));
+
+		// Only the hedge gets the fast answer
+		assertEquals(response.result(), "fast");
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+	}
+
+	@Test
+	public void testHedgePolicy_executeAsync_hedgeAnswersSlowRequestOnPooledTransport() throws Exception {
+		stubSlowThenFast();
+		PooledTransport transport = new PooledTransport();
+		client.setTransport(transport);
+
+		try {
+			long start = System.nanoTime();
+			HttpResponse<String> response = client.executeAsync(new HttpRequest<>("/lookup", "GET", String.class))
+					.get(5, TimeUnit.SECONDS);
+
+			assertEquals(response.result(), "fast");
+			assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+			// The slow request is cancelled by closing its connection rather than waiting it out
+			for (int i = 0; i < 100 && transport.stats().leased() > 0; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(transport.stats().leased(), 0);
+			assertEquals(metrics.endpoint("GET", "/lookup").hedgeWins(), 1);
+		} finally {
+			transport.close();
+		}
+	}
+
+	@Test
+	public void testHedgePolicy_execute_fastResponseIsNotHedged() throws IOException {
+		stubFor(WireMock.get(urlEqualTo("/lookup"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withBody("fast")));
+		client.setHedgePolicy(new HedgePolicy().delayBounds(2, 2, TimeUnit.SECONDS));
+
+		assertEquals(client.execute(new HttpRequest<>("/lookup", "GET", String.class)).result(), "fast");
+		verify(1, getRequestedFor(urlEqualTo("/lookup")));
+		assertEquals(metrics.endpoint("GET", "/lookup").hedges(), 0);
+	}
+
+	@Test
+	public void testHedgePolicy_hedgeDelayNanos_skipsNonIdempotentVerbs() {
+		HedgePolicy policy = new HedgePolicy();
+
+		assertEquals(policy.hedgeDelayNanos(new HttpRequest<>("/v1/orders", "POST", String.class)), -1);
+		assertEquals(policy.hedgeDelayNanos(new HttpRequest<>("/v1/orders", "GET", String.class)), TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Test
+	public void testHedgePolicy_hedgeDelayNanos_usesPercentileOfEndpointWithinBounds() {
+		HedgePolicy policy = new HedgePolicy()
+				.percentile(90)
+				.minSamples(10)
+				.delayBounds(1, 500, TimeUnit.MILLISECONDS);
+		HttpRequest<String> request = new HttpRequest<>("/v1/orders/12345", "GET", String.class);
+
+		for (int i = 1; i <= 100; i++) {
+			policy.record(new HttpRequest<>("/v1/orders/" + (1000 + i), "GET", String.class), TimeUnit.MILLISECONDS.toNanos(i));
+		}
+
+		long delay = policy.hedgeDelayNanos(request);
+		assertTrue(Math.abs(delay - TimeUnit.MILLISECONDS.toNanos(90)) < TimeUnit.MILLISECONDS.toNanos(4), "delay was " + delay);
+
+		policy.record(new HttpRequest<>("/v1/slow", "GET", String.class), TimeUnit.SECONDS.toNanos(10));
+		policy.minSamples(1);
+		assertEquals(policy.hedgeDelayNanos(new HttpRequest<>("/v1/slow", "GET", String.class)), TimeUnit.MILLISECONDS.toNanos(500));
+	}
+
+	@Test
+	public void testHedgePolicy_hedgeDelayNanos_followsRecentLatency() {
+		HedgePolicy policy = new HedgePolicy().minSamples(5).windowSize(10).delayBounds(0, 10, TimeUnit.SECONDS);
+		HttpRequest<String> request = new HttpRequest<>("/", "GET", String.class);
+
+		for (int i = 0; i < 10; i++) {
+			policy.record(request, TimeUnit.SECONDS.toNanos(5));
+		}
+		for (int i = 0; i < 10; i++) {
+			policy.record(request, TimeUnit.MILLISECONDS.toNanos(10));
+		}
+
+		assertTrue(policy.hedgeDelayNanos(request) < TimeUnit.MILLISECONDS.toNanos(11));
+	}
+
+	@Test
+	public void testHedgePolicy_tryHedge_isLimitedByBudget() {
+		HedgePolicy policy = new HedgePolicy().budget(new RetryBudget(1, 0));
+
+		assertTrue(policy.tryHedge());
+		assertFalse(policy.tryHedge());
+		assertTrue(new HedgePolicy().budget(null).tryHedge());
+	}
+
+	private void stubSlowThenFast() {
+		stubFor(WireMock.get(urlEqualTo("/lookup")).inScenario("slow")
+				.whenScenarioStateIs(STARTED)
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200).withFixedDelay(3000)
+						.withHeader("Content-Type", "text/plain").withBody("slow"))
+				.willSetStateTo("fast"));
+		stubFor(WireMock.get(urlEqualTo("/lookup")).inScenario("slow")
+				.whenScenarioStateIs("fast")
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withBody("fast")));
+	}
+}
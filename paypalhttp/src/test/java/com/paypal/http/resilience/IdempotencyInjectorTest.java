@@ -0,0 +1,55 @@
+package com.paypal.http.resilience;
+
+import com.paypal.http.HttpRequest;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class IdempotencyInjectorTest {
+
+	private final IdempotencyInjector injector = new IdempotencyInjector();
+
+	@Test
+	public void testIdempotencyInjector_setsStableKeyOnPosts() {
+		HttpRequest<String> request = new HttpRequest<>("/v2/checkout/orders", "POST", String.class);
+
+		injector.inject(request);
+		String key = request.headers().header("paypal-request-id");
+		injector.inject(request);
+
+		assertEquals(key, request.idempotencyKey());
+		assertEquals(request.headers().header(IdempotencyInjector.PAYPAL_REQUEST_ID), key);
+	}
+
+	@Test
+	public void testIdempotencyInjector_setsDistinctKeysOnCopiesOfATemplate() {
+		HttpRequest<String> template = new HttpRequest<>("/v2/checkout/orders", "POST", String.class);
+
+		HttpRequest<String> first = template.copy();
+		HttpRequest<String> second = template.copy();
+		injector.inject(first);
+		injector.inject(second);
+
+		assertNotEquals(first.headers().header(IdempotencyInjector.PAYPAL_REQUEST_ID),
+				second.headers().header(IdempotencyInjector.PAYPAL_REQUEST_ID));
+	}
+
+	@Test
+	public void testIdempotencyInjector_keepsExistingKey() {
+		HttpRequest<String> request = new HttpRequest<>("/v2/checkout/orders", "POST", String.class)
+				.header(IdempotencyInjector.PAYPAL_REQUEST_ID, "my-key");
+
+		injector.inject(request);
+
+		assertEquals(request.headers().header(IdempotencyInjector.PAYPAL_REQUEST_ID), "my-key");
+	}
+
+	@Test
+	public void testIdempotencyInjector_skipsOtherVerbs() {
+		HttpRequest<String> request = new HttpRequest<>("/v2/checkout/orders/1", "GET", String.class);
+
+		injector.inject(request);
+
+		assertNull(request.headers().header(IdempotencyInjector.PAYPAL_REQUEST_ID));
+	}
+}
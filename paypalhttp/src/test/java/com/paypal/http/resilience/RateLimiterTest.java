@@ -0,0 +1,147 @@
+package com.paypal.http.resilience;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.paypal.http.Headers;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.exceptions.CircuitOpenException;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.exceptions.LimitExceededException;
+import com.paypal.http.metrics.EndpointMetrics;
+import com.paypal.http.metrics.MetricsListener;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class RateLimiterTest extends BasicWireMockHarness {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void testRateLimiter_reserve_spacesCallsAfterBurst() throws IOException {
+		RateLimiter.Bucket bucket = new RateLimiter(10).burst(0.2).bucket("https://api", "/v1/orders");
+
+		assertEquals(bucket.reserve(), 0);
+		assertEquals(bucket.reserve(), 0);
+		long wait = bucket.reserve();
+		assertTrue(wait > 90 * MILLIS && wait <= 100 * MILLIS, "wait was " + wait);
+		assertTrue(bucket.tokens() < 0);
+	}
+
+	@Test
+	public void testRateLimiter_reserve_rejectsCallsBeyondMaxWait() throws IOException {
+		RateLimiter.Bucket bucket = new RateLimiter(1).maxWait(500, TimeUnit.MILLISECONDS).bucket("https://api", "/v1/orders");
+
+		bucket.reserve();
+		try {
+			bucket.reserve();
+			fail("Expected the rate limit to be exceeded");
+		} catch (LimitExceededException expected) {}
+
+		assertTrue(bucket.tokens() > -0.1, "a rejected call must not take a token");
+	}
+
+	@Test
+	public void testRateLimiter_record_backsOffOnTooManyRequests() throws IOException {
+		RateLimiter.Bucket bucket = new RateLimiter(100).bucket("https://api", "/v1/orders");
+
+		bucket.record(new HttpException("slow down", 429, new Headers().header("Retry-After", "1")));
+		assertEquals(bucket.rate(), 50.0);
+		assertTrue(bucket.reserve() > 900 * MILLIS);
+
+		bucket.record(new HttpException("not found", 404, null));
+		bucket.record(new HttpException("server error", 500, null));
+		bucket.record(new LimitExceededException("too many"));
+		assertEquals(bucket.rate(), 50.0, "only successes recover the rate");
+		bucket.record(null);
+		assertEquals(bucket.rate(), 55.0);
+		for (int i = 0; i < 20; i++) {
+			bucket.record(null);
+		}
+		assertEquals(bucket.rate(), 100.0);
+	}
+
+	@Test
+	public void testRateLimiter_execute_openCircuitFailsBeforeTakingAToken() throws IOException {
+		HttpClient client = new HttpClient(environment());
+		RateLimiter rateLimiter = new RateLimiter(1).burst(1);
+		CircuitBreakerPolicy circuitBreakerPolicy = new CircuitBreakerPolicy().minimumCalls(1);
+		client.setRateLimiter(rateLimiter);
+		client.setCircuitBreakerPolicy(circuitBreakerPolicy);
+		circuitBreakerPolicy.breaker(environment().baseUrl(), "/v1/orders").acquire().record(true, 0);
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				client.execute(new HttpRequest<>("/v1/orders", "GET", String.class));
+				fail("Expected the open circuit to reject the call");
+			} catch (CircuitOpenException expected) {}
+		}
+
+		assertEquals(rateLimiter.bucket(environment().baseUrl(), "/v1/orders").reserve(), 0);
+	}
+
+	@Test
+	public void testRateLimiter_bucket_isPerRouteTemplate() {
+		RateLimiter limiter = new RateLimiter(10).route("/v1/orders/{id}", 2);
+
+		RateLimiter.Bucket order = limiter.bucket("https://api", "/v1/orders/12345");
+		assertSame(limiter.bucket("https://api", "/v1/orders/67890?fields=all"), order);
+		assertEquals(order.rate(), 2.0);
+		assertEquals(limiter.bucket("https://api", "/v1/orders").rate(), 10.0);
+		assertNotSame(limiter.bucket("https://sandbox", "/v1/orders/12345"), order);
+		assertEquals(limiter.buckets().size(), 3);
+	}
+
+	@Test
+	public void testRateLimiter_execute_smoothsCallsAndReportsTokens() throws IOException {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withBody("ok")));
+		HttpClient client = new HttpClient(environment());
+		MetricsListener metrics = new MetricsListener();
+		client.addListener(metrics);
+		client.setRateLimiter(new RateLimiter(20).burst(0.05));
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 3; i++) {
+			client.execute(new HttpRequest<>("/v1/orders", "GET", String.class));
+		}
+		assertTrue(System.nanoTime() - start >= 90 * MILLIS);
+
+		EndpointMetrics endpoint = metrics.endpoint("GET", "/v1/orders");
+		assertEquals(endpoint.histogram(EndpointMetrics.Phase.RATE_LIMIT_WAIT).count(), 3);
+		assertFalse(Double.isNaN(endpoint.rateLimitTokens()));
+	}
+
+	@Test
+	public void testRateLimiter_executeAsync_backsOffOnTooManyRequests() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/v1/orders"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(429).withHeader("Retry-After", "2").withBody("slow down")));
+		HttpClient client = new HttpClient(environment());
+		RateLimiter limiter = new RateLimiter(10).maxWait(1, TimeUnit.SECONDS);
+		client.setRateLimiter(limiter);
+
+		try {
+			client.executeAsync(new HttpRequest<>("/v1/orders", "GET", String.class)).get(5, TimeUnit.SECONDS);
+			fail("Expected the 429 to be thrown");
+		} catch (ExecutionException e) {
+			assertEquals(((HttpException) e.getCause()).statusCode(), 429);
+		}
+		assertEquals(limiter.bucket(environment().baseUrl(), "/v1/orders").rate(), 5.0);
+
+		try {
+			client.executeAsync(new HttpRequest<>("/v1/orders", "GET", String.class)).get(5, TimeUnit.SECONDS);
+			fail("Expected the route to be paused");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof LimitExceededException);
+		}
+		verify(1, getRequestedFor(urlEqualTo("/v1/orders")));
+	}
+}
@@ -0,0 +1,245 @@
+package com.paypal.http.resilience;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.paypal.http.Headers;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpClientListener;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.HttpResponse;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.testng.Assert.*;
+
+public class RetryPolicyTest extends BasicWireMockHarness {
+
+	private HttpClient client;
+
+	@BeforeMethod
+	public void setup() {
+		super.setup();
+		client = new HttpClient(environment());
+		client.setRetryPolicy(new RetryPolicy().backoff(0, 0, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testRetryPolicy_retriesRetriableStatusUntilSuccess() throws IOException {
+		stubFlaky("GET", 503);
+		List<Integer> retries = new CopyOnWriteArrayList<>();
+		client.addListener(new HttpClientListener() {
+			@Override
+			public void retry(HttpRequest<?> request, int attempts, IOException e, long delayNanos) {
+				retries.add(attempts);
+			}
+		});
+
+		HttpResponse<String> response = client.execute(new HttpRequest<>("/flaky", "GET", String.class));
+
+		assertEquals(response.statusCode(), 200);
+		assertEquals(response.result(), "ok");
+		assertEquals(retries.size(), 1);
+		assertEquals((int) retries.get(0), 1);
+		verify(2, getRequestedFor(urlEqualTo("/flaky")));
+	}
+
+	@Test
+	public void testRetryPolicy_resendsTheSameBodyOnEachAttempt() throws IOException {
+		stubFlaky("PUT", 502);
+
+		HttpRequest<String> request = new HttpRequest<>("/flaky", "PUT", String.class);
+		request.header("Content-Type", "text/plain");
+		request.requestBody("payload");
+
+		assertEquals(client.execute(request).statusCode(), 200);
+		verify(2, putRequestedFor(urlEqualTo("/flaky")).withRequestBody(equalTo("payload")));
+	}
+
+	@Test
+	public void testRetryPolicy_doesNotRetryNonIdempotentVerbs() throws IOException {
+		stubFlaky("POST", 503);
+
+		HttpRequest<String> request = new HttpRequest<>("/flaky", "POST", String.class);
+		request.header("Content-Type", "text/plain");
+		request.requestBody("payload");
+
+		try {
+			client.execute(request);
+			fail("Expected the 503 to be thrown");
+		} catch (HttpException e) {
+			assertEquals(e.statusCode(), 503);
+		}
+		verify(1, postRequestedFor(urlEqualTo("/flaky")));
+	}
+
+	@Test
+	public void testRetryPolicy_retriesPostsWithIdempotencyKey() throws IOException {
+		stubFlaky("POST", 503);
+		client.addInjector(new IdempotencyInjector());
+
+		HttpRequest<String> request = new HttpRequest<>("/flaky", "POST", String.class);
+		request.header("Content-Type", "text/plain");
+		request.requestBody("payload");
+
+		assertEquals(client.execute(request).statusCode(), 200);
+		assertEquals(client.execute(request).statusCode(), 200);
+
+		List<LoggedRequest> sent = findAll(postRequestedFor(urlEqualTo("/flaky")));
+		assertEquals(sent.size(), 3);
+		String key = sent.get(0).getHeader(IdempotencyInjector.PAYPAL_REQUEST_ID);
+		assertNotNull(key);
+		assertEquals(sent.get(1).getHeader(IdempotencyInjector.PAYPAL_REQUEST_ID), key, "a retry must reuse its call's key");
+		assertNotEquals(sent.get(2).getHeader(IdempotencyInjector.PAYPAL_REQUEST_ID), key, "a new call must get a new key");
+		assertNull(request.headers().header(IdempotencyInjector.PAYPAL_REQUEST_ID));
+	}
+
+	@Test
+	public void testRetryPolicy_givesUpAfterMaxAttempts() throws IOException {
+		stubFor(WireMock.get(urlEqualTo("/down"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(503).withBody("down")));
+
+		try {
+			client.execute(new HttpRequest<>("/down", "GET", String.class));
+			fail("Expected the 503 to be thrown");
+		} catch (HttpException e) {
+			assertEquals(e.statusCode(), 503);
+		}
+		verify(RetryPolicy.DEFAULT_MAX_ATTEMPTS, getRequestedFor(urlEqualTo("/down")));
+	}
+
+	@Test
+	public void testRetryPolicy_executeAsync_retriesUntilSuccess() throws Exception {
+		stubFlaky("GET", 429);
+
+		HttpResponse<String> response = client.executeAsync(new HttpRequest<>("/flaky", "GET", String.class))
+				.get(5, TimeUnit.SECONDS);
+
+		assertEquals(response.result(), "ok");
+		verify(2, getRequestedFor(urlEqualTo("/flaky")));
+	}
+
+	@Test
+	public void testRetryPolicy_executeAsync_failsWithLastError() throws Exception {
+		stubFor(WireMock.get(urlEqualTo("/down"))
+				.willReturn(new ResponseDefinitionBuilder().withStatus(504).withBody("down")));
+
+		try {
+			client.executeAsync(new HttpRequest<>("/down", "GET", String.class)).get(5, TimeUnit.SECONDS);
+			fail("Expected the 504 to be thrown");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof HttpException);
+			assertEquals(((HttpException) e.getCause()).statusCode(), 504);
+		}
+		verify(RetryPolicy.DEFAULT_MAX_ATTEMPTS, getRequestedFor(urlEqualTo("/down")));
+	}
+
+	@Test
+	public void testRetryPolicy_retryDelayMillis_checksVerbStatusAndExceptionClass() {
+		RetryPolicy policy = new RetryPolicy().backoff(0, 0, TimeUnit.MILLISECONDS).budget(null);
+		HttpRequest<String> get = new HttpRequest<>("/", "GET", String.class);
+		HttpRequest<String> post = new HttpRequest<>("/", "POST", String.class);
+
+		assertEquals(policy.retryDelayMillis(get, httpException(503, null), 1), 0);
+		assertEquals(policy.retryDelayMillis(get, new ConnectException("refused"), 1), 0);
+		assertEquals(policy.retryDelayMillis(get, httpException(500, null), 1), -1);
+		assertEquals(policy.retryDelayMillis(get, new UnknownHostException("nope"), 1), -1);
+		assertEquals(policy.retryDelayMillis(post, httpException(503, null), 1), -1);
+		assertEquals(policy.retryDelayMillis(get, httpException(503, null), 3), -1);
+	}
+
+	@Test
+	public void testRetryPolicy_retryDelayMillis_backsOffExponentiallyWithinCap() {
+		RetryPolicy policy = new RetryPolicy().maxAttempts(10).backoff(100, 400, TimeUnit.MILLISECONDS).budget(null);
+		HttpRequest<String> get = new HttpRequest<>("/", "GET", String.class);
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(policy.retryDelayMillis(get, httpException(503, null), 1) <= 100);
+			assertTrue(policy.retryDelayMillis(get, httpException(503, null), 2) <= 200);
+			assertTrue(policy.retryDelayMillis(get, httpException(503, null), 9) <= 400);
+		}
+	}
+
+	@Test
+	public void testRetryPolicy_retryDelayMillis_honoursRetryAfter() {
+		RetryPolicy policy = new RetryPolicy().maxRetryAfter(10, TimeUnit.SECONDS).budget(null);
+		HttpRequest<String> get = new HttpRequest<>("/", "GET", String.class);
+
+		assertEquals(policy.retryDelayMillis(get, httpException(429, "2"), 1), 2000);
+		assertEquals(policy.retryDelayMillis(get, httpException(429, "60"), 1), -1);
+
+		String date = ZonedDateTime.now().plusSeconds(5).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+		long delay = policy.retryDelayMillis(get, httpException(503, date), 1);
+		assertTrue(delay > 3000 && delay <= 5000, "delay was " + delay);
+	}
+
+	@Test
+	public void testRetryPolicy_retryAfterMillis_ignoresMalformedValues() {
+		assertEquals(RetryPolicy.retryAfterMillis(null), -1);
+		assertEquals(RetryPolicy.retryAfterMillis("soon"), -1);
+		assertEquals(RetryPolicy.retryAfterMillis(" 3 "), 3000);
+		assertEquals(RetryPolicy.retryAfterMillis("Thu, 01 Jan 1970 00:00:00 GMT"), 0);
+	}
+
+	@Test
+	public void testRetryPolicy_stopsRetryingWhenBudgetIsExhausted() {
+		RetryBudget budget = new RetryBudget(1, 0.5);
+		RetryPolicy policy = new RetryPolicy().backoff(0, 0, TimeUnit.MILLISECONDS).budget(budget);
+		HttpRequest<String> get = new HttpRequest<>("/", "GET", String.class);
+
+		assertEquals(policy.retryDelayMillis(get, httpException(503, null), 1), 0);
+		assertEquals(policy.retryDelayMillis(get, httpException(503, null), 1), -1);
+
+		policy.recordCall();
+		assertEquals(policy.retryDelayMillis(get, httpException(503, null), 1), -1);
+		policy.recordCall();
+		assertEquals(policy.retryDelayMillis(get, httpException(503, null), 1), 0);
+	}
+
+	@Test
+	public void testRetryBudget_capsTokensAtMaximum() {
+		RetryBudget budget = new RetryBudget(2, 1.0);
+		for (int i = 0; i < 10; i++) {
+			budget.recordCall();
+		}
+
+		assertEquals(budget.available(), 2);
+		assertTrue(budget.tryAcquire());
+		assertTrue(budget.tryAcquire());
+		assertFalse(budget.tryAcquire());
+	}
+
+	private void stubFlaky(String verb, int status) {
+		stubFor(WireMock.request(verb, urlEqualTo("/flaky")).inScenario("flaky")
+				.whenScenarioStateIs(STARTED)
+				.willReturn(new ResponseDefinitionBuilder().withStatus(status).withBody("unavailable"))
+				.willSetStateTo("recovered"));
+		stubFor(WireMock.request(verb, urlEqualTo("/flaky")).inScenario("flaky")
+				.whenScenarioStateIs("recovered")
+				.willReturn(new ResponseDefinitionBuilder().withStatus(200)
+						.withHeader("Content-Type", "text/plain").withBody("ok")));
+	}
+
+	private static HttpException httpException(int statusCode, String retryAfter) {
+		Headers headers = new Headers();
+		if (retryAfter != null) {
+			headers.header("Retry-After", retryAfter);
+		}
+
+		return new HttpException("error", statusCode, headers);
+	}
+}
@@ -1,5 +1,6 @@
 package com.paypal.http.serializer;
 
+import com.google.gson.GsonBuilder;
 import com.paypal.http.Zoo;
 import com.paypal.http.annotations.ListOf;
 import com.paypal.http.annotations.Model;
@@ -8,13 +9,16 @@ import com.paypal.http.exceptions.MalformedJsonException;
 import com.paypal.http.exceptions.SerializeException;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.testng.Assert.*;
 
 public class JsonTest {
@@ -44,7 +48,7 @@ public class JsonTest {
                 fish
         );
 
-        String expected = "{\"name\":\"Monterey Bay Aquarium\",\"animal\":{\"locales\":[\"ocean\",\"lake\"],\"kind\":\"swimmy\",\"carnivorous\":false,\"weight\":10.0,\"age\":3,\"appendages\":{\"Dorsal fin\":{\"size\":2,\"location\":\"back\"},\"Ventral fin\":{\"size\":2,\"location\":\"front\"}}},\"number_of_animals\":1}";
+        String expected = "{\"name\":\"Monterey Bay Aquarium\",\"number_of_animals\":1,\"animal\":{\"kind\":\"swimmy\",\"age\":3,\"weight\":10.0,\"appendages\":{\"Dorsal fin\":{\"location\":\"back\",\"size\":2},\"Ventral fin\":{\"location\":\"front\",\"size\":2}},\"locales\":[\"ocean\",\"lake\"],\"carnivorous\":false}}";
 
         String s = new Json().serialize(zoo);
         assertEquals(s, expected);
@@ -85,6 +89,79 @@ public class JsonTest {
         assertEquals(actual, expected);
     }
 
+    @Test()
+    public void testJson_serialize_usesInjectedGson() throws SerializeException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("key", null);
+
+        assertEquals(new Json().serialize(map), "{}");
+        assertEquals(new Json(new GsonBuilder().serializeNulls().create()).serialize(map), "{\"key\":null}");
+    }
+
+    @Test()
+    public void testJson_serialize_mapBindingMatchesStreamingBinding() throws IOException {
+        Zoo.Animal fish = new Zoo.Animal("swimmy", 3, 10, new Zoo.Fins(), null, false);
+        Zoo zoo = new Zoo("Monterey Bay Aquarium", 1, fish);
+
+        Json mapped = new Json(new GsonBuilder().create(), false);
+        Json streamed = new Json();
+
+        Map<String, Object> expected = mapped.decode(mapped.serialize(zoo), Map.class);
+        Map<String, Object> actual = mapped.decode(streamed.serialize(zoo), Map.class);
+
+        assertEquals(actual, expected);
+        assertEquals(streamed.decode(mapped.serialize(zoo), Zoo.class).animal.appendages.ventralFin.location, "Ventral fin");
+    }
+
+    @Test()
+    public void testJson_deserialize_nullsInModelList() throws IOException {
+        ZooList zoos = new Json().decode("[{\"name\":\"Shedd\"}, null]", ZooList.class);
+
+        assertEquals(zoos.size(), 2);
+        assertEquals(zoos.get(0).name, "Shedd");
+        assertNull(zoos.get(1));
+    }
+
+    @Test(expectedExceptions = MalformedJsonException.class)
+    public void testJson_deserialize_throwsForTrailingData() throws IOException {
+        new Json().decode("{\"name\":\"Shedd\"} {}", Zoo.class);
+    }
+
+    @Test(expectedExceptions = MalformedJsonException.class)
+    public void testJson_deserialize_throwsForMismatchedFieldType() throws IOException {
+        new Json().decode("{\"name\": 1}", Zoo.class);
+    }
+
+    @Model
+    public static class Ledger {
+
+        @SerializedName("balance")
+        public Long balance;
+
+        @SerializedName("amount")
+        public BigDecimal amount;
+
+        @SerializedName("count")
+        public Integer count;
+
+        @SerializedName(value = "ids", listClass = Long.class)
+        public List<Long> ids;
+
+        public Ledger() {}
+    }
+
+    @Test()
+    public void testJson_deserialize_keepsPrecisionOfTypedNumbers() throws IOException {
+        String json = "{\"balance\": 9007199254740993, \"amount\": 0.10000000000000001, \"count\": 2.0, \"ids\": [9007199254740995]}";
+
+        Ledger ledger = new Json().decode(json, Ledger.class);
+
+        assertEquals(ledger.balance, Long.valueOf(9007199254740993L));
+        assertEquals(ledger.amount, new BigDecimal("0.10000000000000001"));
+        assertEquals(ledger.count, Integer.valueOf(2));
+        assertEquals(ledger.ids.get(0), Long.valueOf(9007199254740995L));
+    }
+
     /* Deserialize */
 
     @Test(expectedExceptions = MalformedJsonException.class)
@@ -378,6 +455,18 @@ public class JsonTest {
         assertTrue(obj.get("id") instanceof List);
     }
 
+    @Test
+    public void testJson_deserialize_fromStream() throws IOException {
+        String json = "{\"name\":\"Shedd\",\"number_of_animals\":2}";
+
+        Zoo zoo = new Json().decode(new ByteArrayInputStream(json.getBytes(UTF_8)), UTF_8, Zoo.class);
+        Map<String, Object> map = new Json().decode(new ByteArrayInputStream(json.getBytes(UTF_8)), UTF_8, Map.class);
+
+        assertEquals(zoo.name, "Shedd");
+        assertEquals(zoo.numberOfAnimals.intValue(), 2);
+        assertEquals(map.get("name"), "Shedd");
+    }
+
     @Test
     public void testParsesEmptyString() throws IOException {
         String json = "{\"name\": \"\"}";
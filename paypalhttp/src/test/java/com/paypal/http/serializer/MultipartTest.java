@@ -4,13 +4,17 @@ import com.paypal.http.Headers;
 import com.paypal.http.HttpRequest;
 import com.paypal.http.Zoo;
 import com.paypal.http.multipart.FilePart;
+import com.paypal.http.multipart.FormData;
 import com.paypal.http.multipart.FormPart;
 import com.paypal.http.multipart.JsonPart;
 import com.paypal.http.multipart.MultipartBody;
+import com.paypal.http.transport.RequestBody;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -49,6 +53,34 @@ public class MultipartTest {
 		assertTrue(serialized.contains(new Json().serialize(mixedPart)));
 	}
 
+	@Test
+	public void testMultipart_encodeBody_computesExactContentLength() throws IOException {
+		FileUploadRequest request = simpleFileRequest()
+				.file("binary_file", resource("fileupload_test_binary.jpg").toFile())
+				.formData("caf\u00e9", "cr\u00e8me br\u00fbl\u00e9e")
+				.mixedData("some_mixed_part", new Zoo("Brian Tree", 10, null));
+
+		RequestBody body = multipart.encodeBody(request);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		body.writeTo(os);
+		assertEquals(body.contentLength(), os.size());
+	}
+
+	@Test
+	public void testMultipart_encodeBody_unknownPartLengthIsChunked() throws IOException {
+		HttpRequest<Void> request = new HttpRequest<>("/file_upload", "POST", Void.class)
+				.header(Headers.CONTENT_TYPE, "multipart/form-data");
+		request.requestBody(new MultipartBody(new FormData("streamed") {
+			@Override
+			public void writeData(OutputStream os) throws IOException {
+				os.write("some data".getBytes());
+			}
+		}));
+
+		assertEquals(multipart.encodeBody(request).contentLength(), -1);
+	}
+
 	@Test
 	public void testMultipart_serialize_withBinaryData() throws IOException {
 		FileUploadRequest request = simpleFileRequest()
@@ -110,6 +142,27 @@ public class MultipartTest {
 		assertTrue(byteArrayContains(data, new Json().serialize(mixedPart).getBytes()));
 	}
 
+	@Test
+	public void testJsonPart_writeData_writesTheValueMeasuredByContentLength() throws IOException {
+		Zoo.Animal animal = new Zoo.Animal();
+		animal.age = 1;
+		JsonPart part = new JsonPart("animal", animal);
+
+		long contentLength = part.contentLength();
+		animal.age = 100;
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		part.writeData(data);
+
+		assertEquals(data.size(), contentLength);
+		assertEquals(data.toString("UTF-8"), new Json().serialize(animalAged(1)));
+	}
+
+	private Zoo.Animal animalAged(int age) {
+		Zoo.Animal animal = new Zoo.Animal();
+		animal.age = age;
+		return animal;
+	}
+
 	private boolean byteArrayContains(byte[] b1, byte[] subba) {
 		for (int i = 0; i < b1.length - subba.length; i++ ) {
 			if (Arrays.equals(Arrays.copyOfRange(b1, i, i + subba.length), subba)) {
@@ -151,4 +151,44 @@ public class ObjectMapperTest {
 		assertNull(output.nullIntegerData);
 		assertNull(output.nullStringData);
 	}
+
+	@Test
+	public void testModelDescriptor_isCachedPerClass() {
+		ModelDescriptor descriptor = ModelDescriptor.of(TestData.class);
+
+		assertSame(descriptor, ModelDescriptor.of(TestData.class));
+		assertTrue(descriptor.isModel());
+		assertEquals("stringData", descriptor.property("string_data").field.getName());
+		assertEquals(NestedTestData.class, descriptor.property("nested_datas").listClass);
+		assertNull(descriptor.property("unannotated_data"));
+
+		for (ModelDescriptor.Property property : descriptor.serializedProperties()) {
+			assertFalse("transient_int".equals(property.name));
+		}
+	}
+
+	@Model
+	private static class FinalFieldData {
+
+		public FinalFieldData() {}
+
+		@SerializedName("final_data")
+		private final String finalData = null;
+
+		@SerializedName("primitive_data")
+		private int primitiveData;
+	}
+
+	@Test
+	public void testUnmap_setsFinalAndPrimitiveFields() throws InstantiationException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+		Map<String, Object> data = new HashMap<>();
+		data.put("final_data", "final value");
+		data.put("primitive_data", 5);
+
+		FinalFieldData output = ObjectMapper.unmap(data, FinalFieldData.class);
+
+		assertEquals("final value", ModelDescriptor.of(FinalFieldData.class).property("final_data").get(output));
+		assertEquals(5, output.primitiveData);
+		assertEquals(5, ObjectMapper.map(output).get("primitive_data"));
+	}
 }
@@ -0,0 +1,264 @@
+package com.paypal.http.transport;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.paypal.http.Headers;
+import com.paypal.http.HttpClient;
+import com.paypal.http.HttpRequest;
+import com.paypal.http.HttpResponse;
+import com.paypal.http.Zoo;
+import com.paypal.http.exceptions.HttpException;
+import com.paypal.http.multipart.FilePart;
+import com.paypal.http.multipart.FormData;
+import com.paypal.http.multipart.FormPart;
+import com.paypal.http.multipart.MultipartBody;
+import com.paypal.http.utils.BasicWireMockHarness;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.testng.Assert.*;
+
+public class PooledTransportTest extends BasicWireMockHarness {
+
+	private PooledTransport transport;
+	private HttpClient client;
+
+	@BeforeMethod
+	public void setup() {
+		super.setup();
+		transport = new PooledTransport();
+		client = new HttpClient(environment());
+		client.setTransport(transport);
+	}
+
+	@AfterMethod
+	public void closeTransport() {
+		transport.close();
+	}
+
+	@Test
+	public void testPooledTransport_send_reusesConnectionForSameRoute() throws IOException {
+		stubFor(WireMock.get(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(200)
+						.withHeader("Content-Type", "text/plain")
+						.withBody("some data")));
+
+		for (int i = 0; i < 3; i++) {
+			HttpResponse<String> response = client.execute(new HttpRequest<>("/", "GET", String.class));
+			assertEquals(response.result(), "some data");
+		}
+
+		PoolStats stats = transport.stats();
+		assertEquals(stats.created(), 1);
+		assertEquals(stats.reused(), 2);
+		assertEquals(stats.leased(), 0);
+		assertEquals(stats.idle(), 1);
+	}
+
+	@Test
+	public void testPooledTransport_send_writesBodyAndDeserializesResponse() throws IOException {
+		HttpRequest<Zoo> request = new HttpRequest<>("/zoos", "POST", Zoo.class)
+				.header(Headers.CONTENT_TYPE, "text/plain")
+				.requestBody("some data");
+
+		Zoo zoo = new Zoo("Brian Tree", 10, null);
+		stub(request, new HttpResponse<Zoo>(new Headers().header("Content-Type", "application/json"), 201, zoo) {});
+
+		HttpResponse<Zoo> response = client.execute(request);
+
+		assertEquals(response.statusCode(), 201);
+		assertEquals(response.result().name, "Brian Tree");
+		verify(postRequestedFor(urlEqualTo("/zoos"))
+				.withHeader("User-Agent", WireMock.equalTo("Java HTTP/1.1"))
+				.withRequestBody(WireMock.equalTo("some data")));
+	}
+
+	@Test
+	public void testPooledTransport_send_transfersFilePartWithContentLength() throws IOException {
+		stubFor(WireMock.post(urlPathEqualTo("/upload"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(204)));
+
+		File file = Paths.get("src/test/resources/fileupload_test_text.txt").toAbsolutePath().toFile();
+		HttpRequest<Void> request = new HttpRequest<>("/upload", "POST", Void.class)
+				.header(Headers.CONTENT_TYPE, "multipart/form-data")
+				.requestBody(new MultipartBody(new FilePart("file", file), new FormPart("key", "some value")));
+
+		client.execute(request);
+
+		String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		verify(postRequestedFor(urlEqualTo("/upload"))
+				.withoutHeader("Transfer-Encoding")
+				.withHeader("Content-Type", containing("boundary="))
+				.withRequestBody(containing(contents))
+				.withRequestBody(containing("some value")));
+	}
+
+	@Test
+	public void testPooledTransport_send_streamsUnknownLengthBodyChunked() throws IOException {
+		stubFor(WireMock.post(urlPathEqualTo("/upload"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(204)));
+
+		HttpRequest<Void> request = new HttpRequest<>("/upload", "POST", Void.class)
+				.header(Headers.CONTENT_TYPE, "multipart/form-data")
+				.requestBody(new MultipartBody(new FormData("streamed") {
+					@Override
+					public void writeData(OutputStream os) throws IOException {
+						os.write("some value".getBytes(StandardCharsets.UTF_8));
+					}
+				}));
+
+		client.execute(request);
+		client.execute(new HttpRequest<>("/upload", "POST", Void.class)
+				.header(Headers.CONTENT_TYPE, "text/plain")
+				.requestBody("some data"));
+
+		verify(postRequestedFor(urlEqualTo("/upload"))
+				.withHeader("Transfer-Encoding", WireMock.equalTo("chunked"))
+				.withRequestBody(containing("some value")));
+		verify(postRequestedFor(urlEqualTo("/upload"))
+				.withHeader("Content-Length", WireMock.equalTo("9"))
+				.withRequestBody(WireMock.equalTo("some data")));
+		assertEquals(transport.stats().reused(), 1);
+	}
+
+	@Test
+	public void testPooledTransport_send_reusesConnectionAfterErrorResponse() throws IOException {
+		stubFor(WireMock.get(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(400)
+						.withHeader("Content-Type", "text/plain")
+						.withBody("bad request")));
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				client.execute(new HttpRequest<>("/", "GET", String.class));
+				fail("Expected an HttpException");
+			} catch (HttpException e) {
+				assertEquals(e.statusCode(), 400);
+				assertEquals(e.getMessage(), "bad request");
+			}
+		}
+
+		assertEquals(transport.stats().created(), 1);
+		assertEquals(transport.stats().reused(), 1);
+	}
+
+	@Test
+	public void testPooledTransport_send_waitsForLeasedConnectionsWhenRouteIsFull() throws IOException {
+		transport.close();
+		transport = new PooledTransport(1, 30, TimeUnit.SECONDS);
+
+		stubFor(WireMock.get(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(200)
+						.withBody("some data")));
+
+		TransportRequest request = new TransportRequest(environment().baseUrl() + "/", "GET", new Headers())
+				.connectTimeout(100)
+				.readTimeout(1000);
+
+		try (TransportResponse leased = transport.send(request)) {
+			assertEquals(transport.stats().leased(), 1);
+			transport.send(request);
+			fail("Expected the second request to time out waiting for a connection");
+		} catch (SocketTimeoutException e) {
+			assertTrue(e.getMessage().startsWith("Timed out waiting for a pooled connection"));
+		}
+
+		assertEquals(transport.stats().leased(), 0);
+	}
+
+	@Test
+	public void testPooledTransport_send_doesNotReplayPostAfterBodyWasSent() throws IOException {
+		stubFor(WireMock.get(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(204)));
+		stubFor(WireMock.post(urlPathEqualTo("/payments"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withFault(Fault.EMPTY_RESPONSE)));
+
+		client.execute(new HttpRequest<>("/", "GET", Void.class));
+		try {
+			client.execute(new HttpRequest<>("/payments", "POST", Void.class)
+					.header(Headers.CONTENT_TYPE, "text/plain")
+					.requestBody("pay 10"));
+			fail("Expected the dropped connection to fail the POST");
+		} catch (IOException expected) {}
+
+		assertEquals(transport.stats().reused(), 1);
+		verify(1, postRequestedFor(urlEqualTo("/payments")).withRequestBody(WireMock.equalTo("pay 10")));
+	}
+
+	@Test
+	public void testPooledTransport_send_retriesIdempotentRequestOnNewConnection() throws IOException {
+		stubFor(WireMock.get(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(204)));
+		stubFor(WireMock.put(urlPathEqualTo("/orders/1"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withFault(Fault.EMPTY_RESPONSE)));
+
+		client.execute(new HttpRequest<>("/", "GET", Void.class));
+		client.execute(new HttpRequest<>("/", "GET", Void.class));
+		try {
+			client.execute(new HttpRequest<>("/orders/1", "PUT", Void.class)
+					.header(Headers.CONTENT_TYPE, "text/plain")
+					.requestBody("shipped"));
+			fail("Expected the dropped connections to fail the PUT");
+		} catch (IOException expected) {}
+
+		verify(2, putRequestedFor(urlEqualTo("/orders/1")));
+		assertEquals(transport.stats().created(), 2);
+	}
+
+	@Test
+	public void testPooledTransport_evictsIdleConnections() throws IOException, InterruptedException {
+		transport.close();
+		transport = new PooledTransport(5, 50, TimeUnit.MILLISECONDS);
+		client.setTransport(transport);
+
+		stubFor(WireMock.get(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(204)));
+
+		client.execute(new HttpRequest<>("/", "GET", Void.class));
+		assertEquals(transport.stats().idle(), 1);
+
+		Thread.sleep(300);
+
+		assertEquals(transport.stats().idle(), 0);
+	}
+
+	@Test
+	public void testPooledTransport_close_rejectsFurtherRequests() throws IOException {
+		stubFor(WireMock.get(urlPathEqualTo("/"))
+				.willReturn(new ResponseDefinitionBuilder()
+						.withStatus(204)));
+
+		client.execute(new HttpRequest<>("/", "GET", Void.class));
+		transport.close();
+
+		assertEquals(transport.stats().idle(), 0);
+		try {
+			client.execute(new HttpRequest<>("/", "GET", Void.class));
+			fail("Expected a closed transport to throw");
+		} catch (IOException e) {
+			assertEquals(e.getMessage(), "PooledTransport has been closed");
+		}
+	}
+}